@@ -0,0 +1,59 @@
+package frc.robot.benchmarks;
+
+// Benchmark imports
+import org.openjdk.jmh.annotations.*;
+
+// Robot imports
+import frc.robot.io.LimelightIO;
+import frc.robot.misc_subclasses.Limelight;
+import frc.robot.wrappers.GenericPID;
+import java.util.Random;
+
+/** Benchmarks the arm setpoint math and the limelight tracking math run every loop */
+@State(Scope.Thread)
+public class ControlBenchmark {
+    private static final int SAMPLES = 1024;
+
+    private final double[] setpoints = new double[SAMPLES];
+    private final double[] ty = new double[SAMPLES];
+    private Limelight limelight;
+    private int i = 0;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(1);
+        for (int n = 0; n < SAMPLES; n++) {
+            setpoints[n] = random.nextDouble() * 40 - 10;
+            ty[n] = random.nextDouble() * 40 - 20;
+        }
+
+        // A limelight that always sees a target at the next sampled angle
+        limelight = new Limelight(new LimelightIO() {
+            @Override
+            public void updateInputs(Inputs inputs) {
+                int n = next();
+                inputs.tv = 1;
+                inputs.tx = ty[n] / 2;
+                inputs.ty = ty[n];
+                inputs.ta = 1;
+            }
+        });
+    }
+
+    private int next() {
+        i = (i + 1) & (SAMPLES - 1);
+        return i;
+    }
+
+    @Benchmark // The conversion and clamping done by GenericPID.setSetpoint(), without a Spark Max attached
+    public double genericPIDSetpoint() {
+        return GenericPID.scaleAndClamp(setpoints[next()], 8.3808246, 0, 18 * 8.3808246);
+    }
+
+    @Benchmark // Steer, drive, and distance to the target
+    public double limelightTracking() {
+        limelight.readInputs();
+        limelight.updateLimelightTracking();
+        return limelight.getDistance();
+    }
+}
@@ -0,0 +1,102 @@
+package frc.robot.benchmarks;
+
+// Benchmark imports
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+// Robot imports
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.kinematics.ChassisSpeeds;
+import edu.wpi.first.math.kinematics.SwerveDriveOdometry;
+import edu.wpi.first.math.kinematics.SwerveModulePosition;
+import edu.wpi.first.math.kinematics.SwerveModuleState;
+import frc.robot.subsystems.Drivetrain;
+import frc.robot.utils.SwerveSetpointGenerator;
+import java.util.Random;
+
+import static frc.robot.Constants.DriveConstants.*;
+import static frc.robot.Constants.SwerveConstants.*;
+
+/** Benchmarks the math the drivetrain runs every loop: joystick shaping, turning speeds into module setpoints,
+ *  and odometry */
+@State(Scope.Thread)
+public class DriveBenchmark {
+    /** The number of precomputed inputs cycled through, so the JIT cannot fold them into constants */
+    private static final int SAMPLES = 1024;
+
+    private final double[] joystick = new double[SAMPLES];
+    private final ChassisSpeeds[] speeds = new ChassisSpeeds[SAMPLES];
+    private final Rotation2d[] headings = new Rotation2d[SAMPLES];
+    private final SwerveModulePosition[][] positions = new SwerveModulePosition[SAMPLES][4];
+    private SwerveDriveOdometry odometry;
+    private final SwerveSetpointGenerator setpointGenerator = new SwerveSetpointGenerator(
+        MODULE_TRANSLATIONS, MAX_TRANSLATION_SPEED, MAX_MODULE_ACCELERATION, MAX_MODULE_STEERING_SPEED);
+    /** The last setpoint generated, fed back in like Drivetrain does with each module's desired state */
+    private SwerveModuleState[] previousStates = {
+        new SwerveModuleState(), new SwerveModuleState(), new SwerveModuleState(), new SwerveModuleState()
+    };
+    private int i = 0;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(1);
+        double distance = 0;
+        for (int n = 0; n < SAMPLES; n++) {
+            joystick[n] = random.nextDouble() * 2 - 1;
+            speeds[n] = new ChassisSpeeds(
+                random.nextDouble() * MAX_TRANSLATION_SPEED,
+                random.nextDouble() * MAX_TRANSLATION_SPEED,
+                random.nextDouble() * MAX_ROTATION_SPEED);
+            headings[n] = Rotation2d.fromDegrees(random.nextDouble() * 360);
+
+            // Modules roll forward a little each loop like they do on the robot
+            distance += .05;
+            for (int module = 0; module < 4; module++)
+                positions[n][module] = new SwerveModulePosition(distance, Rotation2d.fromDegrees(random.nextDouble() * 360));
+        }
+        odometry = new SwerveDriveOdometry(SWERVE_KINEMATICS, headings[0], positions[0], new Pose2d());
+    }
+
+    /** @return The next sample index */
+    private int next() {
+        i = (i + 1) & (SAMPLES - 1);
+        return i;
+    }
+
+    @Benchmark // The deadband and squaring done on each axis by Drivetrain.drive()
+    public void shapeInputs(Blackhole blackhole) {
+        int n = next();
+        blackhole.consume(Drivetrain.shapeInput(joystick[n], TRANSLATION_DEADBAND));
+        blackhole.consume(Drivetrain.shapeInput(joystick[(n + 1) & (SAMPLES - 1)], TRANSLATION_DEADBAND));
+        blackhole.consume(Drivetrain.shapeInput(joystick[(n + 2) & (SAMPLES - 1)], ROTATION_DEADBAND));
+    }
+
+    @Benchmark // The correction for spinning while driving done by Drivetrain.discretize()
+    public ChassisSpeeds discretize() {
+        return Drivetrain.discretize(speeds[next()], SETPOINT_PERIOD, ACTUATION_LATENCY);
+    }
+
+    @Benchmark // Limiting each module to what it can reach by the next loop, done by SwerveSetpointGenerator.generate()
+    public SwerveModuleState[] generateSetpoint() {
+        previousStates = setpointGenerator.generate(speeds[next()], previousStates, SETPOINT_PERIOD);
+        return previousStates;
+    }
+
+    @Benchmark // Everything Drivetrain.sendDrive() does with a joystick command: field relative conversion,
+               // discretization, and setpoint generation
+    public SwerveModuleState[] sendDrive() {
+        int n = next();
+        ChassisSpeeds fieldRelative = ChassisSpeeds.fromFieldRelativeSpeeds(
+            speeds[n].vxMetersPerSecond, speeds[n].vyMetersPerSecond, speeds[n].omegaRadiansPerSecond, headings[n]);
+        ChassisSpeeds discretized = Drivetrain.discretize(fieldRelative, SETPOINT_PERIOD, ACTUATION_LATENCY);
+        previousStates = setpointGenerator.generate(discretized, previousStates, SETPOINT_PERIOD);
+        return previousStates;
+    }
+
+    @Benchmark // The odometry update done by Drivetrain.updateOdometry()
+    public Pose2d odometryUpdate() {
+        int n = next();
+        return odometry.update(headings[n], positions[n]);
+    }
+}
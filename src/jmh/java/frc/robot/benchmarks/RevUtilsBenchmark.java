@@ -0,0 +1,51 @@
+package frc.robot.benchmarks;
+
+// Benchmark imports
+import org.openjdk.jmh.annotations.*;
+
+// Robot imports
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.kinematics.SwerveModuleState;
+import frc.robot.utils.RevUtils;
+import java.util.Random;
+
+/** Benchmarks the module angle optimization each swerve module runs every loop */
+@State(Scope.Thread)
+public class RevUtilsBenchmark {
+    private static final int SAMPLES = 1024;
+
+    private final SwerveModuleState[] desired = new SwerveModuleState[SAMPLES];
+    private final Rotation2d[] current = new Rotation2d[SAMPLES];
+    private final double[] currentDegrees = new double[SAMPLES];
+    private final double[] targetDegrees = new double[SAMPLES];
+    private int i = 0;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(1);
+        for (int n = 0; n < SAMPLES; n++) {
+            // The turning encoder is never wrapped, so the current angle can be many turns out
+            currentDegrees[n] = random.nextDouble() * 3600 - 1800;
+            targetDegrees[n] = random.nextDouble() * 360 - 180;
+            current[n] = Rotation2d.fromDegrees(currentDegrees[n]);
+            desired[n] = new SwerveModuleState(random.nextDouble() * 4, Rotation2d.fromDegrees(targetDegrees[n]));
+        }
+    }
+
+    private int next() {
+        i = (i + 1) & (SAMPLES - 1);
+        return i;
+    }
+
+    @Benchmark
+    public SwerveModuleState optimize() {
+        int n = next();
+        return RevUtils.optimize(desired[n], current[n]);
+    }
+
+    @Benchmark
+    public double placeInAppropriate0To360Scope() {
+        int n = next();
+        return RevUtils.placeInAppropriate0To360Scope(currentDegrees[n], targetDegrees[n]);
+    }
+}
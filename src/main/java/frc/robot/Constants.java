@@ -13,6 +13,53 @@ import edu.wpi.first.math.util.Units;
  */
 public final class Constants {
 
+    /** Where the robot's inputs come from */
+    public enum RobotMode {
+        /** Running on a real robot */
+        REAL,
+        /** Running in simulation on a computer */
+        SIMULATION,
+        /** Replaying inputs recorded in a log, faster than real time */
+        REPLAY
+    }
+
+    /** Constants used while the robot starts up */
+    public static final class BootConstants {
+        /** Run startup work that is not needed before the first loop, like the camera and auton paths,
+         *  on background threads. False to do everything before the first loop, for comparison */
+        public static final boolean BACKGROUND_INIT = true;
+        /** Loops run while making the class data sharing archive after a deploy. Enough to
+         *  build the chosen auton and warm up, so the classes they use are in the archive */
+        public static final int CDS_TRAINING_LOOPS = 500;
+    }
+
+    /** Rates and budgets of the tasks run alongside the main loop by the LoopScheduler, in seconds */
+    public static final class SchedulerConstants {
+        /** Steering and arm control */
+        public static final double CONTROL_PERIOD = .005;
+        /** The dashboard, as often as the main loop so the heading and pose keep their 50Hz tier. It runs
+         *  between main loop iterations, and its slower signals are spread across its runs */
+        public static final double TELEMETRY_PERIOD = .02;
+
+        public static final double STEERING_BUDGET = .0005;
+        public static final double ARM_CONTROL_BUDGET = .0003;
+        public static final double TELEMETRY_BUDGET = .002;
+        /** Recording a characterization sample only copies a few values */
+        public static final double CHARACTERIZATION_BUDGET = .0002;
+    }
+
+    /** Constants used to warm up the JIT while disabled */
+    public static final class WarmupConstants {
+        /** How long warm up may run each disabled loop in milliseconds */
+        public static final double BUDGET_MS = 3;
+        /** Iterations run between each check of the time */
+        public static final int BATCH_SIZE = 10;
+        /** Total iterations, comfortably past the JIT's threshold for fully optimizing a method */
+        public static final int ITERATIONS = 20000;
+        /** The number of loops averaged for the before and after report */
+        public static final int REPORT_LOOPS = 50;
+    }
+
     /* -------------- IDs -------------- */
 
     /** Ports used by controllers. */
@@ -66,6 +113,19 @@ public final class Constants {
         public static final double SLIDER_RATIO = 4.33650762;
         /** Desired movement in degrees * ROTATION_RATIO = required revolutions of the motor */
         public static final double ROTATION_RATIO = .8838383838;
+        /** How fast the arm rotates in degrees/sec at full power in simulation */
+        public static final double ROTATION_SIM_SPEED = 360;
+        /** How fast the telescope and slider move in inches/sec at full power in simulation */
+        public static final double EXTENSION_SIM_SPEED = 20;
+
+        /** The arm's angle in degrees when it points straight out, so gravity pulls on it the most */
+        public static final double ROTATION_HORIZONTAL_DEGREES = 90;
+        // Rotation feedforward, measured in test mode. Volts = kS + kG * cos(angle from horizontal)
+        // + kV * degrees/sec + kA * degrees/sec^2. 0 until the arm is characterized
+        public static final double ROTATION_KS = 0;
+        public static final double ROTATION_KG = 0;
+        public static final double ROTATION_KV = 0;
+        public static final double ROTATION_KA = 0;
 
         /** Enum representing the preset arm positions */
         public enum ArmState {
@@ -79,6 +139,81 @@ public final class Constants {
         }
     }
 
+    /** Constants used by the claw */
+    public static final class ClawConstants {
+        /** The laser must stay blocked or clear this many seconds before it counts, filtering out noise */
+        public static final double LASER_DEBOUNCE = .001;
+    }
+
+    /** Constants used to decide when the compressor runs */
+    public static final class PneumaticsConstants {
+        /** About how many claw actuations a full tank holds before pressure is too low to use */
+        public static final double TANK_ACTUATIONS = 20;
+        /** The compressor always runs if fewer actuations than this are left */
+        public static final double RESERVE_ACTUATIONS = 6;
+        /** About how long the compressor takes to replace the air used by one actuation */
+        public static final double REFILL_SECONDS_PER_ACTUATION = 1.5;
+
+        /** The compressor stops when the drivetrain and arm draw more current than this */
+        public static final double HIGH_LOAD_AMPS = 120;
+        /** The compressor stops when the battery falls below this voltage */
+        public static final double LOW_BATTERY_VOLTS = 10.5;
+        /** The compressor stays off this many seconds after a high load ends, in case it comes right back */
+        public static final double HIGH_LOAD_HOLD = .5;
+    }
+
+    /** How each mechanism is run while it is characterized in test mode, see {@link frc.robot.commands.Characterize} */
+    public static final class CharacterizationConstants {
+        /** Seconds with no voltage before each test, so the mechanism comes to a stop */
+        public static final double REST_SECONDS = 1.5;
+
+        // How fast the voltage rises in the quasistatic tests in volts/sec, the voltage used by
+        // the dynamic tests, and the longest each test may run in seconds
+        public static final double DRIVE_RAMP = .5;
+        public static final double DRIVE_STEP = 4;
+        public static final double DRIVE_SECONDS = 6;
+        public static final double ROTATION_RAMP = .25;
+        public static final double ROTATION_STEP = 2;
+        public static final double ROTATION_SECONDS = 5;
+        public static final double EXTENSION_RAMP = .25;
+        public static final double EXTENSION_STEP = 2;
+        public static final double EXTENSION_SECONDS = 4;
+
+        // Each test stops before the mechanism leaves these positions, away from its hard stops
+        public static final double ROTATION_MIN = 5;
+        public static final double ROTATION_MAX = 65;
+        public static final double TELESCOPE_MIN = .5;
+        public static final double TELESCOPE_MAX = 17;
+        public static final double SLIDER_MIN = -.5;
+        public static final double SLIDER_MAX = 13.5;
+    }
+
+    /** Constants used to share the battery's current between the motors */
+    public static final class PowerConstants {
+        /** The total current the motors may draw with a healthy battery */
+        public static final double MAX_BUDGET_AMPS = 280;
+        /** The total current the motors may draw once the battery sags to BROWNOUT_VOLTS */
+        public static final double MIN_BUDGET_AMPS = 120;
+        /** At or above this voltage the full budget is available */
+        public static final double NOMINAL_VOLTS = 11.5;
+        /** Close to the roboRIO's 6.8V brownout, leaving room for the voltage to keep falling */
+        public static final double BROWNOUT_VOLTS = 8;
+
+        // {min, max} current limit of each motor in a group. Groups are given current in this order
+        public static final double[] TURN_LIMITS = { 15, 20 };
+        public static final double[] DRIVE_LIMITS = { 25, 45 };
+        public static final double[] ROTATION_LIMITS = { 20, 40 };
+        public static final double[] TELESCOPE_LIMITS = { 10, 30 };
+        public static final double[] SLIDER_LIMITS = { 10, 25 };
+
+        /** A motor is given this much more than it currently draws before current is handed out to lower priorities */
+        public static final double DEMAND_MARGIN_AMPS = 10;
+        /** Limits are only changed once they are off by at least this much */
+        public static final double LIMIT_STEP_AMPS = 5;
+        /** Limits are raised at most this often in seconds. Lowering happens right away */
+        public static final double LIMIT_RAISE_PERIOD = .5;
+    }
+
     /** Constants used by the limelight */
     public static final class LimelightConstants {
         // LIMELIGHT DATA IS OUT OF DATE
@@ -156,6 +291,16 @@ public final class Constants {
             new TrapezoidProfile.Constraints(
                 MAX_ROTATION_SPEED, Math.PI * 2);
 
+        /** The most a module's speed may change in m/sec per second, kept under what the wheels can grip */
+        public static final double MAX_MODULE_ACCELERATION = 8;
+        /** The fastest a module may be told to turn in degrees/sec, kept under the turning motor's free speed */
+        public static final double MAX_MODULE_STEERING_SPEED = 1000;
+        /** The seconds between drive setpoints, one each main loop */
+        public static final double SETPOINT_PERIOD = .02;
+        /** The seconds between a drive setpoint being made and the modules acting on it.
+         *  Setpoints are written at the end of the loop, and the motors take a few ms more to respond */
+        public static final double ACTUATION_LATENCY = .01;
+
         public static final class ModuleConstants {
             /** The ratio of the drive motors on the workhorse chassis */
             public static final double DRIVE_RATIO_SLOW = 1 / ((14.0 / 50.0) * (25.0 / 19.0) * (15.0 / 45.0));
@@ -176,6 +321,25 @@ public final class Constants {
 
             /** Turning motor revolutions * TURNING_REVS_TO_DEG = Turning motor total degrees turned */
             public static final double TURNING_REVS_TO_DEG =  360.0 / TURN_RATIO;
+
+            /** How fast a module turns in degrees/sec at 12 volts in simulation, from the NEO's free speed */
+            public static final double TURN_SIM_SPEED = 5676 * TURNING_REVS_TO_DEG / 60;
+
+            // Driving motor feedforward for each module, by module number. Volts = kS + kV * m/sec + kA * m/sec^2.
+            // These are estimates from the motor and gearing, not measured. Replace them with the values
+            // FeedforwardFit finds from a drive characterization
+            /** The volts needed to overcome friction and start the wheel moving */
+            public static final double[] DRIVE_KS = { .15, .15, .15, .15 };
+            /** The volts needed per m/sec of speed */
+            public static final double[] DRIVE_KV = { 2.7, 2.7, 2.7, 2.7 };
+            /** The volts needed per m/sec^2 of acceleration */
+            public static final double[] DRIVE_KA = { .35, .35, .35, .35 };
+
+            /** The Spark Max PID slot used to drive at a velocity */
+            public static final int DRIVE_VELOCITY_SLOT = 1;
+            /** %power added per m/sec the driving motor is too slow, on top of the feedforward */
+            public static final double DRIVE_VELOCITY_P = .1;
+            public static final double DRIVE_VELOCITY_D = 0;
         }
     
         /** Enum representing the four possible positions a module can occupy */
@@ -188,8 +352,6 @@ public final class Constants {
     }
 
   public static final class DriveConstants {
-            /** Higher values make the robot drive more aggressively */
-            public static final double TRANSLATION_SLEW = 4;
             /** Higher values make the robot spin more aggressively */
             public static final double ROTATION_SLEW = 6;
     
@@ -198,4 +360,105 @@ public final class Constants {
             /** Rotation instructions closer to 0 than the deadband will be set to 0 */
             public static final double ROTATION_DEADBAND = .1;
     }
+
+    /** A model of where the robot's weight is, used to keep it from tipping over. Distances in meters */
+    public static final class TippingConstants {
+        public static final double GRAVITY = 9.81;
+        /** Everything but the arm, with the battery and bumpers, in kg */
+        public static final double CHASSIS_MASS = 50;
+        public static final double CHASSIS_COG_HEIGHT = .2;
+        /** The rotating part of the arm, with the telescope, in kg */
+        public static final double ARM_MASS = 12;
+        /** Where the arm pivots with the slider in, forward of the center of the wheels and above the floor */
+        public static final double ARM_PIVOT_FORWARD = -.15;
+        public static final double ARM_PIVOT_HEIGHT = 1;
+        /** How far along the arm its center of gravity is with the telescope in */
+        public static final double ARM_COG_DISTANCE = .4;
+        /** The part of the arm's mass that moves out with the telescope */
+        public static final double TELESCOPE_MASS_FRACTION = .5;
+        /** The part of the tipping acceleration the robot may use, leaving room for bumps and model error */
+        public static final double TIP_SAFETY = .6;
+        /** The most the robot may accelerate even with the arm stowed, since the wheels cannot grip more */
+        public static final double MAX_ACCELERATION = SwerveConstants.MAX_MODULE_ACCELERATION;
+    }
+
+    public static final class TractionConstants {
+        /** How much of the gap between the accelerometer's estimate and the wheels' is closed each loop.
+         *  Low trusts the accelerometer over short times, while the wheels keep it from drifting */
+        public static final double WHEEL_TRUST = .2;
+        /** A module is slipping once its speed is off from what the rest of the robot says by this many m/sec... */
+        public static final double SLIP_THRESHOLD = .3;
+        /** ...plus this part of the speed it should have */
+        public static final double SLIP_FRACTION = .15;
+        /** The part of its output a module keeps while fully slipping */
+        public static final double SLIP_OUTPUT_SCALE = .6;
+        /** How fast a module's output returns once it grips again, in output fraction/sec */
+        public static final double OUTPUT_RECOVERY_RATE = 2;
+    }
+
+    public static final class BalanceConstants {
+        /** How fast the robot drives up the charge station per degree of predicted tilt, in m/sec */
+        public static final double BALANCE_P = .04;
+        /** The fastest the robot drives while balancing, in m/sec */
+        public static final double MAX_BALANCE_SPEED = .5;
+        /** How far ahead the tilt is predicted from how fast it changes, in seconds. The station only starts
+         *  tipping once the robot is past its middle, so without looking ahead the robot always overshoots */
+        public static final double LOOKAHEAD_SECONDS = .5;
+        /** The station counts as level within this many degrees, the same as the game rules */
+        public static final double LEVEL_DEGREES = 2.5;
+        /** The station counts as still below this many degrees/sec */
+        public static final double LEVEL_RATE = 4;
+        /** How long the station must stay level and still before the wheels lock, in seconds */
+        public static final double LEVEL_SECONDS = .25;
+        /** Once locked, the robot starts balancing again if the station tilts past this many degrees */
+        public static final double RELEVEL_DEGREES = 6;
+        /** The robot is on the station once it tilts past this many degrees while driving onto it */
+        public static final double MOUNTED_DEGREES = 10;
+        /** How fast the robot drives onto the station before it is on it, in m/sec */
+        public static final double APPROACH_SPEED = 1.2;
+        /** The robot stops if it drives this many meters without reaching the station */
+        public static final double MAX_APPROACH_METERS = 3;
+    }
+
+    /** Field measurements in meters, given from the blue alliance's perspective.
+     *  Positions for the red alliance are found by mirroring across the field's length. */
+    public static final class FieldConstants {
+        /** The length of the field along the X axis */
+        public static final double FIELD_LENGTH = 16.54;
+
+        /** The X position of the robot's center when its bumpers are against the grid */
+        public static final double GRID_SCORING_X = 1.85;
+        /** The Y position of each of the 9 grid nodes, from the field edge to the loading zone */
+        public static final double[] GRID_NODE_Y = {
+            0.51, 1.07, 1.63, 2.19, 2.75, 3.31, 3.86, 4.42, 4.98
+        };
+        /** The position of the robot's center when lined up with the double substation */
+        public static final Translation2d HUMAN_STATION = new Translation2d(15.4, 6.75);
+
+        // The charge station as a rectangle
+        public static final double CHARGE_STATION_MIN_X = 2.92;
+        public static final double CHARGE_STATION_MAX_X = 4.85;
+        public static final double CHARGE_STATION_MIN_Y = 1.51;
+        public static final double CHARGE_STATION_MAX_Y = 3.98;
+    }
+
+    /** Constants used when generating paths while the robot is running */
+    public static final class PathGenerationConstants {
+        /** The max speed of a generated path in m/sec */
+        public static final double MAX_VELOCITY = 3;
+        /** The max acceleration of a generated path in m/sec^2 */
+        public static final double MAX_ACCELERATION = 3;
+        /** How far from the charge station the center of the robot must stay, in meters */
+        public static final double OBSTACLE_MARGIN = Units.inchesToMeters(24);
+        /** The heading in degrees the robot should face when scoring on the grid */
+        public static final double SCORING_HEADING = 180;
+        /** The heading in degrees the robot should face when picking up from the human player */
+        public static final double HUMAN_STATION_HEADING = 0;
+        /** Generating a path should take less than this in seconds once warmed up. Slower paths are reported */
+        public static final double GENERATION_BUDGET = .1;
+        /** The robot has to slow below this in m/sec before a path is requested, since paths start at rest */
+        public static final double STOPPED_SPEED = .05;
+        /** Paths generated while disabled to warm up path generation */
+        public static final int WARMUP_PATHS = 20;
+    }
 }
@@ -2,25 +2,42 @@ package frc.robot;
 
 // Import Constants
 import frc.robot.Constants.ArmConstants.ArmState;
+import frc.robot.Constants.RobotMode;
+import static frc.robot.Constants.BootConstants.CDS_TRAINING_LOOPS;
+import static frc.robot.Constants.SchedulerConstants.*;
 
 // Camera imports
 import edu.wpi.first.cameraserver.CameraServer;
-import edu.wpi.first.wpilibj.Compressor;
-import edu.wpi.first.wpilibj.PneumaticsModuleType;
 
 // Subsystem and subclass imports
 import frc.robot.subsystems.Arm;
 import frc.robot.subsystems.Claw;
+import frc.robot.subsystems.PhasedSubsystem;
 import frc.robot.subsystems.PlayerIndicator;
+import frc.robot.misc_subclasses.BootTimeline;
 import frc.robot.misc_subclasses.Dashboard;
+import frc.robot.misc_subclasses.DriverInputs;
+import frc.robot.misc_subclasses.GCMonitor;
 import frc.robot.misc_subclasses.Limelight;
+import frc.robot.misc_subclasses.LoopScheduler;
+import frc.robot.misc_subclasses.PhaseTimer;
+import frc.robot.misc_subclasses.PhaseTimer.Phase;
+import frc.robot.misc_subclasses.WarmupService;
+import frc.robot.logging.DriverStationInputs;
+import frc.robot.logging.LogReplay;
+import frc.robot.logging.LoggableInputs;
+import frc.robot.logging.SignalLogger;
+import frc.robot.subsystems.Drivetrain;
+import frc.robot.sim.ReplayRunner;
 
 // Command imports
 import edu.wpi.first.wpilibj2.command.Command;
 import edu.wpi.first.wpilibj2.command.CommandScheduler;
 // Misc imports
 import edu.wpi.first.wpilibj.TimedRobot;
-import edu.wpi.first.wpilibj.XboxController;
+import frc.robot.wrappers.ControllerSnapshot;
+import java.io.File;
+import java.io.IOException;
 
 
 public class Robot extends TimedRobot {
@@ -28,6 +45,8 @@ public class Robot extends TimedRobot {
 
     // Commands
     private Command autonCommand;
+    /** The characterization run in test mode, null if none was chosen */
+    private Command characterizationCommand;
 
     // Subsystem and subclass objects
     private Arm arm;
@@ -35,27 +54,210 @@ public class Robot extends TimedRobot {
     public PlayerIndicator indicator;
     private Dashboard dashboard;
     private Limelight limelight;
+    private SignalLogger logger;
+    /** The log being replayed, null unless in {@link RobotMode#REPLAY replay} mode */
+    private LogReplay replay;
+    private WarmupService warmup;
+    private GCMonitor gcMonitor;
+    /** Runs control faster and vision and telemetry slower than the main loop */
+    private LoopScheduler scheduler;
+    /** Subsystems whose reads and writes happen in the phases of the main loop */
+    private PhasedSubsystem[] phasedSubsystems;
+    private final PhaseTimer phases = new PhaseTimer();
+    private BootTimeline boot;
+    /** Loops run so far */
+    private int loops = 0;
+    /** Set after a deploy to run the robot briefly and save the classes it loads, see build.gradle */
+    private final boolean cdsTraining = System.getenv("CDS_TRAINING") != null;
     
     // Other objects
-    private XboxController operatorController;
-    private Compressor compressor;
+    private ControllerSnapshot operatorController;
+    private DriverInputs driverInputs;
+    private DriverStationInputs driverStation;
 
     // This function is run when the robot is first started up and should be used
     // for any initialization code.
     @Override
     public void robotInit() {
-        // Start the camera feed
-        CameraServer.startAutomaticCapture();
+        boot = new BootTimeline();
+
+        // The camera is not needed for the first loop, so start it without waiting for it
+        boot.runInBackground("Camera", () -> CameraServer.startAutomaticCapture());
 
         // Construct objects
-        robotContainer = new RobotContainer();
+        robotContainer = boot.time("Robot Container", () -> new RobotContainer(boot));
         operatorController = robotContainer.getOperatorController();
+        driverInputs = robotContainer.getDriverInputs();
+        driverStation = robotContainer.getDriverStationInputs();
         arm = robotContainer.getArm();
         claw = robotContainer.getClaw();
         indicator = robotContainer.getPlayerIndicator();
-        limelight = new Limelight();
-        dashboard = new Dashboard();
-        compressor = new Compressor(PneumaticsModuleType.CTREPCM);
+        limelight = robotContainer.getLimelight();
+        phasedSubsystems = robotContainer.getPhasedSubsystems();
+        dashboard = boot.time("Dashboard", () -> new Dashboard());
+        warmup = new WarmupService(robotContainer.getAutonContainer(), robotContainer.getPathGenerator());
+
+        // Choose what is sent to the dashboard
+        dashboard.addLimelightData(limelight);
+        dashboard.addBasicDrivetrainData(robotContainer.getDrivetrain());
+        dashboard.addIndicatorState(indicator);
+        gcMonitor = new GCMonitor();
+        dashboard.addGCData(gcMonitor);
+
+        // Control runs faster than the main loop, since it reacts to the motors' sensors
+        Drivetrain drivetrain = robotContainer.getDrivetrain();
+        scheduler = new LoopScheduler(this);
+        scheduler.add("Steering", drivetrain::updateSteering, CONTROL_PERIOD, STEERING_BUDGET, false);
+        scheduler.add("Arm Control", arm::updateControl, CONTROL_PERIOD, ARM_CONTROL_BUDGET, false);
+        scheduler.add("Telemetry", dashboard::update, TELEMETRY_PERIOD, TELEMETRY_BUDGET, true);
+        // Characterization is recorded as fast as the control it measures, and does nothing otherwise
+        scheduler.add("Characterization", robotContainer.getCharacterization()::log,
+            CONTROL_PERIOD, CHARACTERIZATION_BUDGET, false);
+
+        // Log every input and control signal to disk
+        logger = new SignalLogger();
+        if (robotContainer.getRobotMode() == RobotMode.REPLAY) {
+            try {
+                replay = new LogReplay(new File(System.getenv("REPLAY_LOG")));
+            } catch (IOException e) {
+                System.err.println("Could not open log to replay: " + e.getMessage());
+                System.exit(1);
+            }
+        }
+
+        // Inputs are what the robot read from the outside world, and are all a replay needs
+        addInputs("Inputs/DriverStation", driverStation);
+        addInputs("Inputs/Gyro", drivetrain.getGyroInputs());
+        for (int i = 0; i < 4; i++)
+            addInputs("Inputs/Module" + i, drivetrain.getSwerveModule(i).getInputs());
+        addInputs("Inputs/Arm", arm.getInputs());
+        // What the control tasks read between loops, so a replay runs them on the same values
+        for (int i = 0; i < 4; i++)
+            addInputs("Inputs/Steering" + i, drivetrain.getSwerveModule(i).getSteeringSamples());
+        addInputs("Inputs/Arm Control", arm.getRotationSamples());
+        addInputs("Inputs/Claw", claw.getInputs());
+        addInputs("Inputs/Limelight", limelight.getInputs());
+        addInputs("Inputs/Compressor", robotContainer.getCompressor().getInputs());
+
+        // Outputs are what the code decided to do with those inputs
+        logger.add("Drivetrain", drivetrain);
+        for (int i = 0; i < 4; i++)
+            logger.add("Module" + i, drivetrain.getSwerveModule(i));
+        logger.add("Arm", arm);
+        logger.add("Claw", claw);
+        logger.add("Limelight", limelight);
+        logger.add("Compressor", robotContainer.getCompressor());
+        logger.add("Power", robotContainer.getPowerManager());
+        logger.add("GC", gcMonitor);
+        logger.add("Scheduler", scheduler);
+        logger.add("Phases", phases);
+        logger.add("Driver Inputs", driverInputs);
+
+        boot.time("Logger", () -> {
+            if (replay != null) {
+                // A replay is not real time, so keep every frame
+                logger.setWaitWhenFull(true);
+                logger.start(SignalLogger.defaultDirectory(), "replay");
+            }
+            else
+                logger.start(SignalLogger.defaultDirectory());
+        });
+
+        boot.finish();
+    }
+
+    /** Logs inputs every loop, and fills them from the log when replaying
+     *  @param name The name put in front of each of the inputs' fields
+     *  @param inputs The inputs */
+    private void addInputs(String name, LoggableInputs inputs) {
+        logger.add(name, inputs);
+        if (replay != null)
+            replay.add(name, inputs);
+    }
+
+    // This function is called once when the simulation starts, after robotInit
+    @Override
+    public void simulationInit() {
+        // Rerun the code against a log as fast as possible instead of a normal simulation if asked to
+        if (replay != null) {
+            int result = new ReplayRunner(this, replay).run();
+            logger.stop();
+            System.exit(result);
+        }
+    }
+
+    /** Moves simulated time forward, running every faster and slower task due along the way, then runs
+     *  one iteration of the main loop. Used to step the robot faster than real time in simulation
+     *  @param seconds How far to move simulated time */
+    public void runLoopOnce(double seconds) {
+        scheduler.step(seconds);
+        loopFunc();
+    }
+
+    /** Runs the main loop in phases: read every sensor, update estimates, decide what to do in the mode's
+     *  periodic function and the commands, send every output, then log. Telemetry is published by the scheduler
+     *  after the loop. Every decision is made from this loop's readings, and each phase is timed */
+    @Override
+    protected void loopFunc() {
+        // Measure the whole loop, so overruns can be matched to garbage collections
+        gcMonitor.startLoop();
+        phases.start();
+
+        // Refreshes the driver station data, the only refresh this loop, then runs the mode's functions and
+        // robotPeriodic(). Each mode's periodic function starts by reading the inputs and updating the estimates
+        super.loopFunc();
+        phases.end(Phase.COMMANDS);
+
+        for (PhasedSubsystem subsystem : phasedSubsystems)
+            subsystem.writeOutputs();
+        driverInputs.recordOutput();
+        phases.end(Phase.OUTPUTS);
+
+        // Record what happened this loop
+        logger.log();
+        phases.end(Phase.LOG);
+
+        gcMonitor.endLoop(getPeriod());
+    }
+    /** Reads every input and updates every estimate. Called first thing in each mode's periodic function, right
+     *  after the base class has refreshed the driver station data and before anything decides what to do */
+    private void readInputsAndEstimate() {
+        // Every binding uses this snapshot of the controllers, and every decision the battery voltage, alliance
+        // and time read here, for the whole loop. A replay has already filled them in from the log
+        driverInputs.update();
+        if (replay == null)
+            driverStation.update();
+        for (PhasedSubsystem subsystem : phasedSubsystems)
+            subsystem.readInputs();
+        phases.end(Phase.INPUTS);
+
+        for (PhasedSubsystem subsystem : phasedSubsystems)
+            subsystem.updateEstimates();
+        phases.end(Phase.ESTIMATES);
+    }
+
+    /** @return The command scheduled at the start of auton, or null if auton has not started */
+    public Command getAutonCommand() { return autonCommand; }
+    /** @return The robot's container, so the tests can reach the subsystems */
+    RobotContainer getRobotContainer() { return robotContainer; }
+
+    /** Saves the rest of the log when the robot is shut down, as it is at the end of each test */
+    @Override
+    public void close() {
+        logger.stop();
+        super.close();
+    }
+
+    // This function is called every 20ms while disabled
+    @Override
+    public void disabledPeriodic() {
+        readInputsAndEstimate();
+
+        // Build the chosen auton now, so auton can start right away
+        robotContainer.prepareAutonomousCommand();
+
+        // Get the JIT to compile the control math before it is needed. Never runs once enabled
+        warmup.run();
     }
 
     // This function is called once at the start of auton
@@ -70,7 +272,7 @@ public class Robot extends TimedRobot {
 
     // This function is called every 20ms during auton
     @Override
-    public void autonomousPeriodic() { }
+    public void autonomousPeriodic() { readInputsAndEstimate(); }
     
     // This function is called once at the start of teleop
     @Override
@@ -78,15 +280,15 @@ public class Robot extends TimedRobot {
         // This makes sure that the autonomous command stops when teleop starts
         if (autonCommand != null)
             autonCommand.cancel();
-        
-        // Start the compressor
-        compressor.enableDigital();
+
+        // The compressor is run by the CompressorScheduler
         arm.setTarget(ArmState.ZERO);
     }
 
     // This function is called every 20ms during teleop
     @Override
     public void teleopPeriodic() {
+        readInputsAndEstimate();
         robotContainer.teleopPeriodic();
 
         /*     ___________________________
@@ -142,18 +344,38 @@ public class Robot extends TimedRobot {
     // This function is called every 20ms while the robot is enabled
     @Override
     public void robotPeriodic() {    
-        // Print data to the dashboard
-        dashboard.printLimelightData(limelight);
-        dashboard.printBasicDrivetrainData(robotContainer.getDrivetrain());
-        dashboard.printIndicatorState(indicator);
+        long start = System.nanoTime();
+        if (loops++ == 0)
+            boot.firstLoop();
+        // Exit normally, which is when the JVM writes the archive
+        if (cdsTraining && loops > CDS_TRAINING_LOOPS) {
+            logger.stop();
+            System.exit(0);
+        }
 
-        // Run any functions that always need to be running
-        limelight.updateLimelightTracking();
+        // Run any functions that always need to be running. Sensors are read at the start of the mode's periodic
+        // function, outputs are written after this in loopFunc(), and the dashboard is run by the scheduler
         CommandScheduler.getInstance().run();
+
+        warmup.recordLoop((System.nanoTime() - start) / 1e6);
+    }
+
+    // This function is called once at the start of test mode
+    @Override
+    public void testInit() {
+        // Characterize the mechanism chosen on the dashboard, if one was
+        characterizationCommand = robotContainer.getCharacterizationCommand();
+        if (characterizationCommand != null)
+            characterizationCommand.schedule();
     }
 
     @Override
     public void testPeriodic() {
+        readInputsAndEstimate();
+
+        // The controls below would fight the characterization
+        if (characterizationCommand != null && characterizationCommand.isScheduled())
+            return;
 
         /*     ___________________________
          *    |  __0__                    |
@@ -173,25 +395,25 @@ public class Robot extends TimedRobot {
             claw.close();
             
         if(operatorController.getRawButton(5))
-            arm.getTelescopeMotor().set(.15);
+            arm.setTelescopePower(.15);
         else if(operatorController.getRawButton(3))
-            arm.getTelescopeMotor().set(-.3);
+            arm.setTelescopePower(-.3);
         else
-            arm.getTelescopeMotor().set(0); 
+            arm.setTelescopePower(0); 
 
         if(operatorController.getRawButton(2))
-            arm.getSliderMotor().set(.15);
+            arm.setSliderPower(.15);
         else if(operatorController.getRawButton(4))
-            arm.getSliderMotor().set(-.15);
+            arm.setSliderPower(-.15);
         else
-            arm.getSliderMotor().set(0); 
+            arm.setSliderPower(0); 
 
         if(operatorController.getRawButton(6))
-            arm.getRotationMotor().set(.1);
+            arm.setRotationPower(.1);
         else if(operatorController.getRightTriggerAxis() > .5)
-            arm.getRotationMotor().set(-.1);
+            arm.setRotationPower(-.1);
         else
-            arm.getRotationMotor().set(0); 
+            arm.setRotationPower(0); 
 
         if(operatorController.getRawButtonPressed(7))
             indicator.indicatorToggle();
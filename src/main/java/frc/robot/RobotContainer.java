@@ -1,43 +1,138 @@
 package frc.robot;
 
 // Import constants
-import static frc.robot.Constants.ControllerPorts.*;
 import static frc.robot.Constants.DIOPorts.*;
 import static frc.robot.Constants.ArmIDs.*;
+import static frc.robot.Constants.SwerveIDs.*;
+import static frc.robot.Constants.SwerveInversions.*;
+import static frc.robot.Constants.SwerveModuleOffsets.*;
+import static frc.robot.Constants.ArmConstants.ROTATION_HORIZONTAL_DEGREES;
+import static frc.robot.Constants.CharacterizationConstants.*;
+import frc.robot.Constants.RobotMode;
 
 // Command imports
 import edu.wpi.first.wpilibj2.command.Command;
 import edu.wpi.first.wpilibj2.command.InstantCommand;
 import edu.wpi.first.wpilibj2.command.WaitCommand;
 import edu.wpi.first.wpilibj2.command.button.Trigger;
+import frc.robot.commands.AutoBalance;
 import frc.robot.commands.AutonContainer;
+import frc.robot.commands.Characterize;
 import frc.robot.commands.DriveCommand;
+import frc.robot.commands.DriveToTarget;
 import frc.robot.commands.DriveWithHeading;
 import frc.robot.commands.LockDrivetrain;
 import frc.robot.subsystems.Arm;
 import frc.robot.subsystems.Claw;
+import frc.robot.subsystems.CompressorScheduler;
 import frc.robot.subsystems.Drivetrain;
+import frc.robot.subsystems.PhasedSubsystem;
 import frc.robot.subsystems.PlayerIndicator;
+import frc.robot.subsystems.PowerManager;
+import frc.robot.misc_subclasses.BootTimeline;
+import frc.robot.misc_subclasses.Characterization;
+import frc.robot.misc_subclasses.Characterization.Mechanism;
+import frc.robot.misc_subclasses.DriverInputs;
+import frc.robot.misc_subclasses.Limelight;
+import frc.robot.misc_subclasses.PathGenerator;
+import frc.robot.logging.DriverStationInputs;
+
+// Hardware imports
+import frc.robot.io.*;
 
 // Other imports
-import edu.wpi.first.wpilibj.XboxController;
+import edu.wpi.first.wpilibj.RobotBase;
+import frc.robot.wrappers.ControllerSnapshot;
 import edu.wpi.first.wpilibj.smartdashboard.SendableChooser;
 import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
+import java.util.function.Supplier;
 
 /** Handles everything command based */
 public class RobotContainer {
-    private final Drivetrain drivetrain = new Drivetrain();
-    private final Arm arm = new Arm(ROTATION_ID, ROTATION_FOLLOWER_ID, TELESCOPE_ID, TELESCOPE_FOLLOWER_ID, SLIDER_ID);
-    private final Claw claw = new Claw(CLAW_LASER_PORT);
-    private final AutonContainer auton = new AutonContainer(drivetrain, arm, claw);
+    private final RobotMode mode = getMode();
+    /** The driver station, battery and loop time, read once at the start of each loop */
+    private final DriverStationInputs driverStation = new DriverStationInputs();
+    private final Drivetrain drivetrain;
+    /** The simulated gyro, which the simulated charge station tilts. Null unless simulating */
+    private GyroIOSim gyroSim;
+    private final Arm arm;
+    private final Claw claw;
+    private final Limelight limelight;
+    private final CompressorScheduler compressor;
+    private final PowerManager powerManager;
+    private final AutonContainer auton;
     private final PlayerIndicator indicator = new PlayerIndicator(PLAYER_INDICATOR_PORT);
-    private final XboxController driverController = new XboxController(DRIVER_PORT);
-    private final XboxController operatorController = new XboxController(OPERATOR_PORT);
-    private final SendableChooser<Command> autonChooser = new SendableChooser<Command>();
+    /** Both controllers, read once at the start of each loop */
+    private final DriverInputs driverInputs = new DriverInputs();
+    private final ControllerSnapshot driverController = driverInputs.getDriver();
+    private final ControllerSnapshot operatorController = driverInputs.getOperator();
+    /** Autons are only built once chosen, so building every auton does not slow down startup */
+    private final SendableChooser<Supplier<Command>> autonChooser = new SendableChooser<Supplier<Command>>();
+    /** The auton built for the current choice, and the choice it was built for */
+    private Command preparedAuton;
+    private Supplier<Command> preparedChoice;
+    private final PathGenerator pathGenerator = new PathGenerator(driverStation);
+    /** Records mechanisms while they are characterized in test mode */
+    private final Characterization characterization = new Characterization();
+    /** The mechanism characterized when test mode starts */
+    private final SendableChooser<Command> characterizationChooser = new SendableChooser<Command>();
+    /** The grid node the driver will be taken to, 0 being closest to the field edge */
+    private int selectedNode = 4;
+
+    /** Constructs a RobotContainer
+     *  @param boot Records how long each part takes to construct */
+    public RobotContainer(BootTimeline boot) {
+        // Each subsystem talks to real hardware, a simulation, or nothing when replaying a log
+        CompressorIO compressorIO;
+        switch (mode) {
+            case REAL:
+                // Configuring each device waits on CAN, so each is timed on its own
+                drivetrain = boot.time("Drivetrain", () -> new Drivetrain(driverStation,
+                    new GyroIOReal(),
+                    new SwerveModuleIOReal(FL_DRIVE_ID, FL_TURN_ID, FL_ENCODER_ID, INVERT_FL_DRIVE, INVERT_FL_TURN, FL_OFFSET),
+                    new SwerveModuleIOReal(FR_DRIVE_ID, FR_TURN_ID, FR_ENCODER_ID, INVERT_FR_DRIVE, INVERT_FR_TURN, FR_OFFSET),
+                    new SwerveModuleIOReal(RL_DRIVE_ID, RL_TURN_ID, RL_ENCODER_ID, INVERT_RL_DRIVE, INVERT_RL_TURN, RL_OFFSET),
+                    new SwerveModuleIOReal(RR_DRIVE_ID, RR_TURN_ID, RR_ENCODER_ID, INVERT_RR_DRIVE, INVERT_RR_TURN, RR_OFFSET)));
+                arm = boot.time("Arm", () -> new Arm(driverStation,
+                    new ArmIOReal(ROTATION_ID, ROTATION_FOLLOWER_ID, TELESCOPE_ID, TELESCOPE_FOLLOWER_ID, SLIDER_ID)));
+                claw = boot.time("Claw", () -> new Claw(new ClawIOReal(CLAW_LASER_PORT)));
+                limelight = boot.time("Limelight", () -> new Limelight(new LimelightIOReal()));
+                compressorIO = boot.time("Compressor", () -> new CompressorIOReal());
+                break;
+
+            case SIMULATION:
+                SwerveModuleIOSim[] modules = {
+                    new SwerveModuleIOSim(), new SwerveModuleIOSim(), new SwerveModuleIOSim(), new SwerveModuleIOSim()
+                };
+                gyroSim = new GyroIOSim(modules);
+                drivetrain = new Drivetrain(driverStation, gyroSim, modules[0], modules[1], modules[2], modules[3]);
+                arm = new Arm(driverStation, new ArmIOSim());
+                claw = new Claw(new ClawIOSim());
+                limelight = new Limelight(new LimelightIOSim());
+                compressorIO = new CompressorIOSim();
+                break;
 
-    /** Constructs a RobotContainer */
-    public RobotContainer() {
-        initChooser();
+            default:
+                // Inputs are filled in from the log, so the hardware does nothing
+                drivetrain = new Drivetrain(driverStation, new GyroIO() {},
+                    new SwerveModuleIO() {}, new SwerveModuleIO() {}, new SwerveModuleIO() {}, new SwerveModuleIO() {});
+                arm = new Arm(driverStation, new ArmIO() {});
+                claw = new Claw(new ClawIO() {});
+                limelight = new Limelight(new LimelightIO() {});
+                compressorIO = new CompressorIO() {};
+                break;
+        }
+        // Where the arm is decides how fast the robot may accelerate without tipping
+        drivetrain.setArm(arm);
+        compressor = new CompressorScheduler(driverStation, compressorIO, drivetrain, arm, claw);
+        // Constructed last so it runs after every other subsystem has read its sensors
+        powerManager = new PowerManager(driverStation, drivetrain, arm, compressor);
+        auton = new AutonContainer(drivetrain, arm, claw);
+
+        // Paths are only needed once an auton is built, so they load while the robot starts
+        boot.runInBackground("Auton Paths", auton::preloadPaths);
+        boot.time("Auton Chooser", this::initChooser);
+        initCharacterizationChooser();
 
         // If the drivetrain is not busy, drive using joysticks
         drivetrain.setDefaultCommand(
@@ -50,6 +145,10 @@ public class RobotContainer {
         Trigger lockBtn = new Trigger(() -> driverController.getXButton());
         lockBtn.whileTrue(new LockDrivetrain(drivetrain));
 
+        // Driver holds A once on the charge station in the endgame to balance it and lock the wheels
+        Trigger balanceBtn = new Trigger(() -> driverController.getAButton());
+        balanceBtn.whileTrue(new AutoBalance(drivetrain));
+
         Trigger lockHeadingZeroBtn = new Trigger(() -> driverController.getRightTriggerAxis() > .2);
         lockHeadingZeroBtn.whileTrue(
             new DriveWithHeading(drivetrain, 
@@ -73,14 +172,81 @@ public class RobotContainer {
 
         Trigger indicatorToggleBtn = new Trigger(() -> operatorController.getLeftTriggerAxis() > .5);
         indicatorToggleBtn.onTrue(new InstantCommand(() -> indicator.indicatorToggle()));
+
+        // Operator picks a grid node with the dpad, driver holds B to drive to it
+        Trigger nodeLeftBtn = new Trigger(() -> operatorController.getPOV() == 270);
+        nodeLeftBtn.onTrue(new InstantCommand(() -> selectNode(selectedNode - 1)));
+        Trigger nodeRightBtn = new Trigger(() -> operatorController.getPOV() == 90);
+        nodeRightBtn.onTrue(new InstantCommand(() -> selectNode(selectedNode + 1)));
+
+        Trigger driveToNodeBtn = new Trigger(() -> driverController.getBButton());
+        driveToNodeBtn.whileTrue(
+            new DriveToTarget(drivetrain, pathGenerator,
+            () -> pathGenerator.gridNodePose(selectedNode)));
+
+        // Driver holds Y to drive to the human player station
+        Trigger driveToHumanBtn = new Trigger(() -> driverController.getYButton());
+        driveToHumanBtn.whileTrue(
+            new DriveToTarget(drivetrain, pathGenerator,
+            () -> pathGenerator.humanStationPose()));
     }
 
+    /** @return Where the robot's inputs come from. Simulation replays a log
+     *  instead of simulating hardware when REPLAY_LOG is set */
+    public static RobotMode getMode() {
+        if (RobotBase.isReal())
+            return RobotMode.REAL;
+        return System.getenv("REPLAY_LOG") != null ? RobotMode.REPLAY : RobotMode.SIMULATION;
+    }
+
+    /** @param node The grid node to drive to, kept within the 9 nodes of the grid */
+    private void selectNode(int node) { selectedNode = Math.max(0, Math.min(8, node)); }
+
     /** Initialize the auton selector on the dashboard */
     private void initChooser() {
-        autonChooser.setDefaultOption("Do Nothing", new WaitCommand(0));
+        autonChooser.setDefaultOption("Do Nothing", () -> new WaitCommand(0));
 
         SmartDashboard.putData("Auton Selector", autonChooser);
-        autonChooser.setDefaultOption("Drop High Auto", auton.dropHigh());
+        autonChooser.setDefaultOption("Drop High Auto", auton::dropHigh);
+        autonChooser.addOption("Drop High Balance", auton::dropHighBalance);
+    }
+
+    /** Initialize the selector for which mechanism is characterized in test mode */
+    private void initCharacterizationChooser() {
+        characterizationChooser.setDefaultOption("None", null);
+        characterizationChooser.addOption("Drive", new Characterize(characterization, new Mechanism(
+            "Drive", drivetrain, drivetrain::setDriveVoltage,
+            drivetrain::getAverageDriveMeters, drivetrain::getAverageDriveSpeed, () -> 0,
+            Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, DRIVE_RAMP, DRIVE_STEP, DRIVE_SECONDS)));
+        // The arm does not measure its rotation speed, so it is found from the angle
+        characterizationChooser.addOption("Arm Rotation", new Characterize(characterization, new Mechanism(
+            "Arm Rotation", arm, arm::setRotationVolts, arm::getRotationPos, () -> Double.NaN,
+            () -> Math.cos(Math.toRadians(arm.getRotationPos() - ROTATION_HORIZONTAL_DEGREES)),
+            ROTATION_MIN, ROTATION_MAX, ROTATION_RAMP, ROTATION_STEP, ROTATION_SECONDS)));
+        // The telescope extends along the arm, so it carries the part of gravity pointing along the arm
+        characterizationChooser.addOption("Telescope", new Characterize(characterization, new Mechanism(
+            "Telescope", arm, arm::setTelescopeVolts, arm::getTelescopePos, () -> Double.NaN,
+            () -> Math.sin(Math.toRadians(ROTATION_HORIZONTAL_DEGREES - arm.getRotationPos())),
+            TELESCOPE_MIN, TELESCOPE_MAX, EXTENSION_RAMP, EXTENSION_STEP, EXTENSION_SECONDS)));
+        characterizationChooser.addOption("Slider", new Characterize(characterization, new Mechanism(
+            "Slider", arm, arm::setSliderVolts, arm::getSliderPos, () -> Double.NaN, () -> 0,
+            SLIDER_MIN, SLIDER_MAX, EXTENSION_RAMP, EXTENSION_STEP, EXTENSION_SECONDS)));
+        SmartDashboard.putData("Characterization", characterizationChooser);
+    }
+
+    /** @return The characterization chosen to run in test mode, or null if none was */
+    public Command getCharacterizationCommand() { return characterizationChooser.getSelected(); }
+    /** @return Records mechanisms while they are characterized */
+    public Characterization getCharacterization() { return characterization; }
+
+    /** Builds the chosen auton ahead of time if the choice has changed.
+     *  Should be called while disabled, so auton does not have to wait for it */
+    public void prepareAutonomousCommand() {
+        Supplier<Command> choice = autonChooser.getSelected();
+        if (choice != preparedChoice) {
+            preparedChoice = choice;
+            preparedAuton = choice.get();
+        }
     }
 
 
@@ -93,15 +259,38 @@ public class RobotContainer {
         // For testing
         //return auton.testAuto(testAutonChooser.getSelected(), 1, 1);
 
-        return autonChooser.getSelected();
+        prepareAutonomousCommand();
+        return preparedAuton;
     }
 
+    /** @return Every auton the robot can run */
+    public AutonContainer getAutonContainer() { return auton; }
+    /** @return Generates paths to a target on the fly */
+    public PathGenerator getPathGenerator() { return pathGenerator; }
     /** @return The robot's drivetrain */
     public Drivetrain getDrivetrain() { return drivetrain; }
-    public XboxController getOperatorController() { return operatorController; }
+    /** @return The simulated gyro, or null unless simulating */
+    public GyroIOSim getGyroSim() { return gyroSim; }
+    public ControllerSnapshot getOperatorController() { return operatorController; }
+    /** @return Both controllers, read once at the start of each loop */
+    public DriverInputs getDriverInputs() { return driverInputs; }
+    /** @return The driver station, battery and loop time, read once at the start of each loop */
+    public DriverStationInputs getDriverStationInputs() { return driverStation; }
     public Claw getClaw() { return claw; }
     public Arm getArm() {return arm;}
+    public Limelight getLimelight() { return limelight; }
+    public CompressorScheduler getCompressor() { return compressor; }
+    public PowerManager getPowerManager() { return powerManager; }
+    /** @return Every subsystem that reads and writes in the phases of the main loop, in the order they are run.
+     *  The power manager is last, so it sees every other subsystem's readings */
+    public PhasedSubsystem[] getPhasedSubsystems() {
+        return new PhasedSubsystem[] { drivetrain, arm, claw, limelight, compressor, powerManager };
+    }
+    /** @return Where the robot's inputs come from */
+    public RobotMode getRobotMode() { return mode; }
     public PlayerIndicator getPlayerIndicator() { return indicator; }
+    /** @return The grid node selected by the operator */
+    public int getSelectedNode() { return selectedNode; }
 
     // For running TimedRobot style code in RobotContainer
     /** Should always be called from Robot.teleopPeriodic() */
@@ -112,9 +301,9 @@ public class RobotContainer {
         if(driverController.getBackButtonPressed())
             drivetrain.resetHeading();
 
+        // Holding the bumper keeps the claw from grabbing by itself
+        claw.setAutoGrabEnabled(!driverController.getRightBumper());
         if(driverController.getRightBumperPressed())
             claw.toggleClaw();
-        else if(!driverController.getRightBumper())
-            claw.autoGrab();
     }
 }
@@ -0,0 +1,115 @@
+package frc.robot.commands;
+
+// Imports
+import edu.wpi.first.math.geometry.Translation2d;
+import edu.wpi.first.math.kinematics.ChassisSpeeds;
+import edu.wpi.first.wpilibj.Timer;
+import edu.wpi.first.wpilibj2.command.CommandBase;
+import frc.robot.subsystems.Drivetrain;
+
+import static frc.robot.Constants.BalanceConstants.*;
+
+/** Drives onto the charge station and balances it, then locks the wheels once it is level. The robot drives
+ *  uphill, in whichever direction the station tilts it, at a speed from the tilt predicted a moment ahead.
+ *  As the robot passes the middle the station starts tipping toward level, so the prediction crosses 0 and
+ *  the robot stops or backs up before the station falls the other way */
+public class AutoBalance extends CommandBase {
+    private final Drivetrain drivetrain;
+    /** How fast to drive onto the station in m/sec, forward positive, relative to the robot */
+    private final double approachSpeed;
+    /** How long the station has been level and still */
+    private final Timer levelTimer = new Timer();
+    /** Where the robot started driving toward the station */
+    private Translation2d start;
+    /** Whether the robot has driven far enough onto the station to tilt it */
+    private boolean isMounted;
+    /** Whether the station is level and the wheels are locked */
+    private boolean isLocked;
+
+    /**
+     * Constructs an AutoBalance command that starts on the charge station
+     *
+     * @param drivetrain The robot's drivetrain
+     */
+    public AutoBalance(Drivetrain drivetrain) {
+        this(drivetrain, 0);
+    }
+
+    /**
+     * Constructs an AutoBalance command
+     *
+     * @param drivetrain The robot's drivetrain
+     * @param approachSpeed How fast to drive onto the station in m/sec, forward positive, relative to the robot.
+     *                      0 if the robot is already on it
+     */
+    public AutoBalance(Drivetrain drivetrain, double approachSpeed) {
+        this.drivetrain = drivetrain;
+        this.approachSpeed = approachSpeed;
+
+        // Tell the CommandBase that this command uses the drivetrain
+        addRequirements(drivetrain);
+    }
+
+    @Override
+    public void initialize() {
+        start = drivetrain.getPoseMeters().getTranslation();
+        isMounted = approachSpeed == 0;
+        isLocked = false;
+        levelTimer.restart();
+    }
+
+    @Override
+    public void execute() {
+        double pitch = drivetrain.getPitchDegrees();
+        double roll = drivetrain.getRollDegrees();
+        double tilt = Math.hypot(pitch, roll);
+
+        // Drive straight on until the ramp tilts the robot, stopping if the station was missed
+        if (!isMounted) {
+            if (tilt < MOUNTED_DEGREES) {
+                boolean isLost = drivetrain.getPoseMeters().getTranslation().getDistance(start) > MAX_APPROACH_METERS;
+                drivetrain.setChassisSpeeds(new ChassisSpeeds(isLost ? 0 : approachSpeed, 0, 0));
+                return;
+            }
+            isMounted = true;
+        }
+
+        // Start over if the station is knocked out of level, by the other robots docking for example
+        if (isLocked && tilt > RELEVEL_DEGREES) {
+            isLocked = false;
+            levelTimer.restart();
+        }
+
+        // Lock the wheels once the station has settled level
+        double rate = Math.hypot(drivetrain.getPitchRate(), drivetrain.getRollRate());
+        if (tilt > LEVEL_DEGREES || rate > LEVEL_RATE)
+            levelTimer.restart();
+        if (isLocked || levelTimer.hasElapsed(LEVEL_SECONDS)) {
+            isLocked = true;
+            LockDrivetrain.lock(drivetrain);
+            return;
+        }
+
+        // The front up means uphill is forward, and the left side up means it is to the left
+        double predictedPitch = pitch + drivetrain.getPitchRate() * LOOKAHEAD_SECONDS;
+        double predictedRoll = roll + drivetrain.getRollRate() * LOOKAHEAD_SECONDS;
+        double predictedTilt = Math.hypot(predictedPitch, predictedRoll);
+        if (predictedTilt < LEVEL_DEGREES) {
+            // Hold still with the wheels pointed the way they were, ready to drive on if the station settles wrong
+            drivetrain.setChassisSpeeds(new ChassisSpeeds());
+            return;
+        }
+        double speed = Math.min(BALANCE_P * predictedTilt, MAX_BALANCE_SPEED);
+        drivetrain.setChassisSpeeds(new ChassisSpeeds(
+            speed * predictedPitch / predictedTilt, speed * predictedRoll / predictedTilt, 0));
+    }
+
+    @Override // Leave the wheels locked so the robot stays put until something else drives it
+    public void end(boolean interrupted) {}
+
+    @Override // Command never ends on its own, so the robot keeps the station level until the match ends
+    public boolean isFinished() { return false; }
+
+    /** @return Whether the station is level and the wheels are locked */
+    public boolean isBalanced() { return isLocked; }
+}
@@ -4,6 +4,7 @@ import com.pathplanner.lib.PathPlanner;
 import com.pathplanner.lib.PathPlannerTrajectory;
 
 import edu.wpi.first.math.controller.PIDController;
+import edu.wpi.first.math.geometry.Pose2d;
 import edu.wpi.first.math.util.Units;
 import edu.wpi.first.wpilibj2.command.Command;
 import edu.wpi.first.wpilibj2.command.InstantCommand;
@@ -14,9 +15,36 @@ import frc.robot.Constants.ArmConstants.ArmState;
 import frc.robot.subsystems.Arm;
 import frc.robot.subsystems.Claw;
 import frc.robot.subsystems.Drivetrain;
-import static frc.robot.Constants.SwerveConstants.SWERVE_KINEMATICS;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import static frc.robot.Constants.BalanceConstants.APPROACH_SPEED;
 
 public class AutonContainer {
+    /** An auton along with where the robot should be when it finishes */
+    public static final class Routine {
+        public final String name;
+        public final Supplier<Command> command;
+        /** Supplies the pose the robot should end at, null if the auton does not track one */
+        public final Supplier<Pose2d> expectedEndPose;
+        /** Whether the auton keeps running until auton ends, like holding the charge station level */
+        public final boolean holdsUntilEnd;
+
+        private Routine(String name, Supplier<Command> command, Supplier<Pose2d> expectedEndPose) {
+            this(name, command, expectedEndPose, false);
+        }
+
+        private Routine(String name, Supplier<Command> command, Supplier<Pose2d> expectedEndPose,
+            boolean holdsUntilEnd) {
+            this.name = name;
+            this.command = command;
+            this.expectedEndPose = expectedEndPose;
+            this.holdsUntilEnd = holdsUntilEnd;
+        }
+    }
+
     private Drivetrain drivetrain;
     private Arm arm;
     private Claw claw;
@@ -31,12 +59,61 @@ public class AutonContainer {
     private PIDController thetaController =
         new PIDController(0, 0, 0);
 
+    /** Paths that have already been loaded. Loading reads a file and generates the trajectory, which is slow */
+    private final ConcurrentHashMap<String, PathPlannerTrajectory> paths = new ConcurrentHashMap<>();
+
     public AutonContainer(Drivetrain drivetrain, Arm arm, Claw claw) {
         this.drivetrain = drivetrain;
         this.arm = arm;
         this.claw = claw;
     }
 
+    /**
+     * Loads a path from the deploy folder, or returns it from the cache if it has been loaded.
+     * Trajectories are only read once made, so sharing them between commands is safe
+     *
+     * @param pathName The name of the path in PathPlanner
+     * @param maxVelocity The max speed in m/sec
+     * @param maxAcceleration The max acceleration in m/sec^2
+     * @return The path's trajectory
+     */
+    private PathPlannerTrajectory loadPath(String pathName, double maxVelocity, double maxAcceleration) {
+        return paths.computeIfAbsent(pathName + "/" + maxVelocity + "/" + maxAcceleration,
+            key -> PathPlanner.loadPath(pathName, maxVelocity, maxAcceleration, false));
+    }
+
+    /** @return Every path loaded so far */
+    public Collection<PathPlannerTrajectory> getLoadedPaths() { return paths.values(); }
+
+    /** Loads every path used by the match autons into the cache. Does not touch any subsystem,
+     *  so it can run on a background thread while the robot starts */
+    public void preloadPaths() {
+        loadPath("ConeCubeNoBumpAuto", 4.5, 4.5);
+        loadPath("CubeCubeNoBumpAuto", 4.5, 4.5);
+        loadPath("ConeCubeBumpAuto", 4.5, 4.5);
+        loadPath("ConeCubeNoBumpAuto", 3, 3);
+        loadPath("NoBumpExtraCubeExtension", 3, 3);
+    }
+
+
+    /** @return Every auton that can be run in a match */
+    public List<Routine> getRoutines() {
+        return List.of(
+            new Routine("Drop High", this::dropHigh, null),
+            new Routine("Drop Medium", this::dropMedium, null),
+            new Routine("Drop High Balance", this::dropHighBalance, null, true),
+            new Routine("Cone Cube No Bump", this::coneCubeNoBumpAuto, () -> endPose("ConeCubeNoBumpAuto", 4.5)),
+            new Routine("Cube Cube No Bump", this::cubeCubeNoBumpAuto, () -> endPose("CubeCubeNoBumpAuto", 4.5)),
+            new Routine("Cone Cube Bump", this::coneCubeBumpAuto, () -> endPose("ConeCubeBumpAuto", 4.5)),
+            new Routine("No Bump 3 Piece", this::noBumpSide3PieceAuton, () -> endPose("NoBumpExtraCubeExtension", 3)));
+    }
+
+    /** @return The pose at the end of a path, facing the way the robot will be facing */
+    private Pose2d endPose(String pathName, double maxSpeed) {
+        PathPlannerTrajectory.PathPlannerState endState =
+            loadPath(pathName, maxSpeed, maxSpeed).getEndState();
+        return new Pose2d(endState.poseMeters.getTranslation(), endState.holonomicRotation);
+    }
 
     /** Auton that drops a piece high, reverses, and sets heading*/
     public Command dropHigh() {
@@ -58,6 +135,23 @@ public class AutonContainer {
         );
     }
 
+    /** Auton that drops a piece high, then reverses onto the charge station and balances it until auton ends */
+    public Command dropHighBalance() {
+        return new SequentialCommandGroup(
+            new GoToArmPreset(arm, ArmState.ZERO),
+            new InstantCommand(() -> claw.close()),
+            new GoToArmPreset(arm, ArmState.INTERMEDIATE),
+            new GoToArmPreset(arm, ArmState.PICKUP_HUMAN),
+            new GoToArmPreset(arm, ArmState.DROPOFF_HIGH),
+            new DoNothing(.75, drivetrain),
+            new GoToArmPreset(arm, ArmState.PLACE_HIGH),
+            new InstantCommand(() -> claw.open()),
+            new DoNothing(.75, drivetrain),
+            new GoToArmPreset(arm, ArmState.ZERO),
+            new AutoBalance(drivetrain, -APPROACH_SPEED)
+        );
+    }
+
     /** Auton that drops a piece medium, reverses, and sets heading*/
     public Command dropMedium() {
         return new SequentialCommandGroup(
@@ -78,15 +172,15 @@ public class AutonContainer {
 
     /** Auton for no bump side that scores a preloaded cone and a floor cube */
     public Command coneCubeNoBumpAuto() {
-        PathPlannerTrajectory trajectory = PathPlanner.loadPath("ConeCubeNoBumpAuto", 4.5, 4.5, false);
+        PathPlannerTrajectory trajectory = loadPath("ConeCubeNoBumpAuto", 4.5, 4.5);
         PPSwerveControllerCommand pathFollowerCommand = new PPSwerveControllerCommand(
             trajectory, 
             drivetrain::getPoseMeters, 
-            SWERVE_KINEMATICS, 
             xController,
             yController,
             thetaController,
-            drivetrain::setModuleStates,
+            drivetrain::setChassisSpeeds,
+            false,
             drivetrain);
 
         return new SequentialCommandGroup(
@@ -97,15 +191,15 @@ public class AutonContainer {
 
     /** Auton for no bump side that scores a preloaded cube and a floor cube */
     public Command cubeCubeNoBumpAuto() {
-        PathPlannerTrajectory trajectory = PathPlanner.loadPath("CubeCubeNoBumpAuto", 4.5, 4.5, false);
+        PathPlannerTrajectory trajectory = loadPath("CubeCubeNoBumpAuto", 4.5, 4.5);
         PPSwerveControllerCommand pathFollowerCommand = new PPSwerveControllerCommand(
             trajectory, 
             drivetrain::getPoseMeters, 
-            SWERVE_KINEMATICS, 
             xController,
             yController,
             thetaController,
-            drivetrain::setModuleStates,
+            drivetrain::setChassisSpeeds,
+            false,
             drivetrain);
 
         return new SequentialCommandGroup(
@@ -116,15 +210,15 @@ public class AutonContainer {
 
     /** Auton for bump side that scores a preloaded cone and a floor cube */
     public Command coneCubeBumpAuto() {
-        PathPlannerTrajectory trajectory = PathPlanner.loadPath("ConeCubeBumpAuto", 4.5, 4.5, false);
+        PathPlannerTrajectory trajectory = loadPath("ConeCubeBumpAuto", 4.5, 4.5);
         PPSwerveControllerCommand pathFollowerCommand = new PPSwerveControllerCommand(
             trajectory, 
             drivetrain::getPoseMeters, 
-            SWERVE_KINEMATICS, 
             xController,
             yController,
             thetaController,
-            drivetrain::setModuleStates,
+            drivetrain::setChassisSpeeds,
+            false,
             drivetrain);
 
         return new SequentialCommandGroup(
@@ -138,26 +232,26 @@ public class AutonContainer {
      *  pickup and score cube high
      *  pickup and score another cube mid */
     public Command noBumpSide3PieceAuton() {
-        PathPlannerTrajectory trajectory = PathPlanner.loadPath("ConeCubeNoBumpAuto", 3, 3, false);
+        PathPlannerTrajectory trajectory = loadPath("ConeCubeNoBumpAuto", 3, 3);
         PPSwerveControllerCommand part1Drive = new PPSwerveControllerCommand(
             trajectory, 
             drivetrain::getPoseMeters, 
-            SWERVE_KINEMATICS, 
             xController,
             yController,
             thetaController,
-            drivetrain::setModuleStates,
+            drivetrain::setChassisSpeeds,
+            false,
             drivetrain);
 
-        PathPlannerTrajectory trajectory2 = PathPlanner.loadPath("NoBumpExtraCubeExtension", 3, 3, false);
+        PathPlannerTrajectory trajectory2 = loadPath("NoBumpExtraCubeExtension", 3, 3);
         PPSwerveControllerCommand part2Drive = new PPSwerveControllerCommand(
             trajectory2, 
             drivetrain::getPoseMeters, 
-            SWERVE_KINEMATICS, 
             xController,
             yController,
             thetaController,
-            drivetrain::setModuleStates,
+            drivetrain::setChassisSpeeds,
+            false,
             drivetrain);
 
         return new SequentialCommandGroup(
@@ -171,16 +265,16 @@ public class AutonContainer {
 
     /** Auton for bump side that scores a preloaded cone and a floor cube */
     public Command testAuto(String autoName, double maxSpeed, double maxAccel) {
-        PathPlannerTrajectory trajectory = PathPlanner.loadPath(autoName, maxSpeed, maxAccel, false);
+        PathPlannerTrajectory trajectory = loadPath(autoName, maxSpeed, maxAccel);
 
         PPSwerveControllerCommand pathFollowerCommand = new PPSwerveControllerCommand(
             trajectory, 
             drivetrain::getPoseMeters, 
-            SWERVE_KINEMATICS, 
             xController,
             yController,
             thetaController,
-            drivetrain::setModuleStates,
+            drivetrain::setChassisSpeeds,
+            false,
             drivetrain);
 
         return new SequentialCommandGroup(
@@ -0,0 +1,84 @@
+package frc.robot.commands;
+
+// Imports
+import edu.wpi.first.wpilibj.Timer;
+import edu.wpi.first.wpilibj2.command.CommandBase;
+import frc.robot.misc_subclasses.Characterization;
+import frc.robot.misc_subclasses.Characterization.Mechanism;
+
+import static frc.robot.Constants.CharacterizationConstants.REST_SECONDS;
+
+/** Runs a mechanism through the four tests used to fit its feedforward. Quasistatic tests raise the voltage
+ *  slowly, so the mechanism is never accelerating and only friction and speed matter. Dynamic tests jump
+ *  straight to a voltage, so acceleration does. Each runs forward then in reverse, after a rest */
+public class Characterize extends CommandBase {
+    /** The tests, in the order they run */
+    private static final int QUASISTATIC_FORWARD = 0, QUASISTATIC_REVERSE = 1, DYNAMIC_FORWARD = 2, DYNAMIC_REVERSE = 3;
+    private static final int TESTS = 4;
+
+    private final Characterization characterization;
+    private final Mechanism mechanism;
+    private final Timer timer = new Timer();
+    private int test;
+    private boolean resting;
+
+    /**
+     * Constructs a Characterize command
+     *
+     * @param characterization Records the mechanism while it runs
+     * @param mechanism The mechanism to characterize
+     */
+    public Characterize(Characterization characterization, Mechanism mechanism) {
+        this.characterization = characterization;
+        this.mechanism = mechanism;
+
+        // Tell the CommandBase that this command uses the mechanism's subsystem
+        addRequirements(mechanism.requirement);
+    }
+
+    @Override // Start recording, resting before the first test
+    public void initialize() {
+        characterization.begin(mechanism);
+        test = QUASISTATIC_FORWARD;
+        resting = true;
+        timer.restart();
+        System.out.println("Characterizing " + mechanism.name);
+    }
+
+    @Override
+    public void execute() {
+        if (resting) {
+            characterization.setVolts(Characterization.RESTING, 0);
+            if (timer.hasElapsed(REST_SECONDS)) {
+                resting = false;
+                timer.restart();
+            }
+            return;
+        }
+
+        boolean forward = test == QUASISTATIC_FORWARD || test == DYNAMIC_FORWARD;
+        double position = mechanism.position.getAsDouble();
+        boolean outOfRange = forward ? position >= mechanism.maxPosition : position <= mechanism.minPosition;
+
+        // Move to the next test once this one has gone as far or as long as it may
+        if (outOfRange || timer.hasElapsed(mechanism.testSeconds)) {
+            test++;
+            resting = true;
+            timer.restart();
+            characterization.setVolts(Characterization.RESTING, 0);
+            return;
+        }
+
+        double volts = test <= QUASISTATIC_REVERSE ? mechanism.rampVoltsPerSecond * timer.get() : mechanism.stepVolts;
+        characterization.setVolts(test, forward ? volts : -volts);
+    }
+
+    @Override // Stop the mechanism and save the log
+    public void end(boolean interrupted) {
+        characterization.end();
+        System.out.println("Characterized " + mechanism.name + (interrupted ? " (stopped early)" : ""));
+    }
+
+    @Override // Command ends once every test has run
+    public boolean isFinished() { return test >= TESTS; }
+}
@@ -0,0 +1,99 @@
+package frc.robot.commands;
+
+// Path imports
+import com.pathplanner.lib.commands.PPSwerveControllerCommand;
+import edu.wpi.first.math.controller.PIDController;
+import edu.wpi.first.math.geometry.Pose2d;
+
+// Command imports
+import edu.wpi.first.wpilibj2.command.CommandBase;
+import frc.robot.misc_subclasses.PathGenerator;
+import frc.robot.subsystems.Drivetrain;
+import java.util.function.Supplier;
+
+import static frc.robot.Constants.PathGenerationConstants.STOPPED_SPEED;
+
+/** Stops the robot, generates a path from where it stopped to a target, and follows it. The path starts at
+ *  rest, so the robot is where the path starts and as fast as it starts when following begins */
+public class DriveToTarget extends CommandBase {
+    // Declare variables that will be initialized by the constructor
+    private final Drivetrain drivetrain;
+    private final PathGenerator generator;
+    private final Supplier<Pose2d> targetSupplier;
+
+    // Same gains used to follow paths in auton
+    private final PIDController xController = new PIDController(3, 0, .05);
+    private final PIDController yController = new PIDController(2.6, 0, .0005);
+    // DriveWithHeading's heading gains, converted from degrees to the radians the path follower uses
+    private final PIDController thetaController =
+        new PIDController(Math.toDegrees(.04), 0, Math.toDegrees(.0005));
+
+    /** The id of the path being generated, 0 until the robot has stopped and requested it */
+    private int requestId;
+    /** The command following the generated path, null until the path is ready */
+    private PPSwerveControllerCommand follower;
+
+    /**
+     * Constructs a DriveToTarget command
+     *
+     * @param drivetrain The robot's drivetrain
+     * @param generator Generates the path in the background
+     * @param targetSupplier Supplies the pose to drive to when the command starts
+    */
+    public DriveToTarget(Drivetrain drivetrain, PathGenerator generator, Supplier<Pose2d> targetSupplier) {
+        this.drivetrain = drivetrain;
+        this.generator = generator;
+        this.targetSupplier = targetSupplier;
+
+        // Tell the CommandBase that this command uses the drivetrain
+        addRequirements(drivetrain);
+    }
+
+    @Override
+    public void initialize() {
+        follower = null;
+        requestId = 0;
+    }
+
+    @Override
+    public void execute() {
+        // Stop, then hold still until the path from where the robot stopped is handed over, then follow it
+        if (follower == null) {
+            if (requestId == 0) {
+                if (drivetrain.getTranslationSpeed() > STOPPED_SPEED) {
+                    drivetrain.drive(0, 0, 0);
+                    return;
+                }
+                requestId = generator.request(drivetrain.getPoseMeters(), targetSupplier.get());
+            }
+
+            PathGenerator.Result result = generator.poll(requestId);
+            if (result == null) {
+                drivetrain.drive(0, 0, 0);
+                return;
+            }
+
+            follower = new PPSwerveControllerCommand(
+                result.trajectory,
+                drivetrain::getPoseMeters,
+                xController,
+                yController,
+                thetaController,
+                drivetrain::setChassisSpeeds,
+                false);
+            follower.initialize();
+        }
+        follower.execute();
+    }
+
+    @Override // Stop following the path
+    public void end(boolean interrupted) {
+        if (follower != null)
+            follower.end(interrupted);
+    }
+
+    @Override // Command ends when the path is done
+    public boolean isFinished() {
+        return follower != null && follower.isFinished();
+    }
+}
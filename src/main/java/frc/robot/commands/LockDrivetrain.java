@@ -1,20 +1,23 @@
 package frc.robot.commands;
 
-import edu.wpi.first.math.geometry.Rotation2d;
 import edu.wpi.first.math.kinematics.SwerveModuleState;
 import edu.wpi.first.wpilibj2.command.CommandBase;
 import frc.robot.subsystems.Drivetrain;
 
+import static frc.robot.Constants.SwerveConstants.MODULE_TRANSLATIONS;
+
 /** Locks the wheels of the drivetrain into an X shape for anti-defense */
 public class LockDrivetrain extends CommandBase {
+    /** Each module points toward the center of the robot, so no push can roll every wheel at once */
+    private static final SwerveModuleState[] LOCKED_STATES = {
+        new SwerveModuleState(0, MODULE_TRANSLATIONS[0].getAngle()),
+        new SwerveModuleState(0, MODULE_TRANSLATIONS[1].getAngle()),
+        new SwerveModuleState(0, MODULE_TRANSLATIONS[2].getAngle()),
+        new SwerveModuleState(0, MODULE_TRANSLATIONS[3].getAngle())
+    };
+
     // Variable declaration
     private final Drivetrain drivetrain;
-    private final SwerveModuleState[] lockedStates = {
-        new SwerveModuleState(0, new Rotation2d(-45)),
-        new SwerveModuleState(0, new Rotation2d(45)),
-        new SwerveModuleState(0, new Rotation2d(-45)),
-        new SwerveModuleState(0, new Rotation2d(45))
-    };
 
     /** 
      * Constructs a LockDrivetrain command
@@ -35,7 +38,13 @@ public class LockDrivetrain extends CommandBase {
     
     @Override // Lock the drivetrain
     public void execute() {
-        drivetrain.setModuleStates(lockedStates);
+        lock(drivetrain);
+    }
+
+    /** Points the modules of a drivetrain into an X shape and stops them. Used by other commands that hold still
+     *  @param drivetrain The robot's drivetrain */
+    public static void lock(Drivetrain drivetrain) {
+        drivetrain.setModuleStates(LOCKED_STATES);
     }
     // Called once the command ends or is interrupted.
     @Override
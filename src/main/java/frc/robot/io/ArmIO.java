@@ -0,0 +1,83 @@
+package frc.robot.io;
+
+import frc.robot.logging.LoggableInputs;
+
+/** The motors used by the arm. The default methods do nothing, which is used to replay logs */
+public interface ArmIO {
+    /** Values read from the arm's sensors */
+    class Inputs implements LoggableInputs {
+        /** The angle of the arm in degrees */
+        public double rotationDegrees;
+        /** How far the telescope is extended in inches */
+        public double telescopeInches;
+        /** How far the slider is extended in inches */
+        public double sliderInches;
+        /** How fast the telescope motor is spinning in RPM */
+        public double telescopeRPM;
+        /** How fast the slider motor is spinning in RPM */
+        public double sliderRPM;
+        public double rotationAmps;
+        public double telescopeAmps;
+        public double sliderAmps;
+
+        private static final String[] LOG_FIELDS = {
+            "Rotation Degrees", "Telescope Inches", "Slider Inches", "Telescope RPM", "Slider RPM",
+            "Rotation Amps", "Telescope Amps", "Slider Amps"
+        };
+
+        @Override
+        public String[] getLogFields() { return LOG_FIELDS; }
+
+        @Override
+        public void toLog(double[] frame, int offset) {
+            frame[offset] = rotationDegrees;
+            frame[offset + 1] = telescopeInches;
+            frame[offset + 2] = sliderInches;
+            frame[offset + 3] = telescopeRPM;
+            frame[offset + 4] = sliderRPM;
+            frame[offset + 5] = rotationAmps;
+            frame[offset + 6] = telescopeAmps;
+            frame[offset + 7] = sliderAmps;
+        }
+
+        @Override
+        public void fromLog(double[] frame, int offset) {
+            rotationDegrees = frame[offset];
+            telescopeInches = frame[offset + 1];
+            sliderInches = frame[offset + 2];
+            telescopeRPM = frame[offset + 3];
+            sliderRPM = frame[offset + 4];
+            rotationAmps = frame[offset + 5];
+            telescopeAmps = frame[offset + 6];
+            sliderAmps = frame[offset + 7];
+        }
+    }
+
+    /** Reads the newest sensor values into inputs */
+    default void updateInputs(Inputs inputs) {}
+
+    /** @param volts The voltage to send to the rotation motors */
+    default void setRotationVoltage(double volts) {}
+    /** @param percent The %power to send to the rotation motors */
+    default void setRotationOutput(double percent) {}
+
+    /** @param inches The position the telescope's onboard PID should move to */
+    default void setTelescopeSetpoint(double inches) {}
+    /** @param percent The %power to send to the telescope motors */
+    default void setTelescopeOutput(double percent) {}
+    /** @param volts The voltage to send to the telescope motors */
+    default void setTelescopeVoltage(double volts) {}
+
+    /** @param inches The position the slider's onboard PID should move to */
+    default void setSliderSetpoint(double inches) {}
+    /** @param percent The %power to send to the slider motor */
+    default void setSliderOutput(double percent) {}
+    /** @param volts The voltage to send to the slider motor */
+    default void setSliderVoltage(double volts) {}
+
+    /** Changes the most current each motor may draw. Slow, so only call when the limits change
+     *  @param rotationAmps The limit of each rotation motor
+     *  @param telescopeAmps The limit of each telescope motor
+     *  @param sliderAmps The limit of the slider motor */
+    default void setCurrentLimits(int rotationAmps, int telescopeAmps, int sliderAmps) {}
+}
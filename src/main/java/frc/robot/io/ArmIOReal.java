@@ -0,0 +1,105 @@
+package frc.robot.io;
+
+// Imports
+import com.revrobotics.CANSparkMax;
+import com.revrobotics.CANSparkMax.ControlType;
+import com.revrobotics.CANSparkMaxLowLevel;
+import com.revrobotics.CANSparkMaxLowLevel.MotorType;
+import frc.robot.wrappers.GenericPID;
+
+import static frc.robot.Constants.ArmConstants.*;
+import static frc.robot.Constants.PowerConstants.*;
+
+/** The arm's five Spark Maxes */
+public class ArmIOReal implements ArmIO {
+    // Declare motors used by the arm
+    private CANSparkMax rotation;
+    private CANSparkMax rotationFollower;
+    private CANSparkMax telescope;
+    private CANSparkMax telescopeFollower;
+    private CANSparkMax slider;
+
+    // The telescope and slider are controlled by PID running on the Spark Maxes
+    private GenericPID telescopePID;
+    private GenericPID sliderPID;
+
+    /**
+     * Constructs an ArmIOReal
+     *
+     * @param rotationId ID of the rotation motor
+     * @param rotationFollowerId ID of the rotation follower motor
+     * @param telescopeId ID of the telescope motor
+     * @param telescopeFollowerId ID of the telescope follower motor
+     * @param sliderId ID of the slider motor
+     */
+    public ArmIOReal(int rotationId, int rotationFollowerId, int telescopeId, int telescopeFollowerId, int sliderId) {
+        rotation = new CANSparkMax(rotationId, MotorType.kBrushless);
+        rotation.restoreFactoryDefaults();
+        rotation.getEncoder().setPositionConversionFactor(ROTATION_RATIO);
+        // Send the position as often as the rotation PID runs
+        rotation.setPeriodicFramePeriod(CANSparkMaxLowLevel.PeriodicFrame.kStatus2, 5);
+
+        rotationFollower = new CANSparkMax(rotationFollowerId, MotorType.kBrushless);
+        rotationFollower.restoreFactoryDefaults();
+        rotationFollower.follow(rotation, true);
+
+        telescope = new CANSparkMax(telescopeId, MotorType.kBrushless);
+        telescope.restoreFactoryDefaults();
+        telescopePID = new GenericPID(telescope, ControlType.kPosition, .025);
+        telescopePID.setRatio(TELESCOPE_RATIO);
+
+        telescopeFollower = new CANSparkMax(telescopeFollowerId, MotorType.kBrushless);
+        telescopeFollower.restoreFactoryDefaults();
+        telescopeFollower.follow(telescope, true);
+
+        slider = new CANSparkMax(sliderId, MotorType.kBrushless);
+        slider.restoreFactoryDefaults();
+        slider.setInverted(true);
+        sliderPID = new GenericPID(slider, ControlType.kPosition, .037);
+        sliderPID.setRatio(SLIDER_RATIO);
+
+        // Start at the most current each motor is ever allowed, until the PowerManager says otherwise
+        setCurrentLimits((int) ROTATION_LIMITS[1], (int) TELESCOPE_LIMITS[1], (int) SLIDER_LIMITS[1]);
+    }
+
+    @Override
+    public void updateInputs(Inputs inputs) {
+        inputs.rotationDegrees = rotation.getEncoder().getPosition();
+        inputs.telescopeInches = telescopePID.getPosition();
+        inputs.sliderInches = sliderPID.getPosition();
+        inputs.telescopeRPM = telescopePID.getRPM();
+        inputs.sliderRPM = sliderPID.getRPM();
+        inputs.rotationAmps = rotation.getOutputCurrent();
+        inputs.telescopeAmps = telescope.getOutputCurrent();
+        inputs.sliderAmps = slider.getOutputCurrent();
+    }
+
+    @Override
+    public void setRotationVoltage(double volts) { rotation.setVoltage(volts); }
+    @Override
+    public void setRotationOutput(double percent) { rotation.set(percent); }
+
+    @Override
+    public void setTelescopeSetpoint(double inches) { telescopePID.activate(inches); }
+    @Override
+    public void setTelescopeOutput(double percent) { telescope.set(percent); }
+    @Override
+    public void setTelescopeVoltage(double volts) { telescope.setVoltage(volts); }
+
+    @Override
+    public void setSliderSetpoint(double inches) { sliderPID.activate(inches); }
+    @Override
+    public void setSliderOutput(double percent) { slider.set(percent); }
+    @Override
+    public void setSliderVoltage(double volts) { slider.setVoltage(volts); }
+
+    @Override
+    public void setCurrentLimits(int rotationAmps, int telescopeAmps, int sliderAmps) {
+        // Followers share the load with their leaders, so they get the same limit
+        rotation.setSmartCurrentLimit(rotationAmps);
+        rotationFollower.setSmartCurrentLimit(rotationAmps);
+        telescope.setSmartCurrentLimit(telescopeAmps);
+        telescopeFollower.setSmartCurrentLimit(telescopeAmps);
+        slider.setSmartCurrentLimit(sliderAmps);
+    }
+}
@@ -0,0 +1,61 @@
+package frc.robot.io;
+
+import edu.wpi.first.wpilibj.Timer;
+
+import static frc.robot.Constants.ArmConstants.*;
+
+/** A simulated arm. Rotation moves at a speed proportional to its power,
+ *  and the telescope and slider reach their setpoints instantly */
+public class ArmIOSim implements ArmIO {
+    /** When the inputs were last updated, NaN before the first update */
+    private double lastTimestamp = Double.NaN;
+
+    private double rotationDegrees = 0;
+    private double rotationOutput = 0;
+    private double telescopeInches = 0;
+    private double telescopeOutput = 0;
+    private double sliderInches = 0;
+    private double sliderOutput = 0;
+
+    /** Constructs an ArmIOSim */
+    public ArmIOSim() {}
+
+    @Override
+    public void updateInputs(Inputs inputs) {
+        // Move forward by the time since the last update, which is called at more than one rate
+        double now = Timer.getFPGATimestamp();
+        double dt = Double.isNaN(lastTimestamp) ? 0 : now - lastTimestamp;
+        lastTimestamp = now;
+        rotationDegrees += rotationOutput * ROTATION_SIM_SPEED * dt;
+        telescopeInches += telescopeOutput * EXTENSION_SIM_SPEED * dt;
+        sliderInches += sliderOutput * EXTENSION_SIM_SPEED * dt;
+
+        inputs.rotationDegrees = rotationDegrees;
+        inputs.telescopeInches = telescopeInches;
+        inputs.sliderInches = sliderInches;
+        inputs.telescopeRPM = 0;
+        inputs.sliderRPM = 0;
+        inputs.rotationAmps = 0;
+        inputs.telescopeAmps = 0;
+        inputs.sliderAmps = 0;
+    }
+
+    @Override
+    public void setRotationVoltage(double volts) { rotationOutput = volts / 12; }
+    @Override
+    public void setRotationOutput(double percent) { rotationOutput = percent; }
+
+    @Override
+    public void setTelescopeSetpoint(double inches) { telescopeInches = inches; telescopeOutput = 0; }
+    @Override
+    public void setTelescopeOutput(double percent) { telescopeOutput = percent; }
+    @Override
+    public void setTelescopeVoltage(double volts) { telescopeOutput = volts / 12; }
+
+    @Override
+    public void setSliderSetpoint(double inches) { sliderInches = inches; sliderOutput = 0; }
+    @Override
+    public void setSliderOutput(double percent) { sliderOutput = percent; }
+    @Override
+    public void setSliderVoltage(double volts) { sliderOutput = volts / 12; }
+}
@@ -0,0 +1,41 @@
+package frc.robot.io;
+
+import frc.robot.logging.LoggableInputs;
+
+/** The solenoid and laser used by the claw. The default methods do nothing, which is used to replay logs */
+public interface ClawIO {
+    /** Values read from the claw's sensors */
+    class Inputs implements LoggableInputs {
+        /** Whether something is blocking the laser */
+        public boolean laserBlocked;
+        /** The FPGA time in seconds the claw last closed itself on a game piece, 0 if never */
+        public double autoGrabTimestamp;
+
+        private static final String[] LOG_FIELDS = { "Laser Blocked", "Auto Grab Timestamp" };
+
+        @Override
+        public String[] getLogFields() { return LOG_FIELDS; }
+
+        @Override
+        public void toLog(double[] frame, int offset) {
+            frame[offset] = laserBlocked ? 1 : 0;
+            frame[offset + 1] = autoGrabTimestamp;
+        }
+
+        @Override
+        public void fromLog(double[] frame, int offset) {
+            laserBlocked = frame[offset] != 0;
+            autoGrabTimestamp = frame[offset + 1];
+        }
+    }
+
+    /** Reads the newest sensor values into inputs */
+    default void updateInputs(Inputs inputs) {}
+
+    /** @param open True to open the claw, false to close it */
+    default void setOpen(boolean open) {}
+
+    /** @param enabled True to have the claw close itself the moment the laser is blocked,
+     *                 without waiting for the next loop */
+    default void setAutoGrab(boolean enabled) {}
+}
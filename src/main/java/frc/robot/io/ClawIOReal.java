@@ -0,0 +1,51 @@
+package frc.robot.io;
+
+// Imports
+import edu.wpi.first.wpilibj.DoubleSolenoid;
+import edu.wpi.first.wpilibj.PneumaticsModuleType;
+import edu.wpi.first.wpilibj.DoubleSolenoid.Value;
+import frc.robot.wrappers.LaserDetector;
+
+import static frc.robot.Constants.ClawConstants.*;
+
+/** A double solenoid on the CTRE PCM and a laser detector.
+ *  Auto grab closes the solenoid from the laser's interrupt thread */
+public class ClawIOReal implements ClawIO {
+    private LaserDetector laserDetector;
+    private DoubleSolenoid dubs;
+    /** Only read on the interrupt thread once the laser is blocked */
+    private volatile boolean autoGrab = false;
+    private volatile double autoGrabTimestamp = 0;
+
+    /** Constructs a ClawIOReal
+     *  @param laserPort The DIO port of the laser detector */
+    public ClawIOReal(int laserPort) {
+        dubs = new DoubleSolenoid(PneumaticsModuleType.CTREPCM, 0, 1);
+
+        laserDetector = new LaserDetector(laserPort);
+        laserDetector.setOnBlocked(this::grab);
+        laserDetector.enableInterrupts(LASER_DEBOUNCE);
+    }
+
+    /** Runs on the interrupt thread when the laser is blocked */
+    private void grab() {
+        if (!autoGrab)
+            return;
+
+        dubs.set(Value.kReverse);
+        autoGrab = false;
+        autoGrabTimestamp = laserDetector.getLastBlockedTimestamp();
+    }
+
+    @Override
+    public void updateInputs(Inputs inputs) {
+        inputs.laserBlocked = laserDetector.isBlocked();
+        inputs.autoGrabTimestamp = autoGrabTimestamp;
+    }
+
+    @Override
+    public void setOpen(boolean open) { dubs.set(open ? Value.kForward : Value.kReverse); }
+
+    @Override
+    public void setAutoGrab(boolean enabled) { autoGrab = enabled; }
+}
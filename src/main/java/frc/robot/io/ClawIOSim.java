@@ -0,0 +1,32 @@
+package frc.robot.io;
+
+import edu.wpi.first.wpilibj.Timer;
+
+/** A simulated claw. Nothing ever blocks the laser unless told to */
+public class ClawIOSim implements ClawIO {
+    private boolean laserBlocked = false;
+    private boolean autoGrab = false;
+    private double autoGrabTimestamp = 0;
+
+    /** Constructs a ClawIOSim */
+    public ClawIOSim() {}
+
+    /** @param blocked Whether a simulated game piece is in the claw */
+    public void setLaserBlocked(boolean blocked) {
+        // Like the interrupt on the robot, grab as soon as the laser is blocked
+        if (blocked && !laserBlocked && autoGrab) {
+            autoGrab = false;
+            autoGrabTimestamp = Timer.getFPGATimestamp();
+        }
+        laserBlocked = blocked;
+    }
+
+    @Override
+    public void updateInputs(Inputs inputs) {
+        inputs.laserBlocked = laserBlocked;
+        inputs.autoGrabTimestamp = autoGrabTimestamp;
+    }
+
+    @Override
+    public void setAutoGrab(boolean enabled) { autoGrab = enabled; }
+}
@@ -0,0 +1,41 @@
+package frc.robot.io;
+
+import frc.robot.logging.LoggableInputs;
+
+/** The compressor on the pneumatics module. The default methods do nothing, which is used to replay logs */
+public interface CompressorIO {
+    /** Values read from the compressor */
+    class Inputs implements LoggableInputs {
+        /** Whether the pressure switch says the tanks are full */
+        public boolean pressureFull;
+        /** Whether the compressor is allowed to run */
+        public boolean enabled;
+        /** The current drawn by the compressor */
+        public double amps;
+
+        private static final String[] LOG_FIELDS = { "Pressure Full", "Enabled", "Amps" };
+
+        @Override
+        public String[] getLogFields() { return LOG_FIELDS; }
+
+        @Override
+        public void toLog(double[] frame, int offset) {
+            frame[offset] = pressureFull ? 1 : 0;
+            frame[offset + 1] = enabled ? 1 : 0;
+            frame[offset + 2] = amps;
+        }
+
+        @Override
+        public void fromLog(double[] frame, int offset) {
+            pressureFull = frame[offset] != 0;
+            enabled = frame[offset + 1] != 0;
+            amps = frame[offset + 2];
+        }
+    }
+
+    /** Reads the newest sensor values into inputs */
+    default void updateInputs(Inputs inputs) {}
+
+    /** @param enabled True to let the compressor run until the pressure switch says the tanks are full */
+    default void setEnabled(boolean enabled) {}
+}
@@ -0,0 +1,36 @@
+package frc.robot.io;
+
+// Imports
+import edu.wpi.first.wpilibj.Compressor;
+import edu.wpi.first.wpilibj.PneumaticsModuleType;
+
+/** The compressor on the CTRE PCM, controlled by its digital pressure switch */
+public class CompressorIOReal implements CompressorIO {
+    private final Compressor compressor = new Compressor(PneumaticsModuleType.CTREPCM);
+    private boolean enabled = false;
+
+    /** Constructs a CompressorIOReal. The compressor starts off */
+    public CompressorIOReal() {
+        compressor.disable();
+    }
+
+    @Override
+    public void updateInputs(Inputs inputs) {
+        inputs.pressureFull = compressor.getPressureSwitchValue();
+        inputs.enabled = compressor.isEnabled();
+        inputs.amps = compressor.getCurrent();
+    }
+
+    @Override
+    public void setEnabled(boolean enabled) {
+        // Only talk to the PCM when something changes
+        if (enabled == this.enabled)
+            return;
+        this.enabled = enabled;
+
+        if (enabled)
+            compressor.enableDigital();
+        else
+            compressor.disable();
+    }
+}
@@ -0,0 +1,39 @@
+package frc.robot.io;
+
+import edu.wpi.first.wpilibj.Timer;
+
+import static frc.robot.Constants.PneumaticsConstants.*;
+
+/** A simulated compressor that starts with empty tanks and fills them at a constant rate */
+public class CompressorIOSim implements CompressorIO {
+    /** The current drawn by a running compressor */
+    private static final double RUNNING_AMPS = 10;
+
+    /** How full the tanks are, from 0 to 1 */
+    private double fill = 0;
+    private boolean enabled = false;
+    /** When the inputs were last updated, NaN before the first update */
+    private double lastTimestamp = Double.NaN;
+
+    /** Constructs a CompressorIOSim */
+    public CompressorIOSim() {}
+
+    @Override
+    public void updateInputs(Inputs inputs) {
+        // Move forward by the time since the last update
+        double now = Timer.getFPGATimestamp();
+        double dt = Double.isNaN(lastTimestamp) ? 0 : now - lastTimestamp;
+        lastTimestamp = now;
+
+        boolean running = enabled && fill < 1;
+        if (running)
+            fill = Math.min(1, fill + dt / (REFILL_SECONDS_PER_ACTUATION * TANK_ACTUATIONS));
+
+        inputs.pressureFull = fill >= 1;
+        inputs.enabled = enabled;
+        inputs.amps = running ? RUNNING_AMPS : 0;
+    }
+
+    @Override
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+}
@@ -0,0 +1,63 @@
+package frc.robot.io;
+
+import frc.robot.logging.LoggableInputs;
+
+/** The gyro used by the drivetrain. The default methods do nothing, which is used to replay logs */
+public interface GyroIO {
+    /** Values read from the gyro */
+    class Inputs implements LoggableInputs {
+        public boolean connected;
+        /** The total angle the robot has turned in degrees, clockwise positive */
+        public double angleDegrees;
+        /** The tilt of the robot forward and back in degrees, front up positive */
+        public double pitchDegrees;
+        /** The tilt of the robot left and right in degrees, left side up positive */
+        public double rollDegrees;
+        /** How fast the robot is tilting in degrees/sec, the same directions as the tilt */
+        public double pitchRateDegreesPerSecond, rollRateDegreesPerSecond;
+        /** How fast the robot is turning in degrees/sec, clockwise positive */
+        public double yawRateDegreesPerSecond;
+        /** How fast the robot is speeding up forward and to the left in g, without gravity */
+        public double accelForwardG, accelLeftG;
+
+        private static final String[] LOG_FIELDS = {
+            "Connected", "Angle", "Pitch", "Roll", "Yaw Rate", "Accel Forward", "Accel Left",
+            "Pitch Rate", "Roll Rate"
+        };
+
+        @Override
+        public String[] getLogFields() { return LOG_FIELDS; }
+
+        @Override
+        public void toLog(double[] frame, int offset) {
+            frame[offset] = connected ? 1 : 0;
+            frame[offset + 1] = angleDegrees;
+            frame[offset + 2] = pitchDegrees;
+            frame[offset + 3] = rollDegrees;
+            frame[offset + 4] = yawRateDegreesPerSecond;
+            frame[offset + 5] = accelForwardG;
+            frame[offset + 6] = accelLeftG;
+            frame[offset + 7] = pitchRateDegreesPerSecond;
+            frame[offset + 8] = rollRateDegreesPerSecond;
+        }
+
+        @Override
+        public void fromLog(double[] frame, int offset) {
+            connected = frame[offset] != 0;
+            angleDegrees = frame[offset + 1];
+            pitchDegrees = frame[offset + 2];
+            rollDegrees = frame[offset + 3];
+            yawRateDegreesPerSecond = frame[offset + 4];
+            accelForwardG = frame[offset + 5];
+            accelLeftG = frame[offset + 6];
+            pitchRateDegreesPerSecond = frame[offset + 7];
+            rollRateDegreesPerSecond = frame[offset + 8];
+        }
+    }
+
+    /** Reads the newest sensor values into inputs */
+    default void updateInputs(Inputs inputs) {}
+
+    /** Sets the current direction of the robot to 0 */
+    default void reset() {}
+}
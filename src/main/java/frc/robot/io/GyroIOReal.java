@@ -0,0 +1,33 @@
+package frc.robot.io;
+
+// Gyro imports
+import com.kauailabs.navx.frc.AHRS;
+import edu.wpi.first.wpilibj.SPI;
+
+/** A NavX plugged into the roboRIO's MXP port */
+public class GyroIOReal implements GyroIO {
+    private final AHRS gyro = new AHRS(SPI.Port.kMXP, (byte) 200);
+
+    /** Constructs a GyroIOReal */
+    public GyroIOReal() {
+        gyro.reset();
+    }
+
+    @Override
+    public void updateInputs(Inputs inputs) {
+        inputs.connected = gyro.isConnected();
+        inputs.angleDegrees = gyro.getAngle();
+        inputs.pitchDegrees = gyro.getPitch();
+        inputs.rollDegrees = gyro.getRoll();
+        inputs.yawRateDegreesPerSecond = gyro.getRate();
+        // The NavX is mounted with its Y axis pointing forward, so its X axis points right. It pitches
+        // about its X axis and rolls about its Y axis, so those gyro rates are the tilt rates
+        inputs.accelForwardG = gyro.getWorldLinearAccelY();
+        inputs.accelLeftG = -gyro.getWorldLinearAccelX();
+        inputs.pitchRateDegreesPerSecond = gyro.getRawGyroX();
+        inputs.rollRateDegreesPerSecond = gyro.getRawGyroY();
+    }
+
+    @Override
+    public void reset() { gyro.reset(); }
+}
@@ -0,0 +1,85 @@
+package frc.robot.io;
+
+// Imports
+import edu.wpi.first.math.kinematics.ChassisSpeeds;
+import edu.wpi.first.math.kinematics.SwerveModuleState;
+import edu.wpi.first.wpilibj.Timer;
+
+import static frc.robot.Constants.SwerveConstants.SWERVE_KINEMATICS;
+import static frc.robot.Constants.TippingConstants.GRAVITY;
+
+/** A simulated gyro that turns as fast as the simulated swerve modules spin the robot. It stays level
+ *  unless something it drives over, like the charge station simulated by the tests, tilts it */
+public class GyroIOSim implements GyroIO {
+    /** When the inputs were last updated, NaN before the first update */
+    private double lastTimestamp = Double.NaN;
+
+    private final SwerveModuleIOSim[] modules;
+    private final SwerveModuleState[] moduleStates = new SwerveModuleState[4];
+    private double angleDegrees = 0;
+    /** The robot relative velocity last loop, to find acceleration from */
+    private double lastVx = 0, lastVy = 0;
+    /** The robot relative acceleration in m/sec^2, kept when no time has passed to measure it over */
+    private double accelX = 0, accelY = 0;
+    /** The tilt set by whatever the robot is driving over */
+    private double pitchDegrees = 0, rollDegrees = 0, pitchRate = 0, rollRate = 0;
+
+    /** Constructs a GyroIOSim
+     *  @param modules The simulated modules in module number order */
+    public GyroIOSim(SwerveModuleIOSim... modules) {
+        this.modules = modules;
+    }
+
+    @Override
+    public void updateInputs(Inputs inputs) {
+        for (int i = 0; i < modules.length; i++)
+            moduleStates[i] = modules[i].getState();
+        ChassisSpeeds speeds = SWERVE_KINEMATICS.toChassisSpeeds(moduleStates);
+        double omega = speeds.omegaRadiansPerSecond;
+
+        // Move forward by the time since the last update, so reading twice at once does not turn twice
+        double now = Timer.getFPGATimestamp();
+        double dt = Double.isNaN(lastTimestamp) ? 0 : now - lastTimestamp;
+        lastTimestamp = now;
+
+        if (dt > 0) {
+            // The gyro measures clockwise as positive
+            angleDegrees -= Math.toDegrees(omega * dt);
+
+            // The simulated wheels never slip, so the robot speeds up exactly as they do. Turning
+            // also swings the velocity around, which the accelerometer feels as sideways acceleration
+            accelX = (speeds.vxMetersPerSecond - lastVx) / dt - omega * speeds.vyMetersPerSecond;
+            accelY = (speeds.vyMetersPerSecond - lastVy) / dt + omega * speeds.vxMetersPerSecond;
+            lastVx = speeds.vxMetersPerSecond;
+            lastVy = speeds.vyMetersPerSecond;
+        }
+
+        inputs.connected = true;
+        inputs.angleDegrees = angleDegrees;
+        inputs.pitchDegrees = pitchDegrees;
+        inputs.rollDegrees = rollDegrees;
+        inputs.pitchRateDegreesPerSecond = pitchRate;
+        inputs.rollRateDegreesPerSecond = rollRate;
+        inputs.yawRateDegreesPerSecond = -Math.toDegrees(omega);
+        inputs.accelForwardG = accelX / GRAVITY;
+        inputs.accelLeftG = accelY / GRAVITY;
+    }
+
+    /**
+     * Tilts the simulated robot, as if it were driving over something that is not level
+     *
+     * @param pitchDegrees The tilt forward and back, front up positive
+     * @param rollDegrees The tilt left and right, left side up positive
+     * @param pitchRate How fast the pitch is changing in degrees/sec
+     * @param rollRate How fast the roll is changing in degrees/sec
+     */
+    public void setTilt(double pitchDegrees, double rollDegrees, double pitchRate, double rollRate) {
+        this.pitchDegrees = pitchDegrees;
+        this.rollDegrees = rollDegrees;
+        this.pitchRate = pitchRate;
+        this.rollRate = rollRate;
+    }
+
+    @Override
+    public void reset() { angleDegrees = 0; }
+}
@@ -0,0 +1,42 @@
+package frc.robot.io;
+
+import frc.robot.logging.LoggableInputs;
+
+/** The limelight camera. The default methods do nothing, which is used to replay logs */
+public interface LimelightIO {
+    /** Values read from the limelight */
+    class Inputs implements LoggableInputs {
+        /** Whether there is a valid target, 1 if there is */
+        public double tv;
+        /** Horizontal angle from the crosshair to the target in degrees */
+        public double tx;
+        /** Vertical angle from the crosshair to the target in degrees */
+        public double ty;
+        /** How much of the image the target takes up, 0 to 100 */
+        public double ta;
+
+        private static final String[] LOG_FIELDS = { "tv", "tx", "ty", "ta" };
+
+        @Override
+        public String[] getLogFields() { return LOG_FIELDS; }
+
+        @Override
+        public void toLog(double[] frame, int offset) {
+            frame[offset] = tv;
+            frame[offset + 1] = tx;
+            frame[offset + 2] = ty;
+            frame[offset + 3] = ta;
+        }
+
+        @Override
+        public void fromLog(double[] frame, int offset) {
+            tv = frame[offset];
+            tx = frame[offset + 1];
+            ty = frame[offset + 2];
+            ta = frame[offset + 3];
+        }
+    }
+
+    /** Reads the newest values into inputs */
+    default void updateInputs(Inputs inputs) {}
+}
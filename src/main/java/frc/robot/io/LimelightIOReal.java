@@ -0,0 +1,31 @@
+package frc.robot.io;
+
+// Imports
+import edu.wpi.first.networktables.DoubleSubscriber;
+import edu.wpi.first.networktables.NetworkTable;
+import edu.wpi.first.networktables.NetworkTableInstance;
+
+/** A limelight publishing to the "limelight" table */
+public class LimelightIOReal implements LimelightIO {
+    private final DoubleSubscriber tv;
+    private final DoubleSubscriber tx;
+    private final DoubleSubscriber ty;
+    private final DoubleSubscriber ta;
+
+    /** Constructs a LimelightIOReal */
+    public LimelightIOReal() {
+        NetworkTable table = NetworkTableInstance.getDefault().getTable("limelight");
+        tv = table.getDoubleTopic("tv").subscribe(0);
+        tx = table.getDoubleTopic("tx").subscribe(0);
+        ty = table.getDoubleTopic("ty").subscribe(0);
+        ta = table.getDoubleTopic("ta").subscribe(0);
+    }
+
+    @Override
+    public void updateInputs(Inputs inputs) {
+        inputs.tv = tv.get();
+        inputs.tx = tx.get();
+        inputs.ty = ty.get();
+        inputs.ta = ta.get();
+    }
+}
@@ -0,0 +1,15 @@
+package frc.robot.io;
+
+/** A simulated limelight that never sees a target */
+public class LimelightIOSim implements LimelightIO {
+    /** Constructs a LimelightIOSim */
+    public LimelightIOSim() {}
+
+    @Override
+    public void updateInputs(Inputs inputs) {
+        inputs.tv = 0;
+        inputs.tx = 0;
+        inputs.ty = 0;
+        inputs.ta = 0;
+    }
+}
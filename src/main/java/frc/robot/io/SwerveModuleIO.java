@@ -0,0 +1,74 @@
+package frc.robot.io;
+
+import frc.robot.logging.LoggableInputs;
+
+/** The hardware used by a single swerve module. The default methods do nothing, which is used to replay logs */
+public interface SwerveModuleIO {
+    /** Values read from the module's sensors */
+    class Inputs implements LoggableInputs {
+        /** How far the module has driven in meters */
+        public double driveMeters;
+        /** How fast the module is driving in m/sec */
+        public double driveMetersPerSecond;
+        /** The direction the module is facing in degrees, read from the turning motor */
+        public double angleDegrees;
+        /** The direction the module is facing in degrees, read from the absolute encoder */
+        public double absoluteAngleDegrees;
+        /** The %power the driving motor is actually outputting */
+        public double driveAppliedOutput;
+        public double driveAmps;
+        public double turnAmps;
+
+        private static final String[] LOG_FIELDS = {
+            "Drive Meters", "Drive MPS", "Angle", "Absolute Angle", "Drive Applied Output", "Drive Amps", "Turn Amps"
+        };
+
+        @Override
+        public String[] getLogFields() { return LOG_FIELDS; }
+
+        @Override
+        public void toLog(double[] frame, int offset) {
+            frame[offset] = driveMeters;
+            frame[offset + 1] = driveMetersPerSecond;
+            frame[offset + 2] = angleDegrees;
+            frame[offset + 3] = absoluteAngleDegrees;
+            frame[offset + 4] = driveAppliedOutput;
+            frame[offset + 5] = driveAmps;
+            frame[offset + 6] = turnAmps;
+        }
+
+        @Override
+        public void fromLog(double[] frame, int offset) {
+            driveMeters = frame[offset];
+            driveMetersPerSecond = frame[offset + 1];
+            angleDegrees = frame[offset + 2];
+            absoluteAngleDegrees = frame[offset + 3];
+            driveAppliedOutput = frame[offset + 4];
+            driveAmps = frame[offset + 5];
+            turnAmps = frame[offset + 6];
+        }
+    }
+
+    /** Reads the newest sensor values into inputs */
+    default void updateInputs(Inputs inputs) {}
+
+    /** @param percent The %power to drive with */
+    default void setDriveOutput(double percent) {}
+    /** @param metersPerSecond The speed to drive at using velocity PID
+     *  @param feedforwardVolts The volts to add to the PID's output, from the module's feedforward */
+    default void setDriveVelocity(double metersPerSecond, double feedforwardVolts) {}
+    /** @param volts The voltage to send to the driving motor */
+    default void setDriveVoltage(double volts) {}
+    /** @param volts The voltage to send to the turning motor */
+    default void setTurnVoltage(double volts) {}
+
+    /** @param meters The distance the drive encoder should now read */
+    default void setDriveMeters(double meters) {}
+    /** @param degrees The angle the turning encoder should now read */
+    default void setAngleDegrees(double degrees) {}
+
+    /** Changes the most current each motor may draw. Slow, so only call when the limits change
+     *  @param driveAmps The limit of the driving motor
+     *  @param turnAmps The limit of the turning motor */
+    default void setCurrentLimits(int driveAmps, int turnAmps) {}
+}
@@ -0,0 +1,138 @@
+package frc.robot.io;
+
+// Motor related imports
+import com.revrobotics.CANSparkMax;
+import com.revrobotics.CANSparkMaxLowLevel;
+import com.revrobotics.CANSparkMaxLowLevel.MotorType;
+import com.revrobotics.SparkMaxPIDController;
+import com.revrobotics.SparkMaxPIDController.ArbFFUnits;
+import com.revrobotics.RelativeEncoder;
+import com.ctre.phoenix.sensors.CANCoder;
+import frc.robot.utils.CtreUtils;
+
+// Import constants
+import static frc.robot.Constants.SwerveConstants.ModuleConstants.*;
+import static frc.robot.Constants.PowerConstants.*;
+
+/** A swerve module made of two Spark Maxes and a CANCoder */
+public class SwerveModuleIOReal implements SwerveModuleIO {
+    private CANSparkMax turnMotor;
+    private CANSparkMax driveMotor;
+    private SparkMaxPIDController driveController;
+    private RelativeEncoder driveEncoder;
+    private RelativeEncoder turnEncoder;
+    private CANCoder angleEncoder;
+    private double angleOffset;
+
+    /**
+     * Constructs a SwerveModuleIOReal
+     *
+     * @param driveMotorID The ID of the driving motor.
+     * @param turnMotorID The ID of the turning motor.
+     * @param absoluteEncoderID The ID of the absolute encoder.
+     * @param driveMotorInverted Whether the driving motor is inverted.
+     * @param turningMotorInverted Whether the turning motor is inverted.
+     * @param turningEncoderOffset The encoder's reading when pointing forward.
+     */
+    public SwerveModuleIOReal(
+        int driveMotorID,
+        int turnMotorID,
+        int absoluteEncoderID,
+        boolean driveMotorInverted,
+        boolean turningMotorInverted,
+        double turningEncoderOffset) {
+
+        angleOffset = turningEncoderOffset;
+
+        // Construct and configure the driving motor
+        driveMotor = new CANSparkMax(driveMotorID, MotorType.kBrushless);
+        driveMotor.restoreFactoryDefaults();
+        driveMotor.setSmartCurrentLimit((int) DRIVE_LIMITS[1]);
+        driveMotor.getPIDController().setFF(0.0);
+        driveMotor.getPIDController().setP(0.2);
+        driveMotor.getPIDController().setI(0.0);
+        driveMotor.setInverted(driveMotorInverted);
+        driveMotor.setPeriodicFramePeriod(CANSparkMaxLowLevel.PeriodicFrame.kStatus0, 100);
+        driveMotor.setPeriodicFramePeriod(CANSparkMaxLowLevel.PeriodicFrame.kStatus1, 20);
+        driveMotor.setPeriodicFramePeriod(CANSparkMaxLowLevel.PeriodicFrame.kStatus2, 20);
+        driveMotor.enableVoltageCompensation(12.6);
+        driveMotor.setIdleMode(CANSparkMax.IdleMode.kBrake);
+
+        // Initialize the driving motor's encoder
+        driveEncoder = driveMotor.getEncoder();
+        driveEncoder.setPositionConversionFactor(DRIVE_REVS_TO_M);
+        driveEncoder.setVelocityConversionFactor(DRIVE_RPM_TO_MPS);
+
+        // Initialize the driving motor's PID controller. The velocity slot only corrects what the
+        // feedforward misses, since the feedforward is sent with every setpoint
+        driveController = driveMotor.getPIDController();
+        driveController.setP(DRIVE_VELOCITY_P, DRIVE_VELOCITY_SLOT);
+        driveController.setI(0, DRIVE_VELOCITY_SLOT);
+        driveController.setD(DRIVE_VELOCITY_D, DRIVE_VELOCITY_SLOT);
+        driveController.setFF(0, DRIVE_VELOCITY_SLOT);
+        driveController.setOutputRange(-1, 1, DRIVE_VELOCITY_SLOT);
+
+        // Construct and configure the turning motor
+        turnMotor = new CANSparkMax(turnMotorID, MotorType.kBrushless);
+        turnMotor.restoreFactoryDefaults();
+        turnMotor.setSmartCurrentLimit((int) TURN_LIMITS[1]);
+        turnMotor.getPIDController().setFF(0.0);
+        turnMotor.getPIDController().setP(0.2);
+        turnMotor.getPIDController().setI(0.0);
+        turnMotor.setInverted(turningMotorInverted);
+        turnMotor.setPeriodicFramePeriod(CANSparkMaxLowLevel.PeriodicFrame.kStatus0, 100);
+        turnMotor.setPeriodicFramePeriod(CANSparkMaxLowLevel.PeriodicFrame.kStatus1, 20);
+        // Send the position as often as the steering PID runs
+        turnMotor.setPeriodicFramePeriod(CANSparkMaxLowLevel.PeriodicFrame.kStatus2, 5);
+        turnMotor.enableVoltageCompensation(12.6);
+        turnMotor.setIdleMode(CANSparkMax.IdleMode.kBrake);
+
+        // Initialize the driving motor's encoder
+        turnEncoder = turnMotor.getEncoder();
+        turnEncoder.setPositionConversionFactor(TURNING_REVS_TO_DEG);
+        turnEncoder.setVelocityConversionFactor(TURNING_REVS_TO_DEG / 60);
+
+        // Construct and initialize the absolute encoder
+        angleEncoder = new CANCoder(absoluteEncoderID);
+        angleEncoder.configFactoryDefault();
+        angleEncoder.configAllSettings(CtreUtils.generateCanCoderConfig());
+    }
+
+    @Override
+    public void updateInputs(Inputs inputs) {
+        inputs.driveMeters = driveEncoder.getPosition();
+        inputs.driveMetersPerSecond = driveEncoder.getVelocity();
+        inputs.angleDegrees = turnEncoder.getPosition();
+        inputs.absoluteAngleDegrees = angleEncoder.getAbsolutePosition() - angleOffset;
+        inputs.driveAppliedOutput = driveMotor.getAppliedOutput();
+        inputs.driveAmps = driveMotor.getOutputCurrent();
+        inputs.turnAmps = turnMotor.getOutputCurrent();
+    }
+
+    @Override
+    public void setDriveOutput(double percent) { driveMotor.set(percent); }
+
+    @Override
+    public void setDriveVelocity(double metersPerSecond, double feedforwardVolts) {
+        driveController.setReference(metersPerSecond, CANSparkMax.ControlType.kVelocity, DRIVE_VELOCITY_SLOT,
+            feedforwardVolts, ArbFFUnits.kVoltage);
+    }
+
+    @Override
+    public void setDriveVoltage(double volts) { driveMotor.setVoltage(volts); }
+
+    @Override
+    public void setTurnVoltage(double volts) { turnMotor.setVoltage(volts); }
+
+    @Override
+    public void setDriveMeters(double meters) { driveEncoder.setPosition(meters); }
+
+    @Override
+    public void setAngleDegrees(double degrees) { turnEncoder.setPosition(degrees); }
+
+    @Override
+    public void setCurrentLimits(int driveAmps, int turnAmps) {
+        driveMotor.setSmartCurrentLimit(driveAmps);
+        turnMotor.setSmartCurrentLimit(turnAmps);
+    }
+}
@@ -0,0 +1,72 @@
+package frc.robot.io;
+
+// Imports
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.kinematics.SwerveModuleState;
+import edu.wpi.first.wpilibj.Timer;
+
+import static frc.robot.Constants.SwerveConstants.MAX_TRANSLATION_SPEED;
+import static frc.robot.Constants.SwerveConstants.ModuleConstants.TURN_SIM_SPEED;
+
+/** A simulated swerve module. Driving reaches its commanded speed instantly,
+ *  and turning moves at a speed proportional to its voltage */
+public class SwerveModuleIOSim implements SwerveModuleIO {
+    /** When the inputs were last updated, NaN before the first update */
+    private double lastTimestamp = Double.NaN;
+
+    private double driveMeters = 0;
+    private double driveMetersPerSecond = 0;
+    private double driveOutput = 0;
+    private double angleDegrees = 0;
+    private double turnVolts = 0;
+
+    /** Constructs a SwerveModuleIOSim */
+    public SwerveModuleIOSim() {}
+
+    /** @return The current {@link SwerveModuleState state} of the simulated module */
+    public SwerveModuleState getState() {
+        return new SwerveModuleState(driveMetersPerSecond, Rotation2d.fromDegrees(angleDegrees));
+    }
+
+    @Override
+    public void updateInputs(Inputs inputs) {
+        // Move forward by the time since the last update, which is called at more than one rate
+        double now = Timer.getFPGATimestamp();
+        double dt = Double.isNaN(lastTimestamp) ? 0 : now - lastTimestamp;
+        lastTimestamp = now;
+        driveMeters += driveMetersPerSecond * dt;
+        angleDegrees += turnVolts / 12 * TURN_SIM_SPEED * dt;
+
+        inputs.driveMeters = driveMeters;
+        inputs.driveMetersPerSecond = driveMetersPerSecond;
+        inputs.angleDegrees = angleDegrees;
+        inputs.absoluteAngleDegrees = angleDegrees;
+        inputs.driveAppliedOutput = driveOutput;
+        inputs.driveAmps = 0;
+        inputs.turnAmps = 0;
+    }
+
+    @Override
+    public void setDriveOutput(double percent) {
+        driveOutput = percent;
+        driveMetersPerSecond = percent * MAX_TRANSLATION_SPEED;
+    }
+
+    @Override
+    public void setDriveVelocity(double metersPerSecond, double feedforwardVolts) {
+        driveOutput = metersPerSecond / MAX_TRANSLATION_SPEED;
+        driveMetersPerSecond = metersPerSecond;
+    }
+
+    @Override
+    public void setDriveVoltage(double volts) { setDriveOutput(volts / 12); }
+
+    @Override
+    public void setTurnVoltage(double volts) { turnVolts = volts; }
+
+    @Override
+    public void setDriveMeters(double meters) { driveMeters = meters; }
+
+    @Override
+    public void setAngleDegrees(double degrees) { angleDegrees = degrees; }
+}
@@ -0,0 +1,74 @@
+package frc.robot.logging;
+
+/** A sensor value read by a task that runs faster than the main loop, see
+ *  {@link frc.robot.misc_subclasses.LoopScheduler}. Every value the task reads between two loops is logged with
+ *  the second loop's frame. When replaying, the task is handed the values from the log in the same order instead */
+public class ControlSamples implements LoggableInputs {
+    /** The most values kept for one loop. Normally 4 runs fit between loops, more if a loop ran long */
+    public static final int MAX_SAMPLES = 8;
+
+    private final String[] fields = new String[MAX_SAMPLES + 1];
+    /** Values read since the current loop started, which are logged with the next loop */
+    private final double[] pending = new double[MAX_SAMPLES];
+    private int pendingCount = 0;
+    /** Values read before the current loop started, which are logged with it */
+    private final double[] latched = new double[MAX_SAMPLES];
+    private int latchedCount = 0;
+    /** The next logged value handed to the task while replaying */
+    private int replayIndex = 0;
+    /** Set once the values are read from a log */
+    private boolean isReplaying = false;
+
+    /** Constructs a ControlSamples
+     *  @param valueName What the value is, used to name its fields in the log */
+    public ControlSamples(String valueName) {
+        fields[0] = "Samples";
+        for (int i = 0; i < MAX_SAMPLES; i++)
+            fields[i + 1] = valueName + " " + i;
+    }
+
+    /**
+     * Records a value read by the task. Called every time the task runs
+     *
+     * @param value The value the task read
+     * @return The value the task should use. The one it read, or the one read at the same run on the robot
+     *         when replaying
+     */
+    public double sample(double value) {
+        if (isReplaying)
+            return latchedCount == 0 ? value : latched[Math.min(replayIndex++, latchedCount - 1)];
+
+        if (pendingCount < MAX_SAMPLES)
+            pending[pendingCount++] = value;
+        return value;
+    }
+
+    /** Moves the values read since the last loop into this loop's frame. Called at the start of every loop */
+    public void latch() {
+        if (isReplaying)
+            return;
+
+        System.arraycopy(pending, 0, latched, 0, pendingCount);
+        latchedCount = pendingCount;
+        pendingCount = 0;
+    }
+
+    @Override
+    public String[] getLogFields() { return fields; }
+
+    @Override
+    public void toLog(double[] frame, int offset) {
+        frame[offset] = latchedCount;
+        for (int i = 0; i < MAX_SAMPLES; i++)
+            frame[offset + 1 + i] = i < latchedCount ? latched[i] : 0;
+    }
+
+    @Override
+    public void fromLog(double[] frame, int offset) {
+        isReplaying = true;
+        latchedCount = Math.max(0, Math.min(MAX_SAMPLES, (int) frame[offset]));
+        for (int i = 0; i < latchedCount; i++)
+            latched[i] = frame[offset + 1 + i];
+        replayIndex = 0;
+    }
+}
@@ -0,0 +1,115 @@
+package frc.robot.logging;
+
+// Imports
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.hal.AllianceStationID;
+import edu.wpi.first.wpilibj.RobotController;
+import edu.wpi.first.wpilibj.Timer;
+import edu.wpi.first.wpilibj.simulation.DriverStationSim;
+import edu.wpi.first.wpilibj.simulation.RoboRioSim;
+
+import static frc.robot.Constants.ControllerPorts.*;
+
+/** The driver station's state and both controllers, along with the battery voltage, the alliance and when
+ *  the loop started, which are read once at the start of every loop so every decision uses the same values.
+ *  When replaying a log, the logged values are pushed into the simulated driver station so every
+ *  command sees the same controller input the robot saw */
+public class DriverStationInputs implements LoggableInputs {
+    /** The controller ports that are logged */
+    private static final int[] PORTS = { DRIVER_PORT, OPERATOR_PORT };
+    private static final int AXES = 6;
+    /** Enabled, Autonomous, Test, Battery Volts, Timestamp and Red Alliance come before the controllers */
+    private static final int STATE_FIELDS = 6;
+    /** Each axis, the buttons as a bitmask, and the POV */
+    private static final int PORT_FIELDS = AXES + 2;
+
+    private static final String[] LOG_FIELDS = new String[STATE_FIELDS + PORTS.length * PORT_FIELDS];
+    static {
+        LOG_FIELDS[0] = "Enabled";
+        LOG_FIELDS[1] = "Autonomous";
+        LOG_FIELDS[2] = "Test";
+        LOG_FIELDS[3] = "Battery Volts";
+        LOG_FIELDS[4] = "Timestamp";
+        LOG_FIELDS[5] = "Red Alliance";
+        for (int i = 0; i < PORTS.length; i++) {
+            int start = STATE_FIELDS + i * PORT_FIELDS;
+            for (int axis = 0; axis < AXES; axis++)
+                LOG_FIELDS[start + axis] = "Port" + PORTS[i] + "/Axis" + axis;
+            LOG_FIELDS[start + AXES] = "Port" + PORTS[i] + "/Buttons";
+            LOG_FIELDS[start + AXES + 1] = "Port" + PORTS[i] + "/POV";
+        }
+    }
+
+    private double batteryVolts = 12;
+    /** When the loop started in seconds, NaN before the first loop */
+    private double timestamp = Double.NaN;
+    private boolean isRedAlliance = false;
+
+    /** Constructs a DriverStationInputs object */
+    public DriverStationInputs() {}
+
+    /** Reads the battery voltage, the alliance and the time. Should be called at the start of every loop,
+     *  except when replaying, where they come from the log instead */
+    public void update() {
+        batteryVolts = RobotController.getBatteryVoltage();
+        timestamp = Timer.getFPGATimestamp();
+        isRedAlliance = DriverStation.getAlliance() == DriverStation.Alliance.Red;
+    }
+
+    /** @return The battery voltage at the start of this loop */
+    public double getBatteryVolts() { return batteryVolts; }
+    /** @return When this loop started in seconds, NaN before the first loop */
+    public double getTimestamp() { return timestamp; }
+    /** @return Whether the robot is on the red alliance */
+    public boolean isRedAlliance() { return isRedAlliance; }
+
+    @Override
+    public String[] getLogFields() { return LOG_FIELDS; }
+
+    @Override
+    public void toLog(double[] frame, int offset) {
+        frame[offset] = DriverStation.isEnabled() ? 1 : 0;
+        frame[offset + 1] = DriverStation.isAutonomous() ? 1 : 0;
+        frame[offset + 2] = DriverStation.isTest() ? 1 : 0;
+        frame[offset + 3] = batteryVolts;
+        frame[offset + 4] = timestamp;
+        frame[offset + 5] = isRedAlliance ? 1 : 0;
+
+        for (int i = 0; i < PORTS.length; i++) {
+            int start = offset + STATE_FIELDS + i * PORT_FIELDS;
+            for (int axis = 0; axis < AXES; axis++)
+                frame[start + axis] = DriverStation.getStickAxis(PORTS[i], axis);
+            frame[start + AXES] = DriverStation.getStickButtons(PORTS[i]);
+            frame[start + AXES + 1] = DriverStation.getStickPOV(PORTS[i], 0);
+        }
+    }
+
+    @Override
+    public void fromLog(double[] frame, int offset) {
+        DriverStationSim.setDsAttached(true);
+        DriverStationSim.setEnabled(frame[offset] != 0);
+        DriverStationSim.setAutonomous(frame[offset + 1] != 0);
+        DriverStationSim.setTest(frame[offset + 2] != 0);
+        batteryVolts = frame[offset + 3];
+        timestamp = frame[offset + 4];
+        isRedAlliance = frame[offset + 5] != 0;
+        RoboRioSim.setVInVoltage(batteryVolts);
+        DriverStationSim.setAllianceStationId(isRedAlliance ? AllianceStationID.Red1 : AllianceStationID.Blue1);
+
+        for (int i = 0; i < PORTS.length; i++) {
+            int start = offset + STATE_FIELDS + i * PORT_FIELDS;
+            DriverStationSim.setJoystickAxisCount(PORTS[i], AXES);
+            for (int axis = 0; axis < AXES; axis++)
+                DriverStationSim.setJoystickAxis(PORTS[i], axis, frame[start + axis]);
+
+            // Buttons are stored as a bitmask, which a double holds exactly
+            DriverStationSim.setJoystickButtonCount(PORTS[i], 16);
+            DriverStationSim.setJoystickButtons(PORTS[i], (int) frame[start + AXES]);
+            DriverStationSim.setJoystickPOVCount(PORTS[i], 1);
+            DriverStationSim.setJoystickPOV(PORTS[i], 0, (int) frame[start + AXES + 1]);
+        }
+
+        // The robot reads the new values at the start of its next loop
+        DriverStationSim.notifyNewData();
+    }
+}
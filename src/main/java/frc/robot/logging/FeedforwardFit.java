@@ -0,0 +1,207 @@
+package frc.robot.logging;
+
+// Imports
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+
+/** Fits a feedforward to a log recorded while characterizing a mechanism in test mode. Finds the kS, kV, kA and kG
+ *  where volts = kS * sign(velocity) + kV * velocity + kA * acceleration + kG * gravity best match the log,
+ *  by least squares. Does not depend on WPILib so it can be run on a computer, see the fitFeedforward task */
+public class FeedforwardFit {
+    /** Samples slower than this many units/sec are left out, since static friction does not follow the model */
+    private static final double MIN_VELOCITY = 1e-3;
+    /** Velocity and acceleration are found from the samples this far to either side, smoothing out noise */
+    private static final int DIFFERENCE_SPAN = 2;
+
+    /** The constants of a fitted feedforward */
+    public static final class Result {
+        public double kS, kV, kA, kG;
+        /** How much of the voltage the fit explains, 1 being all of it */
+        public double rSquared;
+        /** The number of samples fit */
+        public int samples;
+        /** Whether the mechanism is pulled on by gravity, so kG was fit */
+        public boolean hasGravity;
+    }
+
+    /**
+     * Fits the feedforward of the mechanism recorded in a log
+     *
+     * @param file A log written while characterizing a mechanism
+     * @return The fitted feedforward
+     */
+    public static Result fit(File file) throws IOException {
+        // Read every sample of the log
+        double[] time, test, volts, position, velocity, gravity;
+        int count = 0;
+        try (LogReader reader = new LogReader(file)) {
+            int testIndex = find(reader, "Test");
+            int voltsIndex = find(reader, "Volts");
+            int positionIndex = find(reader, "Position");
+            int velocityIndex = find(reader, "Velocity");
+            int gravityIndex = find(reader, "Gravity");
+
+            int capacity = 1024;
+            time = new double[capacity];
+            test = new double[capacity];
+            volts = new double[capacity];
+            position = new double[capacity];
+            velocity = new double[capacity];
+            gravity = new double[capacity];
+            while (reader.next()) {
+                if (count == time.length) {
+                    capacity *= 2;
+                    time = Arrays.copyOf(time, capacity);
+                    test = Arrays.copyOf(test, capacity);
+                    volts = Arrays.copyOf(volts, capacity);
+                    position = Arrays.copyOf(position, capacity);
+                    velocity = Arrays.copyOf(velocity, capacity);
+                    gravity = Arrays.copyOf(gravity, capacity);
+                }
+                time[count] = reader.getTimestamp();
+                test[count] = reader.get(testIndex);
+                volts[count] = reader.get(voltsIndex);
+                position[count] = reader.get(positionIndex);
+                velocity[count] = reader.get(velocityIndex);
+                gravity[count] = reader.get(gravityIndex);
+                count++;
+            }
+        }
+
+        // Mechanisms that do not measure their velocity have it found from their position
+        for (int i = 0; i < count; i++) {
+            if (Double.isNaN(velocity[i]))
+                velocity[i] = difference(position, time, test, i, count);
+        }
+
+        // Build the normal equations of the least squares fit one sample at a time.
+        // The columns are sign(velocity), velocity, acceleration and gravity
+        double[][] normal = new double[4][4];
+        double[] target = new double[4];
+        double[] row = new double[4];
+        double voltsSum = 0, voltsSquaredSum = 0;
+        Result result = new Result();
+        for (int i = 0; i < count; i++) {
+            if (test[i] < 0 || Math.abs(velocity[i]) < MIN_VELOCITY)
+                continue;
+            double acceleration = difference(velocity, time, test, i, count);
+            if (Double.isNaN(acceleration))
+                continue;
+
+            row[0] = Math.signum(velocity[i]);
+            row[1] = velocity[i];
+            row[2] = acceleration;
+            row[3] = gravity[i];
+            result.hasGravity |= gravity[i] != 0;
+            for (int r = 0; r < 4; r++) {
+                for (int c = 0; c < 4; c++)
+                    normal[r][c] += row[r] * row[c];
+                target[r] += row[r] * volts[i];
+            }
+            voltsSum += volts[i];
+            voltsSquaredSum += volts[i] * volts[i];
+            result.samples++;
+        }
+
+        // Without gravity its column is all 0, so leave it out by pinning kG to 0
+        if (!result.hasGravity)
+            normal[3][3] = 1;
+        if (result.samples < 4)
+            throw new IOException(file + " has too few moving samples to fit");
+
+        // Solving works in place, and the equations are still needed to find how well the fit matches
+        double[][] normalCopy = new double[4][];
+        for (int r = 0; r < 4; r++)
+            normalCopy[r] = normal[r].clone();
+        double[] constants = solve(normalCopy, target.clone());
+        result.kS = constants[0];
+        result.kV = constants[1];
+        result.kA = constants[2];
+        result.kG = constants[3];
+
+        // The part of the voltage's spread the fit accounts for
+        double residualSum = voltsSquaredSum;
+        for (int r = 0; r < 4; r++) {
+            residualSum -= 2 * constants[r] * target[r];
+            for (int c = 0; c < 4; c++)
+                residualSum += constants[r] * normal[r][c] * constants[c];
+        }
+        double mean = voltsSum / result.samples;
+        double totalSum = voltsSquaredSum - result.samples * mean * mean;
+        result.rSquared = totalSum > 0 ? 1 - residualSum / totalSum : 0;
+        return result;
+    }
+
+    /** @return The index of a characterization field, throwing if the log does not have it */
+    private static int find(LogReader reader, String field) throws IOException {
+        int index = reader.indexOf("Characterization/" + field);
+        if (index < 0)
+            throw new IOException("Not a characterization log, missing " + field);
+        return index;
+    }
+
+    /** @return The rate of change of values at a sample, or NaN if the samples around it are from another test */
+    private static double difference(double[] values, double[] time, double[] test, int i, int count) {
+        int before = i - DIFFERENCE_SPAN;
+        int after = i + DIFFERENCE_SPAN;
+        if (before < 0 || after >= count || test[before] != test[i] || test[after] != test[i])
+            return Double.NaN;
+        double dt = time[after] - time[before];
+        return dt > 0 ? (values[after] - values[before]) / dt : Double.NaN;
+    }
+
+    /** Solves a small linear system by Gaussian elimination with partial pivoting
+     *  @return x where a * x = b. a and b are changed */
+    private static double[] solve(double[][] a, double[] b) {
+        int n = b.length;
+        for (int column = 0; column < n; column++) {
+            int pivot = column;
+            for (int r = column + 1; r < n; r++)
+                if (Math.abs(a[r][column]) > Math.abs(a[pivot][column]))
+                    pivot = r;
+            double[] swapRow = a[column]; a[column] = a[pivot]; a[pivot] = swapRow;
+            double swap = b[column]; b[column] = b[pivot]; b[pivot] = swap;
+
+            for (int r = column + 1; r < n; r++) {
+                double factor = a[r][column] / a[column][column];
+                for (int c = column; c < n; c++)
+                    a[r][c] -= factor * a[column][c];
+                b[r] -= factor * b[column];
+            }
+        }
+
+        double[] x = new double[n];
+        for (int r = n - 1; r >= 0; r--) {
+            double sum = b[r];
+            for (int c = r + 1; c < n; c++)
+                sum -= a[r][c] * x[c];
+            x[r] = sum / a[r][r];
+        }
+        return x;
+    }
+
+    /** Fits each characterization log given and prints its constants
+     *  @param args The log files to fit */
+    public static void main(String... args) {
+        if (args.length == 0) {
+            System.err.println("Usage: FeedforwardFit <characterization log>...");
+            System.exit(1);
+        }
+
+        int failures = 0;
+        for (String path : args) {
+            try {
+                Result result = fit(new File(path));
+                System.out.printf("%s%n  kS %.5f  kV %.5f  kA %.5f%s  (R^2 %.4f from %d samples)%n",
+                    path, result.kS, result.kV, result.kA,
+                    result.hasGravity ? String.format("  kG %.5f", result.kG) : "",
+                    result.rSquared, result.samples);
+            } catch (IOException e) {
+                System.err.println(path + ": " + e.getMessage());
+                failures++;
+            }
+        }
+        System.exit(failures == 0 ? 0 : 1);
+    }
+}
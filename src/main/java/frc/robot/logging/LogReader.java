@@ -0,0 +1,97 @@
+package frc.robot.logging;
+
+// Imports
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.PrintWriter;
+
+/** Reads log files written by {@link SignalLogger} one frame at a time.
+ *  Does not depend on WPILib so it can be used off the robot. */
+public class LogReader implements Closeable {
+    private final DataInputStream input;
+    private final String[] fieldNames;
+    /** Version 1 logs stored each field as a float */
+    private final boolean hasFloatFields;
+    private double timestamp;
+    private final double[] values;
+
+    /** Opens a log file and reads its header
+     *  @param file The log file to read */
+    public LogReader(File file) throws IOException {
+        input = new DataInputStream(new BufferedInputStream(new FileInputStream(file), 1 << 16));
+
+        if (input.readInt() != SignalLogger.MAGIC)
+            throw new IOException(file + " is not a robot log");
+        int version = input.readInt();
+        if (version != SignalLogger.VERSION && version != 1)
+            throw new IOException(file + " has log version " + version + ", expected " + SignalLogger.VERSION);
+        hasFloatFields = version == 1;
+
+        fieldNames = new String[input.readInt()];
+        for (int i = 0; i < fieldNames.length; i++)
+            fieldNames[i] = input.readUTF();
+        values = new double[fieldNames.length];
+    }
+
+    /** @return The name of each field in the log */
+    public String[] getFieldNames() { return fieldNames; }
+    /** @return The index of a field, or -1 if it is not in the log */
+    public int indexOf(String fieldName) {
+        for (int i = 0; i < fieldNames.length; i++)
+            if (fieldNames[i].equals(fieldName))
+                return i;
+        return -1;
+    }
+    /** @return The timestamp of the current frame in seconds */
+    public double getTimestamp() { return timestamp; }
+    /** @return The value of a field in the current frame */
+    public double get(int fieldIndex) { return values[fieldIndex]; }
+    /** @return Every field of the current frame. The array is reused by each frame */
+    public double[] getValues() { return values; }
+
+    /** Moves to the next frame
+     *  @return False once there are no frames left */
+    public boolean next() throws IOException {
+        try {
+            timestamp = input.readDouble();
+            for (int i = 0; i < values.length; i++)
+                values[i] = hasFloatFields ? input.readFloat() : input.readDouble();
+            return true;
+        } catch (EOFException e) {
+            // A frame cut off by the robot losing power is ignored
+            return false;
+        }
+    }
+
+    @Override
+    public void close() throws IOException { input.close(); }
+
+    /** Converts a log file to CSV so it can be opened in a spreadsheet
+     *  @param args The log file, followed by the CSV file to write */
+    public static void main(String... args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: LogReader <log file> <csv file>");
+            System.exit(1);
+        }
+
+        try (LogReader reader = new LogReader(new File(args[0]));
+            PrintWriter writer = new PrintWriter(args[1])) {
+            writer.print("timestamp");
+            for (String field : reader.getFieldNames())
+                writer.print("," + field);
+            writer.println();
+
+            while (reader.next()) {
+                writer.print(reader.getTimestamp());
+                for (double value : reader.getValues())
+                    writer.print("," + value);
+                writer.println();
+            }
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package frc.robot.logging;
+
+// Imports
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+
+/** Reads a log written by {@link SignalLogger} back into the {@link LoggableInputs} that recorded it,
+ *  one frame per loop, so the robot code can be rerun against exactly what the robot saw */
+public class LogReplay implements Closeable {
+    private final LogReader reader;
+    private final ArrayList<LoggableInputs> targets = new ArrayList<>();
+    /** For each target, the index in the log of each of its fields, -1 if the log does not have it */
+    private final ArrayList<int[]> fieldIndices = new ArrayList<>();
+    /** For each target, a frame holding only its fields */
+    private final ArrayList<double[]> scratch = new ArrayList<>();
+
+    /** Opens a log to replay
+     *  @param file The log file */
+    public LogReplay(File file) throws IOException {
+        reader = new LogReader(file);
+    }
+
+    /**
+     * Adds inputs to be filled from the log. Must use the same name they were logged under
+     *
+     * @param name The name put in front of each of the inputs' fields
+     * @param inputs The inputs to fill
+     */
+    public void add(String name, LoggableInputs inputs) {
+        String[] fields = inputs.getLogFields();
+        int[] indices = new int[fields.length];
+        for (int i = 0; i < fields.length; i++) {
+            indices[i] = reader.indexOf(name + "/" + fields[i]);
+            if (indices[i] < 0)
+                System.err.println("Replay: " + name + "/" + fields[i] + " is not in the log, using 0");
+        }
+
+        targets.add(inputs);
+        fieldIndices.add(indices);
+        scratch.add(new double[fields.length]);
+    }
+
+    /** @return The timestamp in seconds of the frame last read */
+    public double getTimestamp() { return reader.getTimestamp(); }
+
+    /** Reads the next frame into every input
+     *  @return False once there are no frames left */
+    public boolean next() throws IOException {
+        if (!reader.next())
+            return false;
+
+        double[] values = reader.getValues();
+        for (int i = 0; i < targets.size(); i++) {
+            int[] indices = fieldIndices.get(i);
+            double[] frame = scratch.get(i);
+            for (int field = 0; field < indices.length; field++)
+                frame[field] = indices[field] < 0 ? 0 : values[indices[field]];
+            targets.get(i).fromLog(frame, 0);
+        }
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException { reader.close(); }
+}
@@ -0,0 +1,15 @@
+package frc.robot.logging;
+
+/** Something whose values are written to the {@link SignalLogger} every loop */
+public interface Loggable {
+    /** @return The name of each value this object logs, in the order they are written */
+    String[] getLogFields();
+
+    /**
+     * Writes the current value of each field into a frame. Called every loop, so it should not allocate
+     *
+     * @param frame The frame being written
+     * @param offset The index in the frame of this object's first field
+     */
+    void toLog(double[] frame, int offset);
+}
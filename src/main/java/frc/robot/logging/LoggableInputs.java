@@ -0,0 +1,12 @@
+package frc.robot.logging;
+
+/** Sensor values that are logged every loop and can be read back from a log to replay a match */
+public interface LoggableInputs extends Loggable {
+    /**
+     * Sets each field from a frame read out of a log
+     *
+     * @param frame The frame being read
+     * @param offset The index in the frame of this object's first field
+     */
+    void fromLog(double[] frame, int offset);
+}
@@ -0,0 +1,274 @@
+package frc.robot.logging;
+
+// Imports
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.RobotBase;
+import edu.wpi.first.wpilibj.Timer;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Records the values of every {@link Loggable} once per loop into a binary log file.
+ *
+ * <p>Frames are copied into a preallocated ring buffer on the main thread, and a background
+ * thread drains the buffer to disk. If the disk falls behind and the buffer fills up, new frames
+ * are dropped and counted instead of making the main loop wait. When replaying a log, nothing is
+ * running in real time, so the logger can be told to wait instead so the output is complete.
+ *
+ * <p>Once a file reaches {@link #MAX_FILE_BYTES} the logger carries on in a new one. The oldest logs in the
+ * folder are deleted to keep it under its size cap and to leave {@link #MIN_FREE_BYTES} free on the disk,
+ * and logging stops if even that is not enough.
+ *
+ * <p>File format (big endian): the int {@link #MAGIC}, the int {@link #VERSION}, the number of
+ * fields as an int, each field name as UTF, then one frame after another. A frame is the FPGA
+ * timestamp in seconds followed by each field, all as doubles. Fields are kept at full precision so a
+ * replay feeds the code exactly the values the robot read.
+ */
+public class SignalLogger {
+    /** The first 4 bytes of every log file, "PRLG" */
+    public static final int MAGIC = 0x50524C47;
+    /** Changes whenever the file format does */
+    public static final int VERSION = 2;
+
+    /** The number of frames the ring buffer can hold before frames are dropped */
+    private static final int CAPACITY = 1024;
+    /** How long the writer thread sleeps when there is nothing to write */
+    private static final long IDLE_NANOS = 5_000_000;
+    /** A log file is closed and a new one started once it is this many bytes */
+    private static final long MAX_FILE_BYTES = 50L << 20;
+    /** The oldest logs are deleted to keep a folder under this many bytes */
+    private static final long MAX_DIRECTORY_BYTES = 2L << 30;
+    /** The roboRIO's own storage is small and shared with the code, so it keeps far fewer logs */
+    private static final long MAX_ROBORIO_DIRECTORY_BYTES = 100L << 20;
+    /** The oldest logs are deleted, and logging stops if that is not enough, to leave this much space free */
+    private static final long MIN_FREE_BYTES = 50L << 20;
+    /** How many frames are written between checks of the free space, about 10 seconds */
+    private static final int SPACE_CHECK_FRAMES = 500;
+    /** Where logs go when no USB stick is plugged into the roboRIO */
+    private static final File ROBORIO_DIRECTORY = new File("/home/lvuser/logs");
+
+    private final ArrayList<String> fieldNames = new ArrayList<>();
+    private final ArrayList<Loggable> sources = new ArrayList<>();
+    private final ArrayList<Integer> offsets = new ArrayList<>();
+    /** The first value of each frame is the timestamp */
+    private int frameWidth = 1;
+
+    private double[][] ring;
+    /** The number of frames written into the ring. Only changed by the main thread */
+    private volatile long writeCount = 0;
+    /** The number of frames saved to disk. Only changed by the writer thread */
+    private volatile long readCount = 0;
+    private long droppedFrames = 0;
+    /** Whether the main thread waits for space in the ring instead of dropping frames */
+    private boolean waitWhenFull = false;
+    /** Set once the writer thread should save what is left and close the file */
+    private volatile boolean stopping = false;
+
+    private DataOutputStream output;
+    private Thread writerThread;
+    /** Where log files are made, and the start of their names */
+    private File directory;
+    private String prefix;
+    /** The file being written */
+    private File file;
+    /** The most bytes of logs kept in the directory */
+    private long maxDirectoryBytes;
+    /** Frames written since the free space was last checked */
+    private int framesSinceSpaceCheck = 0;
+
+    /** Constructs a SignalLogger */
+    public SignalLogger() {}
+
+    /** @return The number of frames dropped because the disk could not keep up */
+    public long getDroppedFrames() { return droppedFrames; }
+    /** @return Whether the logger has been started */
+    public boolean isRunning() { return writerThread != null; }
+    /** @param waitWhenFull True to wait for the disk instead of dropping frames.
+     *                      Only for running faster than real time, never on the robot */
+    public void setWaitWhenFull(boolean waitWhenFull) { this.waitWhenFull = waitWhenFull; }
+
+    /**
+     * Adds something to be logged every loop. Must be called before {@link #start(File)}
+     *
+     * @param name A name to put in front of each of the source's fields
+     * @param source The object to log
+     */
+    public void add(String name, Loggable source) {
+        if (isRunning())
+            throw new IllegalStateException("Sources must be added before the logger is started");
+
+        sources.add(source);
+        offsets.add(frameWidth);
+        for (String field : source.getLogFields())
+            fieldNames.add(name + "/" + field);
+        frameWidth += source.getLogFields().length;
+    }
+
+    /** @return A USB stick plugged into the roboRIO if there is one. Only without one are logs written to the
+     *          roboRIO's own storage, where the folder is kept much smaller */
+    public static File defaultDirectory() {
+        if (RobotBase.isSimulation())
+            return new File("logs");
+
+        File usb = new File("/U");
+        return usb.isDirectory() && usb.canWrite() ? new File(usb, "logs") : ROBORIO_DIRECTORY;
+    }
+
+    /** Opens a new log file and starts the writer thread
+     *  @param directory The folder the log file is made in */
+    public void start(File directory) { start(directory, "robot"); }
+
+    /** Opens a new log file and starts the writer thread
+     *  @param directory The folder the log file is made in
+     *  @param prefix The start of the log file's name, followed by the time it was made */
+    public void start(File directory, String prefix) {
+        ring = new double[CAPACITY][frameWidth];
+        this.directory = directory;
+        this.prefix = prefix;
+        maxDirectoryBytes = directory.equals(ROBORIO_DIRECTORY) ? MAX_ROBORIO_DIRECTORY_BYTES : MAX_DIRECTORY_BYTES;
+
+        try {
+            directory.mkdirs();
+            openFile();
+        } catch (IOException e) {
+            DriverStation.reportError("Could not open log file: " + e.getMessage(), false);
+            return;
+        }
+
+        writerThread = new Thread(this::drain, "SignalLogger");
+        writerThread.setDaemon(true);
+        writerThread.setPriority(Thread.MIN_PRIORITY);
+        writerThread.start();
+    }
+
+    /** Copies the current value of every source into the ring buffer. Should be called once every loop */
+    public void log() {
+        if (!isRunning())
+            return;
+
+        // Unless told to wait, never wait on the disk, drop the frame instead
+        long write = writeCount;
+        while (write - readCount >= CAPACITY) {
+            if (!waitWhenFull || !writerThread.isAlive()) {
+                droppedFrames++;
+                return;
+            }
+            LockSupport.parkNanos(IDLE_NANOS);
+        }
+
+        double[] frame = ring[(int) (write % CAPACITY)];
+        frame[0] = Timer.getFPGATimestamp();
+        for (int i = 0; i < sources.size(); i++)
+            sources.get(i).toLog(frame, offsets.get(i));
+
+        // Publishing the new count hands the frame over to the writer thread
+        writeCount = write + 1;
+    }
+
+    /** Saves every frame still in the ring and closes the log file. Nothing is logged afterwards */
+    public void stop() {
+        if (!isRunning())
+            return;
+
+        stopping = true;
+        try {
+            writerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        writerThread = null;
+    }
+
+    /** Makes a new log file and writes its header, deleting old logs first if there is not room for it */
+    private void openFile() throws IOException {
+        file = new File(directory, prefix + "_" + System.currentTimeMillis() + ".rlog");
+        if (!makeRoom(MAX_FILE_BYTES))
+            throw new IOException("Less than " + (MIN_FREE_BYTES >> 20) + "MB free in " + directory);
+
+        output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), 1 << 16));
+        output.writeInt(MAGIC);
+        output.writeInt(VERSION);
+        output.writeInt(fieldNames.size());
+        for (String field : fieldNames)
+            output.writeUTF(field);
+    }
+
+    /**
+     * Deletes the oldest logs in the directory, never the one being written, until the directory is under
+     * its cap and the disk has its free space, both with room left over
+     *
+     * @param bytesNeeded How much room to leave for the file being written
+     * @return Whether there is room
+     */
+    private boolean makeRoom(long bytesNeeded) {
+        File[] logs = directory.listFiles((folder, name) -> name.endsWith(".rlog"));
+        if (logs == null)
+            return false;
+        Arrays.sort(logs, Comparator.comparingLong(File::lastModified));
+
+        long totalBytes = 0;
+        for (File log : logs)
+            totalBytes += log.length();
+
+        for (File log : logs) {
+            if (totalBytes + bytesNeeded <= maxDirectoryBytes
+                && directory.getUsableSpace() - bytesNeeded >= MIN_FREE_BYTES)
+                break;
+            if (log.equals(file))
+                continue;
+
+            long length = log.length();
+            if (log.delete())
+                totalBytes -= length;
+        }
+        return totalBytes + bytesNeeded <= maxDirectoryBytes
+            && directory.getUsableSpace() - bytesNeeded >= MIN_FREE_BYTES;
+    }
+
+    /** Runs on the writer thread, saving frames to disk as they come in */
+    private void drain() {
+        try {
+            while (true) {
+                long read = readCount;
+                if (read == writeCount) {
+                    if (stopping) {
+                        output.close();
+                        return;
+                    }
+                    output.flush();
+                    LockSupport.parkNanos(IDLE_NANOS);
+                    continue;
+                }
+
+                double[] frame = ring[(int) (read % CAPACITY)];
+                for (int i = 0; i < frameWidth; i++)
+                    output.writeDouble(frame[i]);
+
+                // Publishing the new count gives the slot back to the main thread
+                readCount = read + 1;
+
+                // Carry on in a new file once this one is full, and keep checking the disk has room
+                if (output.size() >= MAX_FILE_BYTES) {
+                    output.close();
+                    openFile();
+                } else if (++framesSinceSpaceCheck >= SPACE_CHECK_FRAMES) {
+                    framesSinceSpaceCheck = 0;
+                    if (!makeRoom(MAX_FILE_BYTES - output.size()))
+                        throw new IOException("Less than " + (MIN_FREE_BYTES >> 20) + "MB free in " + directory);
+                }
+            }
+        } catch (IOException e) {
+            DriverStation.reportError("Stopped logging: " + e.getMessage(), false);
+            try {
+                output.close();
+            } catch (IOException closeError) {}
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package frc.robot.misc_subclasses;
+
+// Imports
+import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
+import java.lang.management.ManagementFactory;
+import java.util.function.Supplier;
+
+import static frc.robot.Constants.BootConstants.*;
+
+/** Records how long each step of starting the robot takes, and runs steps that are not needed
+ *  before the first loop on a background thread so the robot is ready sooner.
+ *  Each step is printed to the console and put on the dashboard under "Boot/" */
+public class BootTimeline {
+    /** When the timeline started, which is when robotInit started */
+    private final long startNanos = System.nanoTime();
+    /** How long the JVM was running before the timeline started */
+    private final long jvmStartMillis = ManagementFactory.getRuntimeMXBean().getUptime();
+    private final StringBuilder report = new StringBuilder();
+    private int backgroundSteps = 0;
+
+    /** Constructs a BootTimeline. Should be the first thing made in robotInit */
+    public BootTimeline() {
+        record("JVM Start To Robot Init", jvmStartMillis, false);
+    }
+
+    /** @return Milliseconds since the timeline started */
+    private double sinceStartMillis() { return (System.nanoTime() - startNanos) / 1e6; }
+
+    /**
+     * Runs a step and records how long it took
+     *
+     * @param step The name of the step
+     * @param work The step
+     * @return What the step made
+     */
+    public <T> T time(String step, Supplier<T> work) {
+        long start = System.nanoTime();
+        T result = work.get();
+        record(step, (System.nanoTime() - start) / 1e6, false);
+        return result;
+    }
+
+    /**
+     * Runs a step and records how long it took
+     *
+     * @param step The name of the step
+     * @param work The step
+     */
+    public void time(String step, Runnable work) {
+        time(step, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /**
+     * Runs a step on its own thread so the robot does not wait for it, unless background
+     * initialization is turned off. The work must be safe to run alongside the main loop
+     *
+     * @param step The name of the step
+     * @param work The step
+     */
+    public void runInBackground(String step, Runnable work) {
+        if (!BACKGROUND_INIT) {
+            time(step, work);
+            return;
+        }
+
+        backgroundSteps++;
+        Thread thread = new Thread(() -> {
+            long start = System.nanoTime();
+            work.run();
+            record(step, (System.nanoTime() - start) / 1e6, true);
+        }, "Boot " + step);
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        thread.start();
+    }
+
+    /** Records the total time robotInit took and prints every step so far.
+     *  Background steps print themselves when they finish */
+    public void finish() {
+        record("Robot Init Total", sinceStartMillis(), false);
+        synchronized (this) {
+            System.out.print(report);
+            report.setLength(0);
+            System.out.println("Boot: " + backgroundSteps + " steps still running in the background");
+        }
+    }
+
+    /** Records how long after the JVM started the first loop ran, which is what a reboot costs,
+     *  and whether classes came from the class data sharing archive. Should be called at the start of the first loop */
+    public void firstLoop() {
+        record("JVM Start To First Loop", ManagementFactory.getRuntimeMXBean().getUptime(), false);
+        synchronized (this) {
+            System.out.print(report);
+            report.setLength(0);
+        }
+        // The JVM adds "sharing" to its info when classes were loaded from an archive
+        boolean sharing = System.getProperty("java.vm.info", "").contains("sharing");
+        System.out.println("Boot: class data sharing " + (sharing ? "on" : "off"));
+        SmartDashboard.putBoolean("Boot/Class Data Sharing", sharing);
+    }
+
+    /** Adds a step to the report and the dashboard */
+    private synchronized void record(String step, double millis, boolean background) {
+        String line = String.format("Boot: %-24s %8.1f ms%s%n", step, millis,
+            background ? String.format(" (background, done %.1f ms into robotInit)", sinceStartMillis()) : "");
+        if (background)
+            System.out.print(line);
+        else
+            report.append(line);
+        SmartDashboard.putNumber("Boot/" + step, millis);
+    }
+}
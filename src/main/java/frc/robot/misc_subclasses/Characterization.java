@@ -0,0 +1,133 @@
+package frc.robot.misc_subclasses;
+
+// Imports
+import edu.wpi.first.wpilibj2.command.Subsystem;
+import frc.robot.logging.Loggable;
+import frc.robot.logging.SignalLogger;
+import java.util.function.DoubleConsumer;
+import java.util.function.DoubleSupplier;
+
+/** Records a mechanism's voltage, position and velocity while it is characterized, faster than the main loop,
+ *  into its own log file. Each log is fit offline by {@link frc.robot.logging.FeedforwardFit} */
+public class Characterization implements Loggable {
+    /** The value of the test field while the mechanism rests between tests */
+    public static final int RESTING = -1;
+
+    private static final String[] LOG_FIELDS = { "Test", "Volts", "Position", "Velocity", "Gravity" };
+
+    /** A mechanism that can be characterized, and how to run it */
+    public static final class Mechanism {
+        public final String name;
+        public final Subsystem requirement;
+        /** Sends a voltage straight to the mechanism's motors, with no feedback */
+        public final DoubleConsumer setVolts;
+        public final DoubleSupplier position;
+        /** Supplies NaN if the mechanism does not measure its velocity, so it is found from position instead */
+        public final DoubleSupplier velocity;
+        /** Supplies how much gravity pulls against the mechanism, from -1 to 1, or 0 if it does not */
+        public final DoubleSupplier gravity;
+        /** A test stops once the position leaves these, so the mechanism never hits its hard stops */
+        public final double minPosition, maxPosition;
+        /** How fast the voltage rises in the quasistatic tests in volts/sec */
+        public final double rampVoltsPerSecond;
+        /** The voltage used by the dynamic tests */
+        public final double stepVolts;
+        /** The longest each test may run in seconds */
+        public final double testSeconds;
+
+        /**
+         * Constructs a Mechanism
+         *
+         * @param name The name used in the log file's name
+         * @param requirement The subsystem the mechanism belongs to
+         * @param setVolts Sends a voltage straight to the mechanism's motors
+         * @param position Supplies the mechanism's position
+         * @param velocity Supplies the mechanism's velocity, or NaN if it does not measure it
+         * @param gravity Supplies how much gravity pulls against the mechanism, from -1 to 1
+         * @param minPosition The lowest position a test may reach
+         * @param maxPosition The highest position a test may reach
+         * @param rampVoltsPerSecond How fast the voltage rises in the quasistatic tests
+         * @param stepVolts The voltage used by the dynamic tests
+         * @param testSeconds The longest each test may run
+         */
+        public Mechanism(String name, Subsystem requirement, DoubleConsumer setVolts,
+            DoubleSupplier position, DoubleSupplier velocity, DoubleSupplier gravity,
+            double minPosition, double maxPosition, double rampVoltsPerSecond, double stepVolts, double testSeconds) {
+            this.name = name;
+            this.requirement = requirement;
+            this.setVolts = setVolts;
+            this.position = position;
+            this.velocity = velocity;
+            this.gravity = gravity;
+            this.minPosition = minPosition;
+            this.maxPosition = maxPosition;
+            this.rampVoltsPerSecond = rampVoltsPerSecond;
+            this.stepVolts = stepVolts;
+            this.testSeconds = testSeconds;
+        }
+    }
+
+    /** The mechanism being characterized, null when nothing is */
+    private Mechanism mechanism;
+    private SignalLogger logger;
+    private int test = RESTING;
+    private double volts = 0;
+
+    /** Constructs a Characterization */
+    public Characterization() {}
+
+    /** Opens a new log file for a mechanism and starts recording it
+     *  @param mechanism The mechanism about to be characterized */
+    public void begin(Mechanism mechanism) {
+        end();
+        this.mechanism = mechanism;
+        test = RESTING;
+        volts = 0;
+
+        logger = new SignalLogger();
+        logger.add("Characterization", this);
+        logger.start(SignalLogger.defaultDirectory(), "characterize_" + mechanism.name.replace(' ', '_'));
+    }
+
+    /**
+     * Sends a voltage to the mechanism being characterized, and records which test it is for
+     *
+     * @param test The number of the test being run, or {@link #RESTING}
+     * @param volts The voltage to send
+     */
+    public void setVolts(int test, double volts) {
+        if (mechanism == null)
+            return;
+        this.test = test;
+        this.volts = volts;
+        mechanism.setVolts.accept(volts);
+    }
+
+    /** Stops the mechanism and saves its log file */
+    public void end() {
+        if (mechanism == null)
+            return;
+        mechanism.setVolts.accept(0);
+        logger.stop();
+        logger = null;
+        mechanism = null;
+    }
+
+    /** Records one sample if a mechanism is being characterized. Runs faster than the main loop */
+    public void log() {
+        if (logger != null)
+            logger.log();
+    }
+
+    @Override
+    public String[] getLogFields() { return LOG_FIELDS; }
+
+    @Override
+    public void toLog(double[] frame, int offset) {
+        frame[offset] = test;
+        frame[offset + 1] = volts;
+        frame[offset + 2] = mechanism.position.getAsDouble();
+        frame[offset + 3] = mechanism.velocity.getAsDouble();
+        frame[offset + 4] = mechanism.gravity.getAsDouble();
+    }
+}
@@ -1,73 +1,154 @@
 package frc.robot.misc_subclasses;
 
 // Imports
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.networktables.DoubleEntry;
+import edu.wpi.first.networktables.DoublePublisher;
+import edu.wpi.first.networktables.NetworkTable;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.networktables.StringPublisher;
 import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
+import frc.robot.misc_subclasses.TelemetryScheduler.Rate;
 import frc.robot.subsystems.Arm;
 import frc.robot.subsystems.Drivetrain;
 import frc.robot.subsystems.PlayerIndicator;
+import frc.robot.subsystems.SwerveModule;
 import frc.robot.wrappers.GenericPID;
+import java.util.HashMap;
 
 /** This class is used to handle {@link SmartDashboard} outputs.
- *  The purpose of this class is to centralize code related to the dashboard. */
+ *  The purpose of this class is to centralize code related to the dashboard.
+ *  Values are added once and then published by a {@link TelemetryScheduler} at their own rate,
+ *  through typed publishers so updating the dashboard each loop does not allocate or format strings. */
 public class Dashboard {
+    /** The table used by {@link SmartDashboard}, so existing layouts keep working */
+    private final NetworkTable table = NetworkTableInstance.getDefault().getTable("SmartDashboard");
+
+    /** Publishes each value at its own rate, only when it changes */
+    private final TelemetryScheduler telemetry = new TelemetryScheduler(table);
+
+    /** The publishers used by a single {@link GenericPID} */
+    private final class PIDEntries {
+        final DoubleEntry setpoint;
+        final DoublePublisher rpm;
+        final DoublePublisher position;
+        final StringPublisher domain;
+        double lastSetpoint = Double.NaN;
+        double lastMin = Double.NaN;
+        double lastMax = Double.NaN;
+
+        PIDEntries(String name) {
+            setpoint = table.getDoubleTopic(name + " Setpoint").getEntry(0);
+            rpm = table.getDoubleTopic(name + " RPM").publish();
+            position = table.getDoubleTopic(name + " Position").publish();
+            domain = table.getStringTopic(name + " Domain").publish();
+        }
+    }
+    /** The publishers for each PID, created the first time the PID is printed */
+    private final HashMap<String, PIDEntries> pidEntries = new HashMap<>();
+
     /** Constructs a Dashboard object */
     public Dashboard() {}
 
-    /** Prints the current position of a target relative to limelight 
+    /** @return The scheduler used to publish values, so other classes can add their own */
+    public TelemetryScheduler getTelemetry() { return telemetry; }
+
+    /** Publishes every value that is due. Should be called 50 times a second */
+    public void update() { telemetry.run(); }
+
+    /** Adds the current position of a target relative to limelight
      *  @param limelight The limelight object to get data from */
-    public void printLimelightData(Limelight limelight) {
-        SmartDashboard.putNumber("Distance from Target", limelight.getDistance());
-        SmartDashboard.putNumber("Rotational Angle to Target", limelight.getRotationAngle());
+    public void addLimelightData(Limelight limelight) {
+        // Distance is rounded to the inch, so any change is a real change
+        telemetry.addDouble("Distance from Target", limelight::getDistance, Rate.HZ_10, 0);
+        telemetry.addDouble("Rotational Angle to Target", limelight::getRotationAngle, Rate.HZ_10, .1);
     }
 
-    /** Prints the state of the arm
+    /** Adds the state of the arm
      *  @param arm The robot's arm */
-    public void printArmData(Arm arm) {
-        SmartDashboard.putNumber("Rotation Position", arm.getRotationPos());
-        SmartDashboard.putNumber("Telescope Position", arm.getTelescopePos());
-        SmartDashboard.putNumber("Slider Position", arm.getSliderPos());
+    public void addArmData(Arm arm) {
+        telemetry.addDouble("Rotation Position", arm::getRotationPos, Rate.HZ_10, .1);
+        telemetry.addDouble("Telescope Position", arm::getTelescopePos, Rate.HZ_10, .05);
+        telemetry.addDouble("Slider Position", arm::getSliderPos, Rate.HZ_10, .05);
 
-        SmartDashboard.putBoolean("Rotation at Setpoint", arm.rotationAtTarget());
+        telemetry.addBoolean("Rotation at Setpoint", arm::rotationAtTarget, Rate.HZ_10);
 
-        SmartDashboard.putString("Arm State", arm.getCurrentState().toString());
+        telemetry.addString("Arm State", () -> arm.getCurrentState().name(), Rate.HZ_10);
     }
 
-    /** Prints the state of the indicator
+    /** Adds how much the robot allocates and how often the garbage collector runs
+     *  @param gcMonitor The monitor measuring them */
+    public void addGCData(GCMonitor gcMonitor) {
+        telemetry.addDouble("GC/Allocated Bytes Per Loop", gcMonitor::getAllocatedBytes, Rate.HZ_10, 256);
+        telemetry.addDouble("GC/Count", gcMonitor::getGCCount, Rate.HZ_1, 0);
+        telemetry.addDouble("GC/Pause Total ms", gcMonitor::getGCMillis, Rate.HZ_1, 0);
+        telemetry.addDouble("GC/Loop Overruns", gcMonitor::getOverruns, Rate.HZ_1, 0);
+        telemetry.addDouble("GC/Loop Overruns With GC", gcMonitor::getGCOverruns, Rate.HZ_1, 0);
+    }
+
+    /** Adds the state of the indicator
      *  @param playerIndicator The robot's player indicator */
-    public void printIndicatorState(PlayerIndicator playerIndicator) { 
-        SmartDashboard.putBoolean("Displaying Cube", playerIndicator.isCube());
-        
-        SmartDashboard.putString("Indicator Currently Displaying", playerIndicator.getStateAsString());
+    public void addIndicatorState(PlayerIndicator playerIndicator) {
+        telemetry.addBoolean("Displaying Cube", playerIndicator::isCube, Rate.HZ_10);
+
+        telemetry.addString("Indicator Currently Displaying", playerIndicator::getStateAsString, Rate.HZ_1);
     }
 
-    /** Prints the heading of the robot and whether it is in field centric mode or not 
+    /** Adds the heading and pose of the robot, and whether it is in field centric mode or not
      *  @param drivetrain The robot's drivetrain */
-    public void printBasicDrivetrainData(Drivetrain drivetrain) {
-        SmartDashboard.putBoolean("Field Centric", drivetrain.isFieldCentric());
-        SmartDashboard.putNumber("Robot Heading", drivetrain.getHeadingDegrees());
-        SmartDashboard.putString("Robot Pose", drivetrain.getPoseMeters().toString());
+    public void addBasicDrivetrainData(Drivetrain drivetrain) {
+        telemetry.addBoolean("Field Centric", drivetrain::isFieldCentric, Rate.HZ_10);
+        telemetry.addDouble("Robot Heading", drivetrain::getHeadingDegrees, Rate.HZ_50, .1);
+
+        // The robot's pose as {x meters, y meters, heading degrees}
+        telemetry.addDoubleArray("Robot Pose", 3, poseArray -> {
+            Pose2d pose = drivetrain.getPoseMeters();
+            poseArray[0] = pose.getX();
+            poseArray[1] = pose.getY();
+            poseArray[2] = pose.getRotation().getDegrees();
+        }, Rate.HZ_50, .01);
+
+        // Each module's state as {angle degrees, speed m/sec} in module number order
+        telemetry.addDoubleArray("Module States", 8, statesArray -> {
+            for (int i = 0; i < 4; i++) {
+                SwerveModule module = drivetrain.getSwerveModule(i);
+                statesArray[i * 2] = module.getHeadingDegrees();
+                statesArray[i * 2 + 1] = module.getDriveMetersPerSecond();
+            }
+        }, Rate.HZ_10, .05);
     }
 
     /**
-    * Prints relevant data from a PID controller. If a value is manually 
+    * Prints relevant data from a PID controller. If a value is manually
     * input into the dashboard, the pid setpoint will update accordingly
     *
     * @param pid The {@link GenericPID} to get data from
     * @param name A name for the GenericPID on the dashboard
     */
     public void PIDtoDashboard(GenericPID pid, String name) {
-        // Get the setpoint from the dashboard 
-        double setpointD = SmartDashboard.getNumber(name + " Setpoint", pid.getSetpoint());
+        PIDEntries entries = pidEntries.get(name);
+        if (entries == null) {
+            entries = new PIDEntries(name);
+            pidEntries.put(name, entries);
+        }
 
-        // If the setpoint on the dashboard does not match the pid 
-        // setpoint, then the setpoint on the dashboard is used
-        if( setpointD != pid.getSetpoint() )
+        // If the setpoint on the dashboard is not the one we last sent,
+        // then it was typed in, so the pid uses it
+        double setpointD = entries.setpoint.get(pid.getSetpoint());
+        if (setpointD != entries.lastSetpoint && !Double.isNaN(entries.lastSetpoint))
             pid.setSetpoint(setpointD);
-            
+
         // Print useful info to the dashboard
-        SmartDashboard.putNumber(name + " Setpoint", pid.getSetpoint());
-        SmartDashboard.putNumber(name + " RPM", pid.getRPM());
-        SmartDashboard.putNumber(name + " Position", pid.getPosition());
-        SmartDashboard.putString(name + " Domain", "[" + pid.getMin() + ", " + pid.getMax() + "]");
+        entries.lastSetpoint = pid.getSetpoint();
+        entries.setpoint.set(entries.lastSetpoint);
+        entries.rpm.set(pid.getRPM());
+        entries.position.set(pid.getPosition());
+
+        // The domain rarely changes, so only format it when it does
+        if (pid.getMin() != entries.lastMin || pid.getMax() != entries.lastMax) {
+            entries.lastMin = pid.getMin();
+            entries.lastMax = pid.getMax();
+            entries.domain.set("[" + entries.lastMin + ", " + entries.lastMax + "]");
+        }
     }
 }
@@ -0,0 +1,86 @@
+package frc.robot.misc_subclasses;
+
+// Imports
+import edu.wpi.first.hal.DriverStationJNI;
+import edu.wpi.first.networktables.DoublePublisher;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.util.WPIUtilJNI;
+import edu.wpi.first.wpilibj.Timer;
+import frc.robot.logging.Loggable;
+import frc.robot.wrappers.ControllerSnapshot;
+
+import static frc.robot.Constants.ControllerPorts.*;
+
+/** Both controllers, read once at the start of every loop so every binding shares the same values.
+ *  Also measures how long it takes from a driver station packet arriving to the motors being told what to do */
+public class DriverInputs implements Loggable {
+    private final ControllerSnapshot driver = new ControllerSnapshot(DRIVER_PORT);
+    private final ControllerSnapshot operator = new ControllerSnapshot(OPERATOR_PORT);
+
+    /** When the newest driver station packet arrived, NaN until the first one */
+    private volatile double lastPacketTimestamp = Double.NaN;
+    /** When the packet used this loop arrived */
+    private double packetTimestamp = Double.NaN;
+    /** When the controllers were read this loop */
+    private double timestamp;
+
+    // Milliseconds from the packet arriving to being read, and to the motors being sent what it asked for
+    private double packetAgeMs = Double.NaN;
+    private double latencyMs = Double.NaN;
+    private final DoublePublisher latencyPublisher =
+        NetworkTableInstance.getDefault().getTable("SmartDashboard").getDoubleTopic("Input Latency ms").publish();
+
+    private static final String[] LOG_FIELDS = { "Packet Age ms", "Input Latency ms" };
+
+    /** Constructs a DriverInputs object and starts watching for driver station packets */
+    public DriverInputs() {
+        // The HAL sets the event each time a packet arrives, so a thread waiting on it can timestamp the arrival
+        int event = WPIUtilJNI.createEvent(false, false);
+        DriverStationJNI.provideNewDataEventHandle(event);
+        Thread thread = new Thread(() -> {
+            while (true) {
+                try {
+                    WPIUtilJNI.waitForObject(event);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                lastPacketTimestamp = Timer.getFPGATimestamp();
+            }
+        }, "Driver Station Packets");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /** @return The driver's controller as it was at the start of this loop */
+    public ControllerSnapshot getDriver() { return driver; }
+    /** @return The operator's controller as it was at the start of this loop */
+    public ControllerSnapshot getOperator() { return operator; }
+    /** @return When the controllers were read this loop */
+    public double getTimestamp() { return timestamp; }
+    /** @return Milliseconds from the packet used this loop arriving to the motors being sent what it asked for */
+    public double getLatencyMs() { return latencyMs; }
+
+    /** Reads both controllers. Should be called once every loop, after the driver station data is refreshed */
+    public void update() {
+        driver.update();
+        operator.update();
+        timestamp = Timer.getFPGATimestamp();
+        packetTimestamp = lastPacketTimestamp;
+        packetAgeMs = Math.max(0, timestamp - packetTimestamp) * 1000;
+    }
+
+    /** Records the latency of this loop's inputs and publishes it. Should be called right after outputs are sent */
+    public void recordOutput() {
+        latencyMs = Math.max(0, Timer.getFPGATimestamp() - packetTimestamp) * 1000;
+        latencyPublisher.set(latencyMs);
+    }
+
+    @Override
+    public String[] getLogFields() { return LOG_FIELDS; }
+
+    @Override
+    public void toLog(double[] frame, int offset) {
+        frame[offset] = packetAgeMs;
+        frame[offset + 1] = latencyMs;
+    }
+}
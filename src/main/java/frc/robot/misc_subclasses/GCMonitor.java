@@ -0,0 +1,125 @@
+package frc.robot.misc_subclasses;
+
+// Imports
+import frc.robot.logging.Loggable;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+
+/** Measures how much the robot thread allocates each loop and whether the garbage collector paused
+ *  during it, so a slow loop can be blamed on either the robot code or the collector.
+ *  The log is written before the loop ends, so each logged frame holds the previous loop's values */
+public class GCMonitor implements Loggable {
+    private final GarbageCollectorMXBean[] collectors =
+        ManagementFactory.getGarbageCollectorMXBeans().toArray(new GarbageCollectorMXBean[0]);
+    private final com.sun.management.ThreadMXBean threads =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private final boolean allocationSupported = threads.isThreadAllocatedMemorySupported();
+    private long threadId;
+
+    // Values read at the start of the loop
+    private long startNanos;
+    private long startBytes;
+    private long startCount;
+    private long startMillis;
+
+    // Results of the last loop
+    private double loopMs;
+    private long allocatedBytes;
+    private long gcCount;
+    private long gcMillis;
+    private long loopGCCount;
+    private long loopGCMillis;
+    /** The number of loops that took longer than their period */
+    private int overruns = 0;
+    /** The number of those that had a collection during them */
+    private int gcOverruns = 0;
+
+    private static final String[] LOG_FIELDS = {
+        "Loop ms", "Allocated Bytes", "GC Count", "GC Pause ms", "GC In Loop", "GC Pause In Loop ms"
+    };
+
+    /** Constructs a GCMonitor. Should be called from the thread running the robot loop */
+    public GCMonitor() {
+        threadId = Thread.currentThread().getId();
+        if (allocationSupported)
+            threads.setThreadAllocatedMemoryEnabled(true);
+        readCollectors();
+    }
+
+    /** Adds up the collection count and time of every collector */
+    private void readCollectors() {
+        long count = 0;
+        long millis = 0;
+        for (GarbageCollectorMXBean collector : collectors) {
+            count += Math.max(0, collector.getCollectionCount());
+            millis += Math.max(0, collector.getCollectionTime());
+        }
+        gcCount = count;
+        gcMillis = millis;
+    }
+
+    /** Should be called at the very start of every loop */
+    public void startLoop() {
+        threadId = Thread.currentThread().getId();
+        readCollectors();
+        startCount = gcCount;
+        startMillis = gcMillis;
+        startBytes = allocationSupported ? threads.getThreadAllocatedBytes(threadId) : 0;
+        startNanos = System.nanoTime();
+    }
+
+    /**
+     * Should be called at the very end of every loop. Prints whether a collection happened
+     * during the loop if it took longer than its period
+     *
+     * @param periodSeconds How long the loop is supposed to take
+     */
+    public void endLoop(double periodSeconds) {
+        loopMs = (System.nanoTime() - startNanos) / 1e6;
+        allocatedBytes = allocationSupported ? threads.getThreadAllocatedBytes(threadId) - startBytes : 0;
+        readCollectors();
+        loopGCCount = gcCount - startCount;
+        loopGCMillis = gcMillis - startMillis;
+
+        // Printed right after TimedRobot's own overrun warning
+        if (loopMs > periodSeconds * 1000) {
+            overruns++;
+            if (loopGCCount > 0) {
+                gcOverruns++;
+                System.out.printf("GCMonitor: loop took %.1fms, the garbage collector paused %dms of it%n",
+                    loopMs, loopGCMillis);
+            }
+            else
+                System.out.printf("GCMonitor: loop took %.1fms with no garbage collection, allocated %d bytes%n",
+                    loopMs, allocatedBytes);
+        }
+    }
+
+    /** @return How long the last loop took in milliseconds */
+    public double getLoopMs() { return loopMs; }
+    /** @return The bytes the robot thread allocated during the last loop */
+    public long getAllocatedBytes() { return allocatedBytes; }
+    /** @return The number of collections since the robot started */
+    public long getGCCount() { return gcCount; }
+    /** @return The total time spent collecting since the robot started in milliseconds */
+    public long getGCMillis() { return gcMillis; }
+    /** @return Whether a collection happened during the last loop */
+    public boolean wasGCInLoop() { return loopGCCount > 0; }
+    /** @return The number of loops that took longer than their period */
+    public int getOverruns() { return overruns; }
+    /** @return The number of loops that took longer than their period and had a collection during them */
+    public int getGCOverruns() { return gcOverruns; }
+
+    @Override
+    public String[] getLogFields() { return LOG_FIELDS; }
+
+    @Override
+    public void toLog(double[] frame, int offset) {
+        frame[offset] = loopMs;
+        frame[offset + 1] = allocatedBytes;
+        frame[offset + 2] = gcCount;
+        frame[offset + 3] = gcMillis;
+        frame[offset + 4] = loopGCCount > 0 ? 1 : 0;
+        frame[offset + 5] = loopGCMillis;
+    }
+}
@@ -1,10 +1,15 @@
 package frc.robot.misc_subclasses;
 
 // Imports
-import edu.wpi.first.networktables.NetworkTableInstance;
+import frc.robot.io.LimelightIO;
+import frc.robot.logging.Loggable;
+import frc.robot.subsystems.PhasedSubsystem;
 import static frc.robot.Constants.LimelightConstants.*;
 
-public class Limelight {
+public class Limelight implements PhasedSubsystem, Loggable {
+
+    private final LimelightIO io;
+    private final LimelightIO.Inputs inputs = new LimelightIO.Inputs();
 
     /** Tracks whether there is a valid target */
     private double tv;
@@ -20,8 +25,11 @@ public class Limelight {
     public double driveCommand;
     public double steerCommand;
 
-    /** Constructs a Limelight object */ 
-    public Limelight() {}
+    private static final String[] LOG_FIELDS = { "Distance", "Steer", "Drive" };
+
+    /** Constructs a Limelight object
+     *  @param io Where the limelight's values come from */ 
+    public Limelight(LimelightIO io) { this.io = io; }
 
     // Accessor methods
     public boolean hasTarget() { return this.hasValidTarget; }
@@ -29,15 +37,28 @@ public class Limelight {
     public double getSteer() { return this.steerCommand; }
     public double getDrive() { return this.driveCommand; }
     public double getRotationAngle() { return this.tx; }
+    /** @return The values read this loop, so they can be logged and replayed */
+    public LimelightIO.Inputs getInputs() { return inputs; }
 
-    /** Calculates each of limelight's values and updates their corresponding variables */
+    /** Reads the limelight's values for this loop */
+    @Override
+    public void readInputs() {
+        io.updateInputs(inputs);
+    }
+
+    @Override
+    public void updateEstimates() {
+        updateLimelightTracking();
+    }
+
+    /** Calculates each of limelight's values from this loop's readings and updates their corresponding variables */
     public void updateLimelightTracking()
     {
         // Update Limelight tracking values
-        tv = NetworkTableInstance.getDefault().getTable("limelight").getEntry("tv").getDouble(0);
-        tx = NetworkTableInstance.getDefault().getTable("limelight").getEntry("tx").getDouble(0);
-        ta = NetworkTableInstance.getDefault().getTable("limelight").getEntry("ta").getDouble(0);
-        a2 = Math.toRadians(NetworkTableInstance.getDefault().getTable("limelight").getEntry("ty").getDouble(0));
+        tv = inputs.tv;
+        tx = inputs.tx;
+        ta = inputs.ta;
+        a2 = Math.toRadians(inputs.ty);
 
         // Stops the function here if there is no valid target
         if ( tv < 1 ) {
@@ -61,4 +82,14 @@ public class Limelight {
             TARGET_HEIGHT - LIME_HEIGHT) / 
             Math.tan(LIME_ANGLE + a2));
     }
+
+    @Override
+    public String[] getLogFields() { return LOG_FIELDS; }
+
+    @Override
+    public void toLog(double[] frame, int offset) {
+        frame[offset] = distance;
+        frame[offset + 1] = steerCommand;
+        frame[offset + 2] = driveCommand;
+    }
 }
@@ -0,0 +1,183 @@
+package frc.robot.misc_subclasses;
+
+// Imports
+import edu.wpi.first.wpilibj.TimedRobot;
+import edu.wpi.first.wpilibj.simulation.SimHooks;
+import frc.robot.logging.Loggable;
+import java.util.ArrayList;
+
+/** Runs tasks at their own rates alongside the main loop. Tasks are run through {@link TimedRobot#addPeriodic},
+ *  on the same thread as the main loop, so they never run at the same time as each other or the main loop.
+ *  Each task is offset onto the least busy milliseconds of the schedule and timed against its own budget.
+ *  <p>
+ *  A task that reads sensors runs between the loops whose inputs are logged, so it records each value it reads
+ *  in a {@link frc.robot.logging.ControlSamples}, logged with the next loop. A replay hands the task the same
+ *  values in the same order, and the task uses the battery voltage of the loop before it like on the robot,
+ *  so it sends the same outputs. */
+public class LoopScheduler implements Loggable {
+    /** Offsets are picked on a grid of this many seconds */
+    private static final double SLOT_SECONDS = .001;
+    /** Every period divides evenly into this many slots, so the schedule repeats after it */
+    private static final int SCHEDULE_LENGTH = 200;
+    /** The same task prints a warning at most this often in nanoseconds */
+    private static final long WARNING_PERIOD_NANOS = 1_000_000_000L;
+
+    /** A single task run at its own rate */
+    private static final class Task {
+        final String name;
+        final Runnable work;
+        final double periodSeconds;
+        final double offsetSeconds;
+        final long budgetNanos;
+        final boolean skippable;
+
+        /** Whether the next run is skipped because the last one went over budget */
+        boolean skipNext = false;
+        /** The longest run since the task was last logged */
+        long maxNanos = 0;
+        int overruns = 0;
+        long lastWarningNanos = Long.MIN_VALUE;
+        /** When the task is next due while stepping through simulated time */
+        double nextRunSeconds;
+
+        Task(String name, Runnable work, double periodSeconds, double offsetSeconds, long budgetNanos, boolean skippable) {
+            this.name = name;
+            this.work = work;
+            this.periodSeconds = periodSeconds;
+            this.offsetSeconds = offsetSeconds;
+            this.budgetNanos = budgetNanos;
+            this.skippable = skippable;
+            nextRunSeconds = offsetSeconds;
+        }
+    }
+
+    private final TimedRobot robot;
+    private final ArrayList<Task> tasks = new ArrayList<>();
+    /** The number of tasks, including the main loop, that run on each slot of the schedule */
+    private final int[] slotLoad = new int[SCHEDULE_LENGTH];
+    /** How far {@link #step(double)} has moved simulated time */
+    private double simSeconds = 0;
+
+    /** Constructs a LoopScheduler
+     *  @param robot The robot whose loop the tasks run alongside */
+    public LoopScheduler(TimedRobot robot) {
+        this.robot = robot;
+        // The main loop always runs at the start of the schedule
+        claimSlots(toSlots(robot.getPeriod()), 0);
+    }
+
+    /**
+     * Adds a task. Every task should be added before the tasks are logged
+     *
+     * @param name The name used in warnings and the log
+     * @param work The task
+     * @param periodSeconds How often the task runs. Must divide evenly into {@link #SCHEDULE_LENGTH} milliseconds
+     * @param budgetSeconds How long one run of the task may take
+     * @param skippable True to skip the next run after a run goes over budget, so a slow task
+     *                  like telemetry gives its time back to the tasks that cannot wait
+     */
+    public void add(String name, Runnable work, double periodSeconds, double budgetSeconds, boolean skippable) {
+        int periodSlots = toSlots(periodSeconds);
+        if (periodSlots <= 0 || SCHEDULE_LENGTH % periodSlots != 0)
+            throw new IllegalArgumentException("The period of " + name + " must divide evenly into "
+                + SCHEDULE_LENGTH * SLOT_SECONDS + "s");
+
+        // Use the offset whose busiest slot is the least busy
+        int bestOffset = 0;
+        int bestLoad = Integer.MAX_VALUE;
+        for (int offset = 0; offset < periodSlots; offset++) {
+            int load = 0;
+            for (int slot = offset; slot < SCHEDULE_LENGTH; slot += periodSlots)
+                load = Math.max(load, slotLoad[slot]);
+            if (load < bestLoad) {
+                bestLoad = load;
+                bestOffset = offset;
+            }
+        }
+        claimSlots(periodSlots, bestOffset);
+
+        Task task = new Task(name, work, periodSeconds, bestOffset * SLOT_SECONDS, (long) (budgetSeconds * 1e9), skippable);
+        tasks.add(task);
+        robot.addPeriodic(() -> run(task), task.periodSeconds, task.offsetSeconds);
+    }
+
+    /** @return The number of whole slots in some seconds */
+    private static int toSlots(double seconds) { return (int) Math.round(seconds / SLOT_SECONDS); }
+
+    /** Marks every slot a task runs on as used by one more task */
+    private void claimSlots(int periodSlots, int offset) {
+        for (int slot = offset; slot < SCHEDULE_LENGTH; slot += periodSlots)
+            slotLoad[slot]++;
+    }
+
+    /** Runs a task once and checks it against its budget */
+    private void run(Task task) {
+        if (task.skipNext) {
+            task.skipNext = false;
+            return;
+        }
+
+        long start = System.nanoTime();
+        task.work.run();
+        long end = System.nanoTime();
+        long nanos = end - start;
+        task.maxNanos = Math.max(task.maxNanos, nanos);
+
+        if (nanos > task.budgetNanos) {
+            task.overruns++;
+            task.skipNext = task.skippable;
+            if (end - task.lastWarningNanos >= WARNING_PERIOD_NANOS) {
+                task.lastWarningNanos = end;
+                System.out.printf("LoopScheduler: %s took %.2fms, over its %.2fms budget%s%n", task.name,
+                    nanos / 1e6, task.budgetNanos / 1e6, task.skippable ? ", skipping its next run" : "");
+            }
+        }
+    }
+
+    /**
+     * Moves simulated time forward, running each task when it is due along the way.
+     * Used by simulations that step time themselves, where {@link TimedRobot#addPeriodic} never runs
+     *
+     * @param seconds How far to move simulated time
+     */
+    public void step(double seconds) {
+        double end = simSeconds + seconds;
+        while (true) {
+            Task next = null;
+            for (int i = 0; i < tasks.size(); i++) {
+                Task task = tasks.get(i);
+                if (task.nextRunSeconds <= end && (next == null || task.nextRunSeconds < next.nextRunSeconds))
+                    next = task;
+            }
+            if (next == null)
+                break;
+
+            SimHooks.stepTiming(Math.max(0, next.nextRunSeconds - simSeconds));
+            simSeconds = Math.max(simSeconds, next.nextRunSeconds);
+            run(next);
+            next.nextRunSeconds += next.periodSeconds;
+        }
+        SimHooks.stepTiming(Math.max(0, end - simSeconds));
+        simSeconds = end;
+    }
+
+    @Override
+    public String[] getLogFields() {
+        String[] fields = new String[tasks.size() * 2];
+        for (int i = 0; i < tasks.size(); i++) {
+            fields[i * 2] = tasks.get(i).name + " Max ms";
+            fields[i * 2 + 1] = tasks.get(i).name + " Overruns";
+        }
+        return fields;
+    }
+
+    @Override
+    public void toLog(double[] frame, int offset) {
+        for (int i = 0; i < tasks.size(); i++) {
+            Task task = tasks.get(i);
+            frame[offset + i * 2] = task.maxNanos / 1e6;
+            frame[offset + i * 2 + 1] = task.overruns;
+            task.maxNanos = 0;
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package frc.robot.misc_subclasses;
+
+// Path imports
+import com.pathplanner.lib.PathConstraints;
+import com.pathplanner.lib.PathPlanner;
+import com.pathplanner.lib.PathPlannerTrajectory;
+import com.pathplanner.lib.PathPoint;
+
+// Math imports
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Translation2d;
+
+// Misc imports
+import edu.wpi.first.wpilibj.DriverStation;
+import frc.robot.logging.DriverStationInputs;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static frc.robot.Constants.FieldConstants.*;
+import static frc.robot.Constants.PathGenerationConstants.*;
+
+/** Generates trajectories from the robot's current pose to a target while the robot is running.
+ *  Paths are generated on a background thread and handed back to the main thread atomically, so a slow
+ *  path only makes the robot wait longer and never holds up the main loop. */
+public class PathGenerator {
+    /** A finished trajectory along with the request that produced it */
+    public static final class Result {
+        public final int requestId;
+        public final PathPlannerTrajectory trajectory;
+        public final double generationSeconds;
+
+        private Result(int requestId, PathPlannerTrajectory trajectory, double generationSeconds) {
+            this.requestId = requestId;
+            this.trajectory = trajectory;
+            this.generationSeconds = generationSeconds;
+        }
+    }
+
+    /** Generation runs on a single daemon thread so it never blocks the main loop */
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "PathGenerator");
+        thread.setDaemon(true);
+        return thread;
+    });
+    /** The most recently finished trajectory */
+    private final AtomicReference<Result> latest = new AtomicReference<>();
+    private final PathConstraints constraints = new PathConstraints(MAX_VELOCITY, MAX_ACCELERATION);
+    /** The alliance, read once each loop */
+    private final DriverStationInputs driverStation;
+    private int lastRequestId = 0;
+    /** When the latest request was made, to report paths that take too long */
+    private long requestNanos;
+    /** Whether the latest request has been reported as taking too long */
+    private boolean reportedSlow;
+    /** Whether path generation has been warmed up */
+    private boolean warmedUp = false;
+
+    /** Constructs a PathGenerator
+     *  @param driverStation The alliance, read once each loop */
+    public PathGenerator(DriverStationInputs driverStation) {
+        this.driverStation = driverStation;
+    }
+
+    /**
+     * Starts generating a path on the background thread
+     *
+     * @param start The current pose of the robot, which should be stopped
+     * @param goal The pose the robot should end at
+     * @return An id used to collect the result with {@link #poll(int)}
+     */
+    public int request(Pose2d start, Pose2d goal) {
+        int requestId = ++lastRequestId;
+        requestNanos = System.nanoTime();
+        reportedSlow = false;
+        boolean isRedAlliance = driverStation.isRedAlliance();
+
+        executor.execute(() -> {
+            long startTime = System.nanoTime();
+            List<Translation2d> via = detour(start.getTranslation(), goal.getTranslation(), isRedAlliance);
+            PathPlannerTrajectory trajectory = PathPlanner.generatePath(
+                constraints, buildWaypoints(start, via, goal));
+            double seconds = (System.nanoTime() - startTime) / 1e9;
+
+            latest.set(new Result(requestId, trajectory, seconds));
+        });
+        return requestId;
+    }
+
+    /** Collects a finished path. A path that takes longer than the budget is still waited for, since a
+     *  path made in a hurry could cross the charge station, and is reported once
+     *
+     * @param requestId The id returned by {@link #request(Pose2d, Pose2d)}
+     * @return The finished result, or null if it is not ready yet */
+    public Result poll(int requestId) {
+        Result result = latest.get();
+        if (result != null && result.requestId == requestId)
+            return result;
+
+        if (requestId == lastRequestId && !reportedSlow && System.nanoTime() - requestNanos > GENERATION_BUDGET * 1e9) {
+            reportedSlow = true;
+            DriverStation.reportWarning("Path generation is taking longer than " + GENERATION_BUDGET + "s", false);
+        }
+        return null;
+    }
+
+    /** Generates paths from the human station to every grid node on the background thread and throws them
+     *  away, so the JIT has compiled path generation before the first real request. Only runs once.
+     *  Should be called while disabled */
+    public void warmUp() {
+        if (warmedUp)
+            return;
+        warmedUp = true;
+
+        executor.execute(() -> {
+            Pose2d start = new Pose2d(HUMAN_STATION, Rotation2d.fromDegrees(HUMAN_STATION_HEADING));
+            for (int i = 0; i < WARMUP_PATHS; i++) {
+                Pose2d goal = new Pose2d(GRID_SCORING_X, GRID_NODE_Y[i % GRID_NODE_Y.length],
+                    Rotation2d.fromDegrees(SCORING_HEADING));
+                List<Translation2d> via = detour(start.getTranslation(), goal.getTranslation(), false);
+                PathPlanner.generatePath(constraints, buildWaypoints(start, via, goal));
+            }
+        });
+    }
+
+    /** @param nodeIndex The index of the grid node, 0 being closest to the field edge
+     *  @return The pose the robot should reach to score on that node for the current alliance */
+    public Pose2d gridNodePose(int nodeIndex) {
+        return forAlliance(new Pose2d(
+            GRID_SCORING_X, GRID_NODE_Y[nodeIndex],
+            Rotation2d.fromDegrees(SCORING_HEADING)));
+    }
+
+    /** @return The pose the robot should reach to pick up from the human player for the current alliance */
+    public Pose2d humanStationPose() {
+        return forAlliance(new Pose2d(HUMAN_STATION, Rotation2d.fromDegrees(HUMAN_STATION_HEADING)));
+    }
+
+    /** Mirrors a blue alliance pose onto the red side of the field if needed */
+    private Pose2d forAlliance(Pose2d bluePose) {
+        if (!driverStation.isRedAlliance())
+            return bluePose;
+
+        return new Pose2d(
+            FIELD_LENGTH - bluePose.getX(), bluePose.getY(),
+            Rotation2d.fromDegrees(180).minus(bluePose.getRotation()));
+    }
+
+    /** Builds the list of points the path must pass through, going through any points in between.
+     *  The path starts at rest */
+    private static List<PathPoint> buildWaypoints(Pose2d start, List<Translation2d> via, Pose2d goal) {
+        List<Translation2d> positions = new ArrayList<>();
+        positions.add(start.getTranslation());
+        positions.addAll(via);
+        positions.add(goal.getTranslation());
+
+        // Each point heads towards the next one, and the robot turns towards the goal heading
+        List<PathPoint> points = new ArrayList<>();
+        for (int i = 0; i < positions.size(); i++) {
+            Translation2d position = positions.get(i);
+            Translation2d next = i < positions.size() - 1 ? positions.get(i + 1) : position;
+            Translation2d previous = i > 0 ? positions.get(i - 1) : position;
+            Translation2d direction = i < positions.size() - 1
+                ? next.minus(position)
+                : position.minus(previous);
+            Rotation2d heading = new Rotation2d(direction.getX(), direction.getY());
+            Rotation2d holonomic = i == 0 ? start.getRotation() : goal.getRotation();
+
+            points.add(new PathPoint(position, heading, holonomic));
+        }
+        return points;
+    }
+
+    /** @return The waypoints needed to get from start to goal without crossing the charge station */
+    private static List<Translation2d> detour(Translation2d start, Translation2d goal, boolean isRedAlliance) {
+        double minX = CHARGE_STATION_MIN_X - OBSTACLE_MARGIN;
+        double maxX = CHARGE_STATION_MAX_X + OBSTACLE_MARGIN;
+        double minY = CHARGE_STATION_MIN_Y - OBSTACLE_MARGIN;
+        double maxY = CHARGE_STATION_MAX_Y + OBSTACLE_MARGIN;
+
+        // Mirror the obstacle if we are on the red alliance
+        if (isRedAlliance) {
+            double redMinX = FIELD_LENGTH - maxX;
+            maxX = FIELD_LENGTH - minX;
+            minX = redMinX;
+        }
+
+        if (!segmentIntersectsBox(start, goal, minX, maxX, minY, maxY))
+            return List.of();
+
+        // Go around whichever side of the charge station is shorter
+        boolean startIsLeft = start.getX() < goal.getX();
+        double entryX = startIsLeft ? minX : maxX;
+        double exitX = startIsLeft ? maxX : minX;
+        List<Translation2d> low = List.of(new Translation2d(entryX, minY), new Translation2d(exitX, minY));
+        List<Translation2d> high = List.of(new Translation2d(entryX, maxY), new Translation2d(exitX, maxY));
+
+        return routeLength(start, low, goal) < routeLength(start, high, goal) ? low : high;
+    }
+
+    /** @return The total distance traveled along a route */
+    private static double routeLength(Translation2d start, List<Translation2d> via, Translation2d goal) {
+        double length = 0;
+        Translation2d previous = start;
+        for (Translation2d point : via) {
+            length += previous.getDistance(point);
+            previous = point;
+        }
+        return length + previous.getDistance(goal);
+    }
+
+    /** @return Whether the line segment from a to b crosses an axis aligned box (Liang-Barsky clipping) */
+    private static boolean segmentIntersectsBox(Translation2d a, Translation2d b,
+        double minX, double maxX, double minY, double maxY) {
+        double dx = b.getX() - a.getX();
+        double dy = b.getY() - a.getY();
+        double[] p = { -dx, dx, -dy, dy };
+        double[] q = { a.getX() - minX, maxX - a.getX(), a.getY() - minY, maxY - a.getY() };
+        double tEnter = 0;
+        double tExit = 1;
+
+        for (int i = 0; i < 4; i++) {
+            if (p[i] == 0) {
+                // The segment is parallel to this edge, so it must start inside of it
+                if (q[i] < 0)
+                    return false;
+                continue;
+            }
+            double t = q[i] / p[i];
+            if (p[i] < 0)
+                tEnter = Math.max(tEnter, t);
+            else
+                tExit = Math.min(tExit, t);
+        }
+        return tEnter <= tExit;
+    }
+}
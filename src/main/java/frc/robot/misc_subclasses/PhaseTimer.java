@@ -0,0 +1,61 @@
+package frc.robot.misc_subclasses;
+
+// Imports
+import frc.robot.logging.Loggable;
+
+/** Times each phase of the main loop, so it is clear which part of the loop a slow loop came from */
+public class PhaseTimer implements Loggable {
+    /** The phases of the main loop, in the order they run */
+    public enum Phase {
+        INPUTS("Inputs ms"),
+        ESTIMATES("Estimates ms"),
+        COMMANDS("Commands ms"),
+        OUTPUTS("Outputs ms"),
+        LOG("Log ms");
+
+        private final String logField;
+
+        Phase(String logField) { this.logField = logField; }
+    }
+
+    private static final Phase[] PHASES = Phase.values();
+    private static final String[] LOG_FIELDS = new String[PHASES.length + 1];
+    static {
+        for (int i = 0; i < PHASES.length; i++)
+            LOG_FIELDS[i] = PHASES[i].logField;
+        LOG_FIELDS[PHASES.length] = "Total ms";
+    }
+
+    private final double[] phaseMs = new double[PHASES.length];
+    private long phaseStartNanos;
+
+    /** Should be called at the start of the main loop, before the first phase */
+    public void start() {
+        phaseStartNanos = System.nanoTime();
+    }
+
+    /** Records how long a phase took. Should be called as each phase ends
+     *  @param phase The phase that just ended */
+    public void end(Phase phase) {
+        long now = System.nanoTime();
+        phaseMs[phase.ordinal()] = (now - phaseStartNanos) / 1e6;
+        phaseStartNanos = now;
+    }
+
+    /** @return How long a phase took in the last loop in milliseconds */
+    public double getPhaseMs(Phase phase) { return phaseMs[phase.ordinal()]; }
+
+    @Override
+    public String[] getLogFields() { return LOG_FIELDS; }
+
+    /** Logs how long each phase took. The log phase is written as it was in the last loop, since it is still running */
+    @Override
+    public void toLog(double[] frame, int offset) {
+        double total = 0;
+        for (int i = 0; i < PHASES.length; i++) {
+            frame[offset + i] = phaseMs[i];
+            total += phaseMs[i];
+        }
+        frame[offset + PHASES.length] = total;
+    }
+}
@@ -0,0 +1,222 @@
+package frc.robot.misc_subclasses;
+
+// Imports
+import edu.wpi.first.networktables.BooleanPublisher;
+import edu.wpi.first.networktables.DoubleArrayPublisher;
+import edu.wpi.first.networktables.DoublePublisher;
+import edu.wpi.first.networktables.NetworkTable;
+import edu.wpi.first.networktables.StringPublisher;
+import java.util.ArrayList;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.DoubleSupplier;
+import java.util.function.Supplier;
+
+/** Publishes dashboard signals at different rates, only when they have changed. Should be run 50 times a second.
+ *  Signals of the same rate are spread across runs so each run publishes about the same amount. */
+public class TelemetryScheduler {
+    /** How often a signal is allowed to be published */
+    public enum Rate {
+        HZ_50(1),
+        HZ_10(5),
+        HZ_1(50);
+
+        /** The signal is checked once every this many runs */
+        private final int loopsPerUpdate;
+
+        Rate(int loopsPerUpdate) { this.loopsPerUpdate = loopsPerUpdate; }
+    }
+
+    /** Every rate divides evenly into this many runs, so the schedule repeats after it. One second */
+    private static final int SCHEDULE_LENGTH = 50;
+
+    // Rough size of one value update sent by NetworkTables: topic id, timestamp, type, and value
+    private static final int UPDATE_OVERHEAD_BYTES = 12;
+    private static final int DOUBLE_BYTES = 9;
+    private static final int BOOLEAN_BYTES = 1;
+
+    /** A single value sent to the dashboard */
+    private abstract static class Signal {
+        final int loopsPerUpdate;
+        final int offset;
+
+        Signal(int loopsPerUpdate, int offset) {
+            this.loopsPerUpdate = loopsPerUpdate;
+            this.offset = offset;
+        }
+
+        /** Reads the newest value and publishes it if it has changed enough
+         *  @return The number of bytes published, 0 if nothing was sent */
+        abstract int update(boolean force);
+    }
+
+    private final NetworkTable table;
+    private final ArrayList<Signal> signals = new ArrayList<>();
+    /** The number of signals that are checked on each loop of the schedule */
+    private final int[] slotLoad = new int[SCHEDULE_LENGTH];
+    /** The bytes published during each of the last {@link #SCHEDULE_LENGTH} runs */
+    private final int[] bytesPerLoop = new int[SCHEDULE_LENGTH];
+    private final DoublePublisher bytesPerSecondPublisher;
+    private int bytesPerSecond = 0;
+    private int loop = 0;
+
+    /** Constructs a TelemetryScheduler
+     *  @param table The table every signal is published to */
+    public TelemetryScheduler(NetworkTable table) {
+        this.table = table;
+        bytesPerSecondPublisher = table.getDoubleTopic("Telemetry Bytes Per Second").publish();
+    }
+
+    /** @return About how many bytes were published over the last second */
+    public int getBytesPerSecond() { return bytesPerSecond; }
+
+    /**
+     * Adds a number to the dashboard
+     *
+     * @param key The name of the value on the dashboard
+     * @param source Supplies the value
+     * @param rate How often the value may be published
+     * @param threshold The value is only published once it has changed by more than this
+     */
+    public void addDouble(String key, DoubleSupplier source, Rate rate, double threshold) {
+        DoublePublisher publisher = table.getDoubleTopic(key).publish();
+        signals.add(new Signal(rate.loopsPerUpdate, claimOffset(rate.loopsPerUpdate)) {
+            double last = Double.NaN;
+
+            @Override
+            int update(boolean force) {
+                double value = source.getAsDouble();
+                if (!force && Math.abs(value - last) <= threshold)
+                    return 0;
+                last = value;
+                publisher.set(value);
+                return UPDATE_OVERHEAD_BYTES + DOUBLE_BYTES;
+            }
+        });
+    }
+
+    /**
+     * Adds a boolean to the dashboard
+     *
+     * @param key The name of the value on the dashboard
+     * @param source Supplies the value
+     * @param rate How often the value may be published
+     */
+    public void addBoolean(String key, BooleanSupplier source, Rate rate) {
+        BooleanPublisher publisher = table.getBooleanTopic(key).publish();
+        signals.add(new Signal(rate.loopsPerUpdate, claimOffset(rate.loopsPerUpdate)) {
+            boolean last;
+
+            @Override
+            int update(boolean force) {
+                boolean value = source.getAsBoolean();
+                if (!force && value == last)
+                    return 0;
+                last = value;
+                publisher.set(value);
+                return UPDATE_OVERHEAD_BYTES + BOOLEAN_BYTES;
+            }
+        });
+    }
+
+    /**
+     * Adds a string to the dashboard
+     *
+     * @param key The name of the value on the dashboard
+     * @param source Supplies the value. Should return constant strings so nothing is formatted each loop
+     * @param rate How often the value may be published
+     */
+    public void addString(String key, Supplier<String> source, Rate rate) {
+        StringPublisher publisher = table.getStringTopic(key).publish();
+        signals.add(new Signal(rate.loopsPerUpdate, claimOffset(rate.loopsPerUpdate)) {
+            String last;
+
+            @Override
+            int update(boolean force) {
+                String value = source.get();
+                if (!force && value.equals(last))
+                    return 0;
+                last = value;
+                publisher.set(value);
+                return UPDATE_OVERHEAD_BYTES + value.length();
+            }
+        });
+    }
+
+    /**
+     * Adds an array of numbers to the dashboard
+     *
+     * @param key The name of the value on the dashboard
+     * @param length The number of elements in the array
+     * @param source Fills the array it is given with the newest values
+     * @param rate How often the value may be published
+     * @param threshold The array is only published once any element has changed by more than this
+     */
+    public void addDoubleArray(String key, int length, Consumer<double[]> source, Rate rate, double threshold) {
+        DoubleArrayPublisher publisher = table.getDoubleArrayTopic(key).publish();
+        signals.add(new Signal(rate.loopsPerUpdate, claimOffset(rate.loopsPerUpdate)) {
+            final double[] value = new double[length];
+            final double[] last = new double[length];
+            boolean published = false;
+
+            @Override
+            int update(boolean force) {
+                source.accept(value);
+
+                boolean changed = force || !published;
+                for (int i = 0; i < length && !changed; i++)
+                    changed = Math.abs(value[i] - last[i]) > threshold;
+                if (!changed)
+                    return 0;
+
+                System.arraycopy(value, 0, last, 0, length);
+                published = true;
+                publisher.set(value);
+                return UPDATE_OVERHEAD_BYTES + length * DOUBLE_BYTES;
+            }
+        });
+    }
+
+    /** Picks the loop a new signal is checked on so that it lands on the least busy loops
+     *  @param loopsPerUpdate How many runs go by between each check of the signal
+     *  @return The offset of the signal within its period */
+    private int claimOffset(int loopsPerUpdate) {
+        int bestOffset = 0;
+        int bestLoad = Integer.MAX_VALUE;
+        for (int offset = 0; offset < loopsPerUpdate; offset++) {
+            int load = 0;
+            for (int slot = offset; slot < SCHEDULE_LENGTH; slot += loopsPerUpdate)
+                load = Math.max(load, slotLoad[slot]);
+            if (load < bestLoad) {
+                bestLoad = load;
+                bestOffset = offset;
+            }
+        }
+
+        for (int slot = bestOffset; slot < SCHEDULE_LENGTH; slot += loopsPerUpdate)
+            slotLoad[slot]++;
+        return bestOffset;
+    }
+
+    /** Publishes each signal that is due this run. Should be called 50 times a second */
+    public void run() {
+        int slot = loop % SCHEDULE_LENGTH;
+        int bytes = 0;
+
+        // Send every signal during the first schedule so the dashboard starts with every value
+        boolean force = loop < SCHEDULE_LENGTH;
+        for (int i = 0; i < signals.size(); i++) {
+            Signal signal = signals.get(i);
+            if (slot % signal.loopsPerUpdate == signal.offset)
+                bytes += signal.update(force);
+        }
+
+        // Keep a running total of the bytes sent over the last second
+        bytesPerSecond += bytes - bytesPerLoop[slot];
+        bytesPerLoop[slot] = bytes;
+        if (slot == 0)
+            bytesPerSecondPublisher.set(bytesPerSecond);
+
+        loop++;
+    }
+}
@@ -0,0 +1,163 @@
+package frc.robot.misc_subclasses;
+
+// Math imports
+import com.pathplanner.lib.PathPlannerTrajectory;
+import edu.wpi.first.math.controller.PIDController;
+import edu.wpi.first.math.controller.ProfiledPIDController;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.kinematics.ChassisSpeeds;
+import edu.wpi.first.math.kinematics.SwerveDriveKinematics;
+import edu.wpi.first.math.kinematics.SwerveDriveOdometry;
+import edu.wpi.first.math.kinematics.SwerveModulePosition;
+import edu.wpi.first.math.kinematics.SwerveModuleState;
+import edu.wpi.first.math.trajectory.TrapezoidProfile;
+
+// Robot imports
+import edu.wpi.first.wpilibj.DriverStation;
+import frc.robot.commands.AutonContainer;
+import frc.robot.subsystems.Drivetrain;
+import frc.robot.utils.RevUtils;
+import frc.robot.utils.SwerveSetpointGenerator;
+import frc.robot.wrappers.GenericPID;
+
+import static frc.robot.Constants.SwerveConstants.*;
+import static frc.robot.Constants.DriveConstants.*;
+import static frc.robot.Constants.WarmupConstants.*;
+
+/** Runs the math used every loop with made up inputs while the robot is disabled, so the JIT has compiled it
+ *  before auton starts. Every object it uses is its own, so nothing is ever sent to a motor.
+ *  Also reports how long robotPeriodic() took before warm up and once the robot is enabled after it */
+public class WarmupService {
+    private final AutonContainer auton;
+    private final PathGenerator pathGenerator;
+
+    // Private copies of everything the robot uses, so warming up does not change the robot's state
+    private final SwerveDriveKinematics kinematics = new SwerveDriveKinematics(MODULE_TRANSLATIONS);
+    private final SwerveModulePosition[] positions = new SwerveModulePosition[4];
+    private final SwerveSetpointGenerator setpointGenerator = new SwerveSetpointGenerator(
+        MODULE_TRANSLATIONS, MAX_TRANSLATION_SPEED, MAX_MODULE_ACCELERATION, MAX_MODULE_STEERING_SPEED);
+    private SwerveModuleState[] previousStates = {
+        new SwerveModuleState(), new SwerveModuleState(), new SwerveModuleState(), new SwerveModuleState()
+    };
+    private final SwerveDriveOdometry odometry;
+    private final PIDController xController = new PIDController(3, 0, .05);
+    private final PIDController turnController = new PIDController(.007, .00175, .0000625);
+    private final ProfiledPIDController rotationPID =
+        new ProfiledPIDController(.1, 0, 0, new TrapezoidProfile.Constraints(45, 75));
+
+    private int iterations = 0;
+    /** Microseconds per iteration in the first and last batch */
+    private double coldMicros = Double.NaN;
+    private double warmMicros = Double.NaN;
+    /** Stops anything returned by the math from being thrown away as dead code */
+    private double sink = 0;
+
+    // robotPeriodic() times, before warm up is done and once enabled after it
+    private double coldLoopMsTotal = 0;
+    private int coldLoops = 0;
+    private double warmLoopMsTotal = 0;
+    private int warmLoops = 0;
+    private boolean reported = false;
+
+    /** Constructs a WarmupService
+     *  @param auton The autons, whose paths are sampled once they are loaded
+     *  @param pathGenerator Generates paths on the fly, warmed up on its own thread */
+    public WarmupService(AutonContainer auton, PathGenerator pathGenerator) {
+        this.auton = auton;
+        this.pathGenerator = pathGenerator;
+        for (int i = 0; i < 4; i++)
+            positions[i] = new SwerveModulePosition();
+        odometry = new SwerveDriveOdometry(kinematics, new Rotation2d(), positions, new Pose2d());
+    }
+
+    /** @return Whether enough iterations have run for the hot paths to be compiled */
+    public boolean isDone() { return iterations >= ITERATIONS; }
+
+    /** Runs as many iterations as fit in the loop's budget. Should be called from disabledPeriodic() */
+    public void run() {
+        if (isDone())
+            return;
+        pathGenerator.warmUp();
+
+        long start = System.nanoTime();
+        long deadline = start + (long) (BUDGET_MS * 1e6);
+        int ran = 0;
+        // Stop the moment the robot is enabled, even partway through a loop
+        while (System.nanoTime() < deadline && !isDone() && !DriverStation.isEnabled()) {
+            for (int i = 0; i < BATCH_SIZE; i++)
+                iterate(iterations++);
+            ran += BATCH_SIZE;
+        }
+        if (ran == 0)
+            return;
+
+        double micros = (System.nanoTime() - start) / 1e3 / ran;
+        if (Double.isNaN(coldMicros))
+            coldMicros = micros;
+        warmMicros = micros;
+        if (isDone())
+            System.out.printf("Warmup: done after %d iterations, %.2fus per iteration cold, %.2fus warm%n",
+                iterations, coldMicros, warmMicros);
+    }
+
+    /** One pass through every hot path with inputs made from the iteration number */
+    private void iterate(int n) {
+        double t = n * .02;
+        double stick = Math.sin(t);
+
+        // Joystick shaping, setpoint generation, and module optimization done by the drivetrain
+        double x = Drivetrain.shapeInput(stick, TRANSLATION_DEADBAND);
+        double y = Drivetrain.shapeInput(Math.cos(t), TRANSLATION_DEADBAND);
+        Rotation2d heading = Rotation2d.fromDegrees(n % 360);
+        SwerveModuleState[] states = setpointGenerator.generate(
+            ChassisSpeeds.fromFieldRelativeSpeeds(
+                x * MAX_TRANSLATION_SPEED, y * MAX_TRANSLATION_SPEED, Drivetrain.shapeInput(stick, ROTATION_DEADBAND), heading),
+            previousStates, SETPOINT_PERIOD);
+        previousStates = states;
+        for (int i = 0; i < 4; i++) {
+            states[i] = RevUtils.optimize(states[i], Rotation2d.fromDegrees(n * 7 % 720));
+            sink += turnController.calculate(n % 360, states[i].angle.getDegrees());
+            positions[i] = new SwerveModulePosition(t, states[i].angle);
+        }
+
+        // Odometry
+        sink += odometry.update(heading, positions).getX();
+
+        // Path following
+        for (PathPlannerTrajectory trajectory : auton.getLoadedPaths()) {
+            PathPlannerTrajectory.PathPlannerState state =
+                (PathPlannerTrajectory.PathPlannerState) trajectory.sample(t % trajectory.getTotalTimeSeconds());
+            sink += xController.calculate(x, state.poseMeters.getX());
+            break;
+        }
+
+        // Arm control
+        sink += rotationPID.calculate(stick * 60, 45);
+        sink += GenericPID.scaleAndClamp(stick * 20, 8.38, 0, 150);
+    }
+
+    /**
+     * Records how long robotPeriodic() took, and prints a report once enough loops are in
+     *
+     * @param loopMs How long robotPeriodic() took this loop
+     */
+    public void recordLoop(double loopMs) {
+        if (!isDone() && coldLoops < REPORT_LOOPS) {
+            coldLoopMsTotal += loopMs;
+            coldLoops++;
+        }
+        else if (isDone() && DriverStation.isEnabled() && warmLoops < REPORT_LOOPS) {
+            warmLoopMsTotal += loopMs;
+            warmLoops++;
+        }
+        else if (warmLoops == REPORT_LOOPS && !reported) {
+            reported = true;
+            System.out.printf("Warmup: robotPeriodic took %.3fms on average before warm up, %.3fms in the first %d enabled loops after%n",
+                coldLoopMsTotal / Math.max(1, coldLoops), warmLoopMsTotal / warmLoops, REPORT_LOOPS);
+        }
+    }
+
+    /** @return A value that depends on every result, only so the math cannot be skipped */
+    public double getSink() { return sink; }
+}
@@ -0,0 +1,62 @@
+package frc.robot.sim;
+
+// Robot imports
+import frc.robot.Robot;
+import frc.robot.logging.LogReplay;
+
+// Simulation imports
+import edu.wpi.first.wpilibj.simulation.SimHooks;
+
+// Misc imports
+import java.io.IOException;
+
+/** Reruns the robot code against a log recorded on the robot, as fast as the CPU allows.
+ *  Every input is read from the log and every output is logged again, so the new log can be
+ *  compared against the original after changing the code.
+ *  Started from {@link Robot#simulationInit()} when the REPLAY_LOG environment variable is set. */
+public class ReplayRunner {
+    /** The length of the first loop, which has no loop before it to measure from */
+    private static final double LOOP_PERIOD = .02;
+
+    private final Robot robot;
+    private final LogReplay replay;
+
+    /**
+     * Constructs a ReplayRunner
+     *
+     * @param robot The robot, which must have already run robotInit()
+     * @param replay The log being replayed, with every input already added
+     */
+    public ReplayRunner(Robot robot, LogReplay replay) {
+        this.robot = robot;
+        this.replay = replay;
+    }
+
+    /** Runs one loop for every frame of the log
+     *  @return 0 if the whole log was replayed, otherwise 1 */
+    public int run() {
+        // Time only moves forward when we step it, by as much as it did on the robot
+        SimHooks.pauseTiming();
+
+        int loops = 0;
+        double lastTimestamp = Double.NaN;
+        long startNanos = System.nanoTime();
+        try {
+            while (replay.next()) {
+                double timestamp = replay.getTimestamp();
+                double seconds = Double.isNaN(lastTimestamp) ? LOOP_PERIOD : Math.max(0, timestamp - lastTimestamp);
+                lastTimestamp = timestamp;
+
+                robot.runLoopOnce(seconds);
+                loops++;
+            }
+            replay.close();
+        } catch (IOException e) {
+            System.err.println("Replay stopped after " + loops + " loops: " + e.getMessage());
+            return 1;
+        }
+
+        System.out.printf("Replayed %d loops in %.2fs%n", loops, (System.nanoTime() - startNanos) / 1e9);
+        return 0;
+    }
+}
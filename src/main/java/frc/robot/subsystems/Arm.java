@@ -1,85 +1,93 @@
 package frc.robot.subsystems;
 
-import com.revrobotics.CANSparkMax;
-import com.revrobotics.CANSparkMax.ControlType;
-import com.revrobotics.CANSparkMaxLowLevel.MotorType;
+import edu.wpi.first.math.controller.ArmFeedforward;
 import edu.wpi.first.math.controller.ProfiledPIDController;
 import edu.wpi.first.math.trajectory.TrapezoidProfile;
-import edu.wpi.first.wpilibj.RobotController;
 import edu.wpi.first.wpilibj2.command.SubsystemBase;
-import frc.robot.wrappers.GenericPID;
+import frc.robot.io.ArmIO;
+import frc.robot.logging.ControlSamples;
+import frc.robot.logging.DriverStationInputs;
+import frc.robot.logging.Loggable;
 
 import static frc.robot.Constants.ArmConstants.*;
+import static frc.robot.Constants.SchedulerConstants.CONTROL_PERIOD;
 
 /** This class is used to control the robot's arm */
-public class Arm extends SubsystemBase {
+public class Arm extends SubsystemBase implements PhasedSubsystem, Loggable {
 
-    // Declare motors used by the arm
-    private CANSparkMax rotation;
-    private CANSparkMax rotationFollower;
-    private CANSparkMax telescope;
-    private CANSparkMax telescopeFollower;
-    private CANSparkMax slider;
+    // The motors used by the arm
+    private final ArmIO io;
+    private final ArmIO.Inputs inputs = new ArmIO.Inputs();
+    /** The sensor values read by the rotation control, which runs between loops and so keeps its own */
+    private final ArmIO.Inputs controlInputs = new ArmIO.Inputs();
+    /** Each angle the rotation control read, logged so a replay controls from the same angles */
+    private final ControlSamples rotationSamples = new ControlSamples("Rotation Degrees");
+    /** The battery voltage the rotation control uses until the next loop has sent its outputs */
+    private double controlBatteryVolts;
+    /** The battery voltage, read once each loop */
+    private final DriverStationInputs driverStation;
 
-    // Declare PID controllers to control the motors
+    // Rotation is controlled by a PID running on the roboRIO.
+    // The telescope and slider are controlled by PID running on the motor controllers
     private ProfiledPIDController rotationPID;
-    private GenericPID telescopePID;
-    private GenericPID sliderPID;
+    /** The volts needed to hold the arm up and move it along the rotation profile, measured in test mode */
+    private final ArmFeedforward rotationFeedforward =
+        new ArmFeedforward(ROTATION_KS, ROTATION_KG, ROTATION_KV, ROTATION_KA);
+    /** The profile's velocity in degrees/sec at the last control update, to find its acceleration */
+    private double lastSetpointVelocity = 0;
+    private double telescopeSetpoint = 0;
+    private double sliderSetpoint = 0;
 
     private ArmState currentState = ArmState.ZERO;
     private boolean active = false;
+    /** The last %power sent to each motor, NaN while the motor is controlled by its onboard PID */
+    private double rotationOutput = 0;
+    private double telescopeOutput = Double.NaN;
+    private double sliderOutput = Double.NaN;
+
+    /** How a motor is being driven, so writeOutputs() knows which command to send */
+    private enum OutputType { SETPOINT, PERCENT, VOLTS }
+    /** The command each motor was given this loop, sent in writeOutputs(). Null if there is nothing to send.
+     *  Rotation under its PID is sent by updateControl() instead */
+    private OutputType pendingRotation, pendingTelescope, pendingSlider;
+
+    private static final String[] LOG_FIELDS = {
+        "State", "Rotation Goal", "Rotation Setpoint", "Rotation Output",
+        "Telescope Setpoint", "Telescope Output", "Slider Setpoint", "Slider Output"
+    };
     
     /**
      * Constructs Arm subsystem
      * 
-     * @param rotationId ID of the rotation motor
-     * @param rotationFollowerId ID of the rotation follower motor
-     * @param telescopeId ID of the telescope motor
-     * @param telescopeFollowerId ID of the telescope follower motor
-     * @param sliderId ID of the slider motor
+     * @param driverStation The battery voltage, read once each loop
+     * @param io The motors used by the arm
      */
-     public Arm(int rotationId, int rotationFollowerId, int telescopeId, int telescopeFollowerId, int sliderId){
+     public Arm(DriverStationInputs driverStation, ArmIO io){
+        this.driverStation = driverStation;
+        this.io = io;
+        io.updateInputs(inputs);
+        controlBatteryVolts = driverStation.getBatteryVolts();
 
-        rotation = new CANSparkMax(rotationId, MotorType.kBrushless);
-        rotation.restoreFactoryDefaults();
-        rotation.getEncoder().setPositionConversionFactor(ROTATION_RATIO);
         rotationPID = new ProfiledPIDController(.1, 0, 0,
-            new TrapezoidProfile.Constraints(45, 75));
+            new TrapezoidProfile.Constraints(45, 75), CONTROL_PERIOD);
         rotationPID.setTolerance(1);
-
-        rotationFollower = new CANSparkMax(rotationFollowerId, MotorType.kBrushless);
-        rotationFollower.restoreFactoryDefaults();
-        rotationFollower.follow(rotation, true);
-
-        telescope = new CANSparkMax(telescopeId, MotorType.kBrushless);
-        telescope.restoreFactoryDefaults();
-        telescopePID = new GenericPID(telescope, ControlType.kPosition, .025);
-        telescopePID.setRatio(TELESCOPE_RATIO);
-        
-        telescopeFollower = new CANSparkMax(telescopeFollowerId, MotorType.kBrushless);
-        telescopeFollower.restoreFactoryDefaults();
-        telescopeFollower.follow(telescope, true);
-
-        slider = new CANSparkMax(sliderId, MotorType.kBrushless);
-        slider.restoreFactoryDefaults();
-        slider.setInverted(true);
-        sliderPID = new GenericPID(slider, ControlType.kPosition, .037);
-        sliderPID.setRatio(SLIDER_RATIO);
     }
 
     // Getters
-    public CANSparkMax getRotationMotor() { return rotation; }
-    public ProfiledPIDController getRotationPid() { return rotationPID; }
-    public double getRotationPos() { return rotation.getEncoder().getPosition(); }
+    public double getRotationPos() { return inputs.rotationDegrees; }
     public boolean rotationAtTarget() { return rotationPID.atGoal(); }
-
-    public CANSparkMax getTelescopeMotor() { return telescope; }
-    public GenericPID getTelescopePid() { return telescopePID; }
-    public double getTelescopePos() { return telescopePID.getPosition(); }
-
-    public CANSparkMax getSliderMotor() { return slider; }
-    public GenericPID getSliderPid() { return sliderPID; }
-    public double getSliderPos() { return sliderPID.getPosition(); }
+    public double getTelescopePos() { return inputs.telescopeInches; }
+    public double getSliderPos() { return inputs.sliderInches; }
+    /** @return The current drawn by every arm motor. The rotation and telescope followers draw as much as their leaders */
+    public double getTotalCurrent() { return 2 * inputs.rotationAmps + 2 * inputs.telescopeAmps + inputs.sliderAmps; }
+    /** Changes the most current each arm motor may draw. Slow, so only call when the limits change */
+    public void setCurrentLimits(int rotationAmps, int telescopeAmps, int sliderAmps) {
+        io.setCurrentLimits(rotationAmps, telescopeAmps, sliderAmps);
+    }
+    /** @return The sensor values read this loop, so they can be logged and replayed */
+    public ArmIO.Inputs getInputs() { return inputs; }
+    /** @return The angles the rotation control read before this loop, so they can be logged and replayed */
+    public ControlSamples getRotationSamples() { return rotationSamples; }
 
     public ArmState getCurrentState() { return currentState; }
 
@@ -113,11 +121,50 @@ public class Arm extends SubsystemBase {
     }
 
     /** @param setpoint The desired angle of the arm */
-    private void setRotationSetpoint(double setpoint) { active = true; rotationPID.setGoal(setpoint); }
+    private void setRotationSetpoint(double setpoint) {
+        active = true;
+        pendingRotation = null;
+        rotationPID.setGoal(setpoint);
+    }
     /** @param setpoint The desired setpoint for the slider */
-    private void setTelescopeSetpoint(double setpoint) { telescopePID.activate(setpoint);}
+    private void setTelescopeSetpoint(double setpoint) {
+        telescopeSetpoint = setpoint;
+        telescopeOutput = Double.NaN;
+        pendingTelescope = OutputType.SETPOINT;
+    }
     /** @param setpoint The desired setpoint for the slider */
-    private void setSliderSetpoint(double setpoint) { sliderPID.activate(setpoint); }
+    private void setSliderSetpoint(double setpoint) {
+        sliderSetpoint = setpoint;
+        sliderOutput = Double.NaN;
+        pendingSlider = OutputType.SETPOINT;
+    }
+
+    /** Stops the rotation PID and drives the rotation motors directly. Used in test mode
+     *  @param percent The %power to send to the rotation motors */
+    public void setRotationPower(double percent) {
+        active = false;
+        rotationOutput = percent;
+        pendingRotation = OutputType.PERCENT;
+    }
+    /** Stops the rotation PID and sends a voltage to the rotation motors. Used to characterize the arm
+     *  @param volts The voltage to send to the rotation motors */
+    public void setRotationVolts(double volts) {
+        active = false;
+        rotationOutput = volts / 12;
+        pendingRotation = OutputType.VOLTS;
+    }
+    /** Sends a voltage to the telescope motors. Used to characterize the arm
+     *  @param volts The voltage to send to the telescope motors */
+    public void setTelescopeVolts(double volts) { telescopeOutput = volts / 12; pendingTelescope = OutputType.VOLTS; }
+    /** Sends a voltage to the slider motor. Used to characterize the arm
+     *  @param volts The voltage to send to the slider motor */
+    public void setSliderVolts(double volts) { sliderOutput = volts / 12; pendingSlider = OutputType.VOLTS; }
+    /** Drives the telescope motors directly. Used in test mode
+     *  @param percent The %power to send to the telescope motors */
+    public void setTelescopePower(double percent) { telescopeOutput = percent; pendingTelescope = OutputType.PERCENT; }
+    /** Drives the slider motor directly. Used in test mode
+     *  @param percent The %power to send to the slider motor */
+    public void setSliderPower(double percent) { sliderOutput = percent; pendingSlider = OutputType.PERCENT; }
 
     /** Moves the arm to initial position */
     public void zeroPosition(){
@@ -172,11 +219,74 @@ public class Arm extends SubsystemBase {
         setSliderSetpoint(13.75);
     }
 
-    @Override // Called every 20ms
-    public void periodic() {
+    /** Reads the arm's sensors for this loop, and keeps the angles the rotation control read since the
+     *  last loop for this loop's log */
+    @Override
+    public void readInputs() {
+        io.updateInputs(inputs);
+        rotationSamples.latch();
+    }
+
+    /** Sends the setpoints and outputs decided this loop to the motors */
+    @Override
+    public void writeOutputs() {
+        // The rotation control runs until the next loop on this loop's battery voltage, as it does when replayed
+        controlBatteryVolts = driverStation.getBatteryVolts();
+
+        if (pendingRotation == OutputType.PERCENT)
+            io.setRotationOutput(rotationOutput);
+        else if (pendingRotation == OutputType.VOLTS)
+            io.setRotationVoltage(rotationOutput * 12);
+
+        if (pendingTelescope == OutputType.SETPOINT)
+            io.setTelescopeSetpoint(telescopeSetpoint);
+        else if (pendingTelescope == OutputType.PERCENT)
+            io.setTelescopeOutput(telescopeOutput);
+        else if (pendingTelescope == OutputType.VOLTS)
+            io.setTelescopeVoltage(telescopeOutput * 12);
+
+        if (pendingSlider == OutputType.SETPOINT)
+            io.setSliderSetpoint(sliderSetpoint);
+        else if (pendingSlider == OutputType.PERCENT)
+            io.setSliderOutput(sliderOutput);
+        else if (pendingSlider == OutputType.VOLTS)
+            io.setSliderVoltage(sliderOutput * 12);
+
+        pendingRotation = pendingTelescope = pendingSlider = null;
+    }
+
+    /** Reads the arm's angle and runs the rotation PID. Runs faster than the main loop, between its iterations */
+    public void updateControl() {
+        io.updateInputs(controlInputs);
+        double rotationDegrees = rotationSamples.sample(controlInputs.rotationDegrees);
+
         if(active) {
-            double rotationPIDOut = rotationPID.calculate(getRotationPos());
-            rotation.setVoltage(rotationPIDOut * RobotController.getBatteryVoltage());
+            double rotationPIDOut = rotationPID.calculate(rotationDegrees);
+            rotationOutput = rotationPIDOut;
+
+            // The feedforward follows the profile's setpoint, and the PID corrects what it misses
+            TrapezoidProfile.State setpoint = rotationPID.getSetpoint();
+            double acceleration = (setpoint.velocity - lastSetpointVelocity) / CONTROL_PERIOD;
+            lastSetpointVelocity = setpoint.velocity;
+            double feedforwardVolts = rotationFeedforward.calculate(
+                Math.toRadians(setpoint.position - ROTATION_HORIZONTAL_DEGREES), setpoint.velocity, acceleration);
+
+            io.setRotationVoltage(rotationPIDOut * controlBatteryVolts + feedforwardVolts);
         }
     }
+
+    @Override
+    public String[] getLogFields() { return LOG_FIELDS; }
+
+    @Override
+    public void toLog(double[] frame, int offset) {
+        frame[offset] = currentState.ordinal();
+        frame[offset + 1] = rotationPID.getGoal().position;
+        frame[offset + 2] = rotationPID.getSetpoint().position;
+        frame[offset + 3] = rotationOutput;
+        frame[offset + 4] = telescopeSetpoint;
+        frame[offset + 5] = telescopeOutput;
+        frame[offset + 6] = sliderSetpoint;
+        frame[offset + 7] = sliderOutput;
+    }
 }
@@ -1,48 +1,107 @@
 package frc.robot.subsystems;
 
-import edu.wpi.first.wpilibj.DoubleSolenoid;
-import edu.wpi.first.wpilibj.PneumaticsModuleType;
-import edu.wpi.first.wpilibj.DoubleSolenoid.Value;
-import frc.robot.wrappers.LaserDetector;
+import edu.wpi.first.wpilibj2.command.SubsystemBase;
+import frc.robot.io.ClawIO;
+import frc.robot.logging.Loggable;
 
-public class Claw {
+public class Claw extends SubsystemBase implements PhasedSubsystem, Loggable {
 
-    private LaserDetector laserDetector;
-    private DoubleSolenoid dubs; 
+    private final ClawIO io;
+    private final ClawIO.Inputs inputs = new ClawIO.Inputs();
     private Boolean isOpen = false;
+    private boolean autoGrabEnabled = false;
+    /** The number of times the claw has opened or closed, each of which uses air */
+    private int actuationCount = 0;
+    /** The time of the last auto grab that has been seen */
+    private double lastAutoGrabTimestamp;
+    /** Whether the claw was opened or closed this loop, so writeOutputs() has to set the solenoid */
+    private boolean solenoidPending = false;
+    /** Whether auto grab was turned on or off this loop, so writeOutputs() has to tell the laser */
+    private boolean autoGrabPending = false;
 
-    public Claw(int laserPort){
+    private static final String[] LOG_FIELDS = { "Open" };
 
-        dubs = new DoubleSolenoid(PneumaticsModuleType.CTREPCM, 0, 1);
-
-        laserDetector = new LaserDetector(laserPort);
+    public Claw(ClawIO io){
+        this.io = io;
+        io.updateInputs(inputs);
+        lastAutoGrabTimestamp = inputs.autoGrabTimestamp;
     }
 
-    public DoubleSolenoid getDoubleSolenoid(){return dubs;}
     public Boolean isOpen(){return isOpen;}
+    /** @return The number of times the claw has opened or closed */
+    public int getActuationCount(){return actuationCount;}
+    /** @return The sensor values read this loop, so they can be logged and replayed */
+    public ClawIO.Inputs getInputs(){return inputs;}
 
     public void toggleClaw(){
         if(isOpen == false){
-            dubs.set(Value.kForward);
-            isOpen = true;
+            open();
         }   
         else if(isOpen == true){
-            dubs.set(Value.kReverse);
-            isOpen = false;
+            close();
         }
     }
     public void open(){
-        dubs.set(Value.kForward);
+        if(!isOpen)
+            actuationCount++;
         isOpen = true;
+        solenoidPending = true;
+        // Opening is what gets the claw ready to grab again
+        autoGrabPending = true;
     }
     public void close(){
-        dubs.set(Value.kReverse);
+        if(isOpen)
+            actuationCount++;
         isOpen = false;
+        solenoidPending = true;
+        autoGrabPending = true;
     }
 
-    public void autoGrab(){
-        if(laserDetector.isBlocked() == true){ 
-            close();
+    /** While enabled and open, the claw closes itself the moment a game piece blocks the laser.
+     *  The close is sent from the laser's interrupt, not the main loop
+     *  @param enabled Whether the claw should grab by itself */
+    public void setAutoGrabEnabled(boolean enabled){
+        if(enabled == autoGrabEnabled)
+            return;
+        autoGrabEnabled = enabled;
+        autoGrabPending = true;
+    }
+
+    /** Reads the laser and catches up with any auto grab, since the laser's interrupt can close the claw
+     *  at any time */
+    @Override
+    public void readInputs() {
+        io.updateInputs(inputs);
+
+        // Catch up with a grab that happened off the main loop
+        if(inputs.autoGrabTimestamp != lastAutoGrabTimestamp){
+            lastAutoGrabTimestamp = inputs.autoGrabTimestamp;
+            if(isOpen)
+                actuationCount++;
+            isOpen = false;
         }
     }
+
+    /** Sets the solenoid and auto grab decided this loop */
+    @Override
+    public void writeOutputs() {
+        // Stop the laser from grabbing before closing, and only let it grab again once open
+        if (autoGrabPending && !isOpen)
+            io.setAutoGrab(false);
+        if (solenoidPending)
+            io.setOpen(isOpen);
+        if (autoGrabPending && isOpen)
+            io.setAutoGrab(autoGrabEnabled);
+
+        solenoidPending = false;
+        autoGrabPending = false;
+    }
+
+    @Override
+    public String[] getLogFields() { return LOG_FIELDS; }
+
+    @Override
+    public void toLog(double[] frame, int offset) {
+        frame[offset] = isOpen ? 1 : 0;
+    }
 }
@@ -0,0 +1,102 @@
+package frc.robot.subsystems;
+
+// Imports
+import edu.wpi.first.wpilibj2.command.SubsystemBase;
+import frc.robot.io.CompressorIO;
+import frc.robot.logging.DriverStationInputs;
+import frc.robot.logging.Loggable;
+
+import static frc.robot.Constants.PneumaticsConstants.*;
+
+/** Decides when the compressor runs. The compressor is stopped while the drivetrain and arm are
+ *  pulling hard on the battery, and catches up once they calm down. It always runs when the air
+ *  left in the tanks drops to a reserve of claw actuations, no matter the load */
+public class CompressorScheduler extends SubsystemBase implements PhasedSubsystem, Loggable {
+    private final CompressorIO io;
+    private final CompressorIO.Inputs inputs = new CompressorIO.Inputs();
+    /** The battery voltage and loop time, read once each loop */
+    private final DriverStationInputs driverStation;
+    private final Drivetrain drivetrain;
+    private final Arm arm;
+    private final Claw claw;
+
+    /** The pressure switch only says whether the tanks are full, so the air in between is estimated */
+    private double estimatedActuations = 0;
+    private int lastClawActuations;
+    private double lastTimestamp = Double.NaN;
+    private double lastHighLoadTimestamp = Double.NEGATIVE_INFINITY;
+
+    private double loadAmps;
+    private boolean highLoad;
+    private boolean run;
+
+    private static final String[] LOG_FIELDS = { "Estimated Actuations", "Load Amps", "High Load", "Run" };
+
+    /**
+     * Constructs a CompressorScheduler
+     *
+     * @param driverStation The battery voltage and loop time, read once each loop
+     * @param io The compressor
+     * @param drivetrain The drivetrain, whose current draw is watched
+     * @param arm The arm, whose current draw is watched
+     * @param claw The claw, whose actuations use up air
+     */
+    public CompressorScheduler(DriverStationInputs driverStation, CompressorIO io, Drivetrain drivetrain, Arm arm,
+        Claw claw) {
+        this.driverStation = driverStation;
+        this.io = io;
+        this.drivetrain = drivetrain;
+        this.arm = arm;
+        this.claw = claw;
+        lastClawActuations = claw.getActuationCount();
+    }
+
+    /** @return About how many claw actuations are left in the tanks */
+    public double getEstimatedActuations() { return estimatedActuations; }
+    /** @return The values read from the compressor this loop, so they can be logged and replayed */
+    public CompressorIO.Inputs getInputs() { return inputs; }
+
+    @Override
+    public void readInputs() { io.updateInputs(inputs); }
+
+    @Override // Called every 20ms
+    public void periodic() {
+        double timestamp = driverStation.getTimestamp();
+        double dt = Double.isNaN(lastTimestamp) ? 0 : timestamp - lastTimestamp;
+        lastTimestamp = timestamp;
+
+        // Air goes in while the compressor draws current and comes out each time the claw moves
+        if (inputs.amps > 1)
+            estimatedActuations += dt / REFILL_SECONDS_PER_ACTUATION;
+        int clawActuations = claw.getActuationCount();
+        estimatedActuations -= clawActuations - lastClawActuations;
+        lastClawActuations = clawActuations;
+
+        if (inputs.pressureFull)
+            estimatedActuations = TANK_ACTUATIONS;
+        estimatedActuations = Math.max(0, Math.min(TANK_ACTUATIONS, estimatedActuations));
+
+        // Stay off through a high load and a little after it, since loads come in bursts
+        loadAmps = drivetrain.getTotalCurrent() + arm.getTotalCurrent();
+        highLoad = loadAmps > HIGH_LOAD_AMPS || driverStation.getBatteryVolts() < LOW_BATTERY_VOLTS;
+        if (highLoad)
+            lastHighLoadTimestamp = timestamp;
+        boolean inHighLoadWindow = timestamp - lastHighLoadTimestamp < HIGH_LOAD_HOLD;
+
+        run = estimatedActuations <= RESERVE_ACTUATIONS || !inHighLoadWindow;
+    }
+
+    @Override
+    public void writeOutputs() { io.setEnabled(run); }
+
+    @Override
+    public String[] getLogFields() { return LOG_FIELDS; }
+
+    @Override
+    public void toLog(double[] frame, int offset) {
+        frame[offset] = estimatedActuations;
+        frame[offset + 1] = loadAmps;
+        frame[offset + 2] = highLoad ? 1 : 0;
+        frame[offset + 3] = run ? 1 : 0;
+    }
+}
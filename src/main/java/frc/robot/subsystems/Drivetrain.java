@@ -10,83 +10,71 @@ import edu.wpi.first.math.filter.SlewRateLimiter;
 import java.util.Map;
 import java.util.HashMap;
 
-// Gyro imports
-import com.kauailabs.navx.frc.AHRS;
-import edu.wpi.first.wpilibj.SPI;
+// Hardware imports
+import frc.robot.io.GyroIO;
+import frc.robot.io.SwerveModuleIO;
+import frc.robot.logging.DriverStationInputs;
+import frc.robot.utils.SwerveSetpointGenerator;
+import frc.robot.utils.TipLimiter;
+import frc.robot.utils.TractionMonitor;
 
 // Import constants
+import frc.robot.logging.Loggable;
 import frc.robot.Constants.SwerveConstants.ModulePosition;
 import frc.robot.Constants.SwerveConstants;
-import static frc.robot.Constants.SwerveIDs.*;
-import static frc.robot.Constants.SwerveInversions.*;
-import static frc.robot.Constants.SwerveModuleOffsets.*;
 import static frc.robot.Constants.SwerveConstants.*;
 import static frc.robot.Constants.DriveConstants.*;
 
 /** This class represents the drivetrain on the robot */
-public class Drivetrain extends SubsystemBase {
+public class Drivetrain extends SubsystemBase implements PhasedSubsystem, Loggable {
 
-    // Construct each swerve module
     /** The front left (FL) {@link SwerveModule}. Module number is 0 */
-    private SwerveModule frontLeftModule = new SwerveModule(0,
-        FL_DRIVE_ID,
-        FL_TURN_ID,
-        FL_ENCODER_ID,
-        INVERT_FL_DRIVE,
-        INVERT_FL_TURN,
-        FL_OFFSET);
-
+    private final SwerveModule frontLeftModule;
     /** The front right (FR) {@link SwerveModule}. Module number is 1 */
-    private SwerveModule frontRightModule = new SwerveModule(1,
-        FR_DRIVE_ID,
-        FR_TURN_ID,
-        FR_ENCODER_ID,
-        INVERT_FR_DRIVE,
-        INVERT_FR_TURN,
-        FR_OFFSET);
-
+    private final SwerveModule frontRightModule;
     /** The rear left (RL) {@link SwerveModule}. Module number is 2 */
-    private SwerveModule rearLeftModule = new SwerveModule(2,
-        RL_DRIVE_ID,
-        RL_TURN_ID,
-        RL_ENCODER_ID,
-        INVERT_RL_DRIVE,
-        INVERT_RL_TURN,
-        RL_OFFSET);
-
+    private final SwerveModule rearLeftModule;
     /** The rear right (RR) {@link SwerveModule}. Module number is 3 */
-    private SwerveModule rearRightModule = new SwerveModule(3,
-        RR_DRIVE_ID,
-        RR_TURN_ID,
-        RR_ENCODER_ID,
-        INVERT_RR_DRIVE,
-        INVERT_RR_TURN,
-        RR_OFFSET);
+    private final SwerveModule rearRightModule;
 
     /** A {@link HashMap} associating each {@link SwerveModule module} with its {@link ModulePosition position} */
-    private final HashMap<ModulePosition, SwerveModule> swerveModules =
-        new HashMap<>(
-            Map.of(
-                ModulePosition.FRONT_LEFT,
-                frontLeftModule,
-
-                ModulePosition.FRONT_RIGHT,
-                frontRightModule,
+    private final HashMap<ModulePosition, SwerveModule> swerveModules;
 
-                ModulePosition.REAR_LEFT,
-                rearLeftModule,
+    private static final String[] LOG_FIELDS = {
+        "Heading", "Pose X", "Pose Y", "Pose Degrees", "Field Centric",
+        "Command X", "Command Y", "Command Rot", "COG Forward", "COG Height", "Min Accel Limit",
+        "Slipping Modules", "Traction VX", "Traction VY"
+    };
 
-                ModulePosition.REAR_RIGHT,
-                rearRightModule));
+    /** The last processed drive instruction, after deadband and slew */
+    private double commandX, commandY, commandRot;
 
+    /** Every {@link ModulePosition}, cached because values() copies the array each call */
+    private static final ModulePosition[] MODULE_POSITIONS = ModulePosition.values();
 
-    // Declare and initialize the limiters used to slew instructions
-    private final SlewRateLimiter slewX = new SlewRateLimiter(TRANSLATION_SLEW);
-    private final SlewRateLimiter slewY = new SlewRateLimiter(TRANSLATION_SLEW);
+    // Declare and initialize the limiter used to slew rotation. Translation is limited by how far the robot can lean
     private final SlewRateLimiter slewRot = new SlewRateLimiter(ROTATION_SLEW);
+    /** Finds how fast the robot may accelerate without tipping, from where the arm is */
+    private final TipLimiter tipLimiter = new TipLimiter();
+    /** The arm, which moves the robot's center of gravity. Null until set */
+    private Arm arm;
+    /** Finds which modules are slipping, so they can be eased off and left out of odometry */
+    private final TractionMonitor tractionMonitor = new TractionMonitor(MODULE_TRANSLATIONS);
+    /** Each module's speed, angle and distance, passed to the traction monitor and reused each loop */
+    private final double[] moduleSpeeds = new double[4], moduleAngles = new double[4], moduleMeters = new double[4];
+    /** When the traction monitor last updated, NaN before the first time */
+    private double lastTractionTimestamp = Double.NaN;
+
+    /** The battery voltage and loop time, read once each loop */
+    private final DriverStationInputs driverStation;
 
     /** The gyro is used to help keep track of where the robot is facing */
-    private final AHRS gyro = new AHRS(SPI.Port.kMXP, (byte) 200);
+    private final GyroIO gyroIO;
+    private final GyroIO.Inputs gyroInputs = new GyroIO.Inputs();
+    /** The gyro angle that counts as facing forward, moved by {@link #resetHeading()} */
+    private double headingOffsetDegrees = 0;
+    /** Whether the heading is reset once the gyro is next read */
+    private boolean headingResetPending = false;
 
     /** While the robot is in field centric mode, forward is a defined direction.
      *  Conversely, if the robot is not in field centric mode, it is robot centric.
@@ -94,19 +82,62 @@ public class Drivetrain extends SubsystemBase {
     private boolean isFieldCentric = true;
 
     /** Used to track the robot's position as it moves */
-    private SwerveDriveOdometry odometry =
-        new SwerveDriveOdometry(
+    private SwerveDriveOdometry odometry;
+
+    /** Keeps each drive instruction within what the modules can reach by the next loop */
+    private final SwerveSetpointGenerator setpointGenerator = new SwerveSetpointGenerator(
+        MODULE_TRANSLATIONS, MAX_TRANSLATION_SPEED, MAX_MODULE_ACCELERATION, MAX_MODULE_STEERING_SPEED);
+    /** The state each module was last told to reach, reused each loop */
+    private final SwerveModuleState[] previousStates = new SwerveModuleState[4];
+    /** Whether drive instructions are corrected for the robot turning while it carries them out */
+    private boolean isDiscretized = true;
+    
+    /**
+     * Constructs a drivetrain {@link SubsystemBase subsystem}
+     *
+     * @param driverStation The battery voltage and loop time, read once each loop
+     * @param gyroIO The gyro
+     * @param frontLeftIO The hardware of the front left module
+     * @param frontRightIO The hardware of the front right module
+     * @param rearLeftIO The hardware of the rear left module
+     * @param rearRightIO The hardware of the rear right module
+     */
+    public Drivetrain(DriverStationInputs driverStation, GyroIO gyroIO, SwerveModuleIO frontLeftIO,
+        SwerveModuleIO frontRightIO, SwerveModuleIO rearLeftIO, SwerveModuleIO rearRightIO) {
+        this.driverStation = driverStation;
+        this.gyroIO = gyroIO;
+        gyroIO.reset();
+        gyroIO.updateInputs(gyroInputs);
+
+        // Construct each swerve module
+        frontLeftModule = new SwerveModule(0, frontLeftIO, driverStation);
+        frontRightModule = new SwerveModule(1, frontRightIO, driverStation);
+        rearLeftModule = new SwerveModule(2, rearLeftIO, driverStation);
+        rearRightModule = new SwerveModule(3, rearRightIO, driverStation);
+
+        swerveModules = new HashMap<>(
+            Map.of(
+                ModulePosition.FRONT_LEFT,
+                frontLeftModule,
+
+                ModulePosition.FRONT_RIGHT,
+                frontRightModule,
+
+                ModulePosition.REAR_LEFT,
+                rearLeftModule,
+
+                ModulePosition.REAR_RIGHT,
+                rearRightModule));
+
+        // Odometry always uses the distances corrected for slipping, which start as the measured ones
+        updateTraction();
+        odometry = new SwerveDriveOdometry(
             SwerveConstants.SWERVE_KINEMATICS,
             getHeadingRotation2d(),
-            getModulePositions(),
+            getOdometryPositions(),
             new Pose2d());
-    
-    /** Constructs a drivetrain {@link SubsystemBase subsystem} */
-    public Drivetrain() {
-        gyro.reset();
     }
 
-
     /** 
      * Drives the robot
      *  
@@ -115,30 +146,57 @@ public class Drivetrain extends SubsystemBase {
      * @param inputRot The rotational instruction
     */
     public void drive(double inputX, double inputY, double inputRot) {
-        // If a translation input is between -.05 and .05, set it to 0
-        double deadbandedX = MathUtil.applyDeadband(Math.abs(inputX),
-            TRANSLATION_DEADBAND) * Math.signum(inputX);
-        double deadbandedY = MathUtil.applyDeadband(Math.abs(inputY),
-            TRANSLATION_DEADBAND) * Math.signum(inputY);
-
-        // If the rotation input is between -.1 and .1, set it to 0
-        double deadbandedRot = MathUtil.applyDeadband(Math.abs(inputRot),
-            ROTATION_DEADBAND) * Math.signum(inputRot);
-
-        // Square values after deadband while keeping original sign
-        deadbandedX = -Math.signum(deadbandedX) * Math.pow(deadbandedX, 2);
-        deadbandedY = -Math.signum(deadbandedY) * Math.pow(deadbandedY, 2);
-        deadbandedRot = -Math.signum(deadbandedRot) * Math.pow(deadbandedRot, 2);
-
-        // Apply a slew rate to the inputs, limiting the rate at which the robot changes speed
-        double slewedX = slewX.calculate(deadbandedX);
-        double slewedY = slewY.calculate(deadbandedY);
+        // Deadband and square each instruction
+        double deadbandedX = shapeInput(inputX, TRANSLATION_DEADBAND);
+        double deadbandedY = shapeInput(inputY, TRANSLATION_DEADBAND);
+        double deadbandedRot = shapeInput(inputRot, ROTATION_DEADBAND);
+
+        // Limit how fast the translation instruction changes as a whole, so the robot speeds up
+        // and slows down in any direction only as fast as it can without tipping that way
+        double changeX = deadbandedX - commandX;
+        double changeY = deadbandedY - commandY;
+        double change = Math.hypot(changeX, changeY);
+        if (change > 1e-9) {
+            // Tipping depends on the direction relative to the robot, not the field.
+            // Y is forward and X is left, the same as in sendDrive()
+            double forward = changeY;
+            double left = changeX;
+            if (isFieldCentric) {
+                double heading = Math.toRadians(getHeadingDegrees());
+                forward = changeY * Math.cos(heading) + changeX * Math.sin(heading);
+                left = -changeY * Math.sin(heading) + changeX * Math.cos(heading);
+            }
+            double maxChange = tipLimiter.getMaxAcceleration(forward, left) / MAX_TRANSLATION_SPEED * SETPOINT_PERIOD;
+            if (change > maxChange) {
+                changeX *= maxChange / change;
+                changeY *= maxChange / change;
+            }
+        }
+        double slewedX = commandX + changeX;
+        double slewedY = commandY + changeY;
         double slewedRot = slewRot.calculate(deadbandedRot);
 
+        commandX = slewedX;
+        commandY = slewedY;
+        commandRot = slewedRot;
+
         // Send the processed output to the drivetrain
         sendDrive(slewedX, slewedY, slewedRot, true);
     }
 
+    /**
+     * Shapes a joystick instruction. Values closer to 0 than the deadband are set to 0,
+     * then the value is squared and flipped, keeping its original sign
+     *
+     * @param input The raw instruction from -1 to 1
+     * @param deadband Instructions closer to 0 than this are set to 0
+     * @return The shaped instruction
+     */
+    public static double shapeInput(double input, double deadband) {
+        double deadbanded = MathUtil.applyDeadband(Math.abs(input), deadband) * Math.signum(input);
+        return -Math.signum(deadbanded) * Math.pow(deadbanded, 2);
+    }
+
     /** 
      * Sends instructions to the motors that drive the robot
      *  
@@ -162,29 +220,160 @@ public class Drivetrain extends SubsystemBase {
                 // Calculate robot centric instructions if isFieldCentric is false
                 : new ChassisSpeeds(translationY, translationX, rotation);
 
-        // Convert ChassisSpeed instructions to useable SwerveModuleStates
-        SwerveModuleState[] moduleStates = SWERVE_KINEMATICS.toSwerveModuleStates(chassisSpeeds);
+        // The instruction was already kept from tipping the robot, in whichever direction it accelerates
+        setChassisSpeeds(chassisSpeeds, isOpenLoop, MAX_MODULE_ACCELERATION);
+    }
 
-        // Normalize output if any of the modules would be instructed to go faster than possible
-        SwerveDriveKinematics.desaturateWheelSpeeds(moduleStates, MAX_TRANSLATION_SPEED);
+    /** Drives the robot as close to some speeds as the modules can reach by the next loop, using each
+     *  module's velocity PID so the speed does not depend on the battery. Used by path following
+     *  @param speeds How the robot should move, relative to the robot */
+    public void setChassisSpeeds(ChassisSpeeds speeds) {
+        // Paths are planned without knowing where the arm is, so hold them to the weakest direction
+        setChassisSpeeds(speeds, false, tipLimiter.getMinAcceleration());
+    }
+
+    /**
+     * Drives the robot as close to some speeds as the modules can reach by the next loop
+     *
+     * @param speeds How the robot should move, relative to the robot
+     * @param isOpenLoop True to control the driving motor via %power.
+     *                   False to control the driving motor via velocity-based PID.
+     * @param maxAcceleration The most any module's speed may change in m/sec per second
+     */
+    private void setChassisSpeeds(ChassisSpeeds speeds, boolean isOpenLoop, double maxAcceleration) {
+        if (isDiscretized)
+            speeds = discretize(speeds, SETPOINT_PERIOD, ACTUATION_LATENCY);
+
+        // Start from what each module was last told, even if that was not from this method
+        for (int i = 0; i < 4; i++)
+            previousStates[i] = getSwerveModule(i).getDesiredState();
+        setpointGenerator.setMaxAcceleration(maxAcceleration);
+        SwerveModuleState[] moduleStates = setpointGenerator.generate(speeds, previousStates, SETPOINT_PERIOD);
 
         // Send instructions to each module
-        for (SwerveModule module : swerveModules.values())
-            module.setDesiredState(moduleStates[module.getModuleNumber()], isOpenLoop);
+        for (int i = 0; i < 4; i++)
+            getSwerveModule(i).setDesiredState(moduleStates[i], isOpenLoop);
     }
 
+    /**
+     * Corrects speeds for the robot turning while it drives them. Speeds are held for a whole period,
+     * so a robot spinning while it translates curves off toward the direction it spins. Instead this
+     * finds the speeds that, held over the period, end where the straight line would have. The robot also
+     * keeps turning for a short time before the modules act, so translation is turned back to match.
+     *
+     * @param speeds How the robot should move, relative to the robot
+     * @param dt How long the speeds are held in seconds
+     * @param latency The seconds before the modules act on the speeds
+     * @return The corrected speeds
+     */
+    public static ChassisSpeeds discretize(ChassisSpeeds speeds, double dt, double latency) {
+        // Where the robot would end up after moving in a straight line, relative to where it starts
+        double dx = speeds.vxMetersPerSecond * dt;
+        double dy = speeds.vyMetersPerSecond * dt;
+        double dtheta = speeds.omegaRadiansPerSecond * dt;
+
+        // Turn translation back by how far the robot spins before the modules act
+        double lag = -speeds.omegaRadiansPerSecond * latency;
+        double lagCos = Math.cos(lag);
+        double lagSin = Math.sin(lag);
+        double x = dx * lagCos - dy * lagSin;
+        double y = dx * lagSin + dy * lagCos;
+
+        // The twist that ends at that pose, the same math as Pose2d.log() without making any objects
+        double halfTheta = dtheta / 2;
+        double cosMinusOne = Math.cos(dtheta) - 1;
+        double halfThetaByTanOfHalfTheta = Math.abs(cosMinusOne) < 1e-9
+            ? 1 - dtheta * dtheta / 12
+            : -(halfTheta * Math.sin(dtheta)) / cosMinusOne;
+
+        return new ChassisSpeeds(
+            (x * halfThetaByTanOfHalfTheta + y * halfTheta) / dt,
+            (y * halfThetaByTanOfHalfTheta - x * halfTheta) / dt,
+            speeds.omegaRadiansPerSecond);
+    }
+
+    /** @param isDiscretized Whether drive instructions are corrected for the robot turning while it
+     *  carries them out. Only turned off to measure how much the correction helps */
+    public void setDiscretized(boolean isDiscretized) { this.isDiscretized = isDiscretized; }
+
     // Misc getters
     /** @return The current direction the robot is facing in degrees */
-    public double getHeadingDegrees() { return -Math.IEEEremainder(gyro.getAngle(), 360); }
+    public double getHeadingDegrees() { return -Math.IEEEremainder(gyroInputs.angleDegrees - headingOffsetDegrees, 360); }
     /** @return The current direction the robot is facing as a {@link Rotation2d} object */
     public Rotation2d getHeadingRotation2d() { return Rotation2d.fromDegrees(getHeadingDegrees()); }
-    /** Reset the heading of the robot, effectively changing the orientation of the field */
-    public void resetHeading() { gyro.reset(); }
+    /** Reset the heading of the robot, effectively changing the orientation of the field.
+     *  Takes effect once the gyro is next read, at the start of the next loop, and leaves the pose where it is */
+    public void resetHeading() { headingResetPending = true; }
+    /** @return The gyro values read this loop, so they can be logged and replayed */
+    public GyroIO.Inputs getGyroInputs() { return gyroInputs; }
+    /** @return How far the robot is tilted forward and back in degrees, front up positive */
+    public double getPitchDegrees() { return gyroInputs.pitchDegrees; }
+    /** @return How far the robot is tilted left and right in degrees, left side up positive */
+    public double getRollDegrees() { return gyroInputs.rollDegrees; }
+    /** @return How fast the robot's pitch is changing in degrees/sec */
+    public double getPitchRate() { return gyroInputs.pitchRateDegreesPerSecond; }
+    /** @return How fast the robot's roll is changing in degrees/sec */
+    public double getRollRate() { return gyroInputs.rollRateDegreesPerSecond; }
     /** @return The position in meters and direction of the robot in degrees as a {@link Pose2d} object */
     public Pose2d getPoseMeters() { return odometry.getPoseMeters(); }
+    /** @return The current robot relative velocity of the robot as a {@link ChassisSpeeds} object */
+    public ChassisSpeeds getChassisSpeeds() { return SWERVE_KINEMATICS.toChassisSpeeds(getModuleStates()); }
+    /** @return How fast the robot is currently translating in m/sec */
+    public double getTranslationSpeed() {
+        ChassisSpeeds speeds = getChassisSpeeds();
+        return Math.hypot(speeds.vxMetersPerSecond, speeds.vyMetersPerSecond);
+    }
+    /** @return How far the modules have driven in meters, on average */
+    public double getAverageDriveMeters() {
+        double meters = 0;
+        for (int i = 0; i < 4; i++)
+            meters += getSwerveModule(i).getDriveMeters();
+        return meters / 4;
+    }
+    /** @return How fast the modules are driving in m/sec, on average */
+    public double getAverageDriveSpeed() {
+        double speed = 0;
+        for (int i = 0; i < 4; i++)
+            speed += getSwerveModule(i).getDriveMetersPerSecond();
+        return speed / 4;
+    }
+    /** Points every module forward and drives them at a voltage, with no feedback. Used to characterize the drive
+     *  @param volts The voltage to send to each driving motor */
+    public void setDriveVoltage(double volts) {
+        for (int i = 0; i < 4; i++)
+            getSwerveModule(i).setDriveVoltage(volts);
+    }
+    /** @return The current drawn by every drive and turning motor */
+    public double getTotalCurrent() {
+        double amps = 0;
+        for (SwerveModule module : swerveModules.values())
+            amps += module.getInputs().driveAmps + module.getInputs().turnAmps;
+        return amps;
+    }
+    /** @return The most current drawn by any one driving motor */
+    public double getMaxDriveCurrent() {
+        double amps = 0;
+        for (SwerveModule module : swerveModules.values())
+            amps = Math.max(amps, module.getInputs().driveAmps);
+        return amps;
+    }
+    /** @return The most current drawn by any one turning motor */
+    public double getMaxTurnCurrent() {
+        double amps = 0;
+        for (SwerveModule module : swerveModules.values())
+            amps = Math.max(amps, module.getInputs().turnAmps);
+        return amps;
+    }
+    /** Changes the most current each drivetrain motor may draw. Slow, so only call when the limits change
+     *  @param driveAmps The limit of each driving motor
+     *  @param turnAmps The limit of each turning motor */
+    public void setCurrentLimits(int driveAmps, int turnAmps) {
+        for (SwerveModule module : swerveModules.values())
+            module.setCurrentLimits(driveAmps, turnAmps);
+    }
     /** @param moduleNumber The index of the module 
      *  @return The {@link SwerveModule swerve module} at that index */
-    public SwerveModule getSwerveModule(int moduleNumber) { return swerveModules.get(ModulePosition.values()[moduleNumber]); }
+    public SwerveModule getSwerveModule(int moduleNumber) { return swerveModules.get(MODULE_POSITIONS[moduleNumber]); }
     /** @param position The {@link ModulePosition position} of the module
      *  @return The {@link SwerveModule swerve module} at that position */
     public SwerveModule getSwerveModule(ModulePosition position) { return swerveModules.get(ModulePosition.FRONT_LEFT); }
@@ -206,7 +395,7 @@ public class Drivetrain extends SubsystemBase {
          for (SwerveModule module : swerveModules.values())
             module.setDesiredState(
                 new SwerveModuleState(0, new Rotation2d(0)),    
-                true);
+                true, true);
     }
 
     /** @return An array containing the current {@link SwerveModuleState state} of each module */
@@ -219,7 +408,8 @@ public class Drivetrain extends SubsystemBase {
         };
     }
 
-    /** Set the state of each module at once
+    /** Set the state of each module at once, without limiting how fast the modules change. Each module turns to
+     *  its state's angle even when stopped. Used for poses like locking the wheels, not for driving
      *  @param states An array containing the desired {@link SwerveModuleState state} of each module */
     public void setModuleStates(SwerveModuleState[] states) {
         // Normalize output if any of the modules would be instructed to go faster than possible
@@ -227,7 +417,7 @@ public class Drivetrain extends SubsystemBase {
 
         // Send instructions to each module
         for (SwerveModule module : swerveModules.values())
-            module.setDesiredState(states[module.getModuleNumber()], true);
+            module.setDesiredState(states[module.getModuleNumber()], false, true);
     }
 
     /** Set the state of each to 0,0 */
@@ -247,10 +437,20 @@ public class Drivetrain extends SubsystemBase {
         };
     }
 
+    /** @return The {@link SwerveModulePosition position} of each module, with the distance a slipping module's
+     *  wheel measured replaced by how far it should have driven. Odometry always uses these */
+    public SwerveModulePosition[] getOdometryPositions() {
+        SwerveModulePosition[] positions = new SwerveModulePosition[4];
+        for (int i = 0; i < 4; i++)
+            positions[i] = new SwerveModulePosition(
+                tractionMonitor.getCorrectedMeters(i), getSwerveModule(i).getHeadingRotation2d());
+        return positions;
+    }
+
     /** Updates the odometry of the robot using the {@link SwerveModulePosition position} 
      *  of each module and the current heading of the robot */
     public void updateOdometry() {
-        odometry.update(getHeadingRotation2d(), getModulePositions());
+        odometry.update(getHeadingRotation2d(), getOdometryPositions());
 
         for (SwerveModule module : swerveModules.values()) {
         var modulePositionFromChassis =
@@ -269,7 +469,7 @@ public class Drivetrain extends SubsystemBase {
     public void setOdometry( Pose2d pose) {
         odometry.resetPosition(
             getHeadingRotation2d(),
-            getModulePositions(),
+            getOdometryPositions(),
             pose);
     }
 
@@ -277,12 +477,91 @@ public class Drivetrain extends SubsystemBase {
     public void resetOdometry() {
         odometry.resetPosition(
             getHeadingRotation2d(),
-            getModulePositions(),
+            getOdometryPositions(),
             new Pose2d());
     }
 
-    @Override // Called every 20ms
-    public void periodic() {
+    /** Turns every module toward its target angle. Runs faster than the main loop */
+    public void updateSteering() {
+        for (int i = 0; i < 4; i++)
+            getSwerveModule(i).updateSteering();
+    }
+
+    @Override
+    public void readInputs() {
+        gyroIO.updateInputs(gyroInputs);
+        for (int i = 0; i < 4; i++)
+            getSwerveModule(i).updateInputs();
+    }
+
+    /** @param arm The arm, which moves the robot's center of gravity and so limits how fast it may accelerate */
+    public void setArm(Arm arm) { this.arm = arm; }
+    /** @return Finds how fast the robot may accelerate without tipping */
+    public TipLimiter getTipLimiter() { return tipLimiter; }
+    /** @return Finds which modules are slipping */
+    public TractionMonitor getTractionMonitor() { return tractionMonitor; }
+
+    /** Compares each module to the gyro, the accelerometer and the other modules to find which are
+     *  slipping, and eases off those modules' outputs. Should be called once every loop, before odometry */
+    private void updateTraction() {
+        for (int i = 0; i < 4; i++) {
+            SwerveModule module = getSwerveModule(i);
+            moduleSpeeds[i] = module.getDriveMetersPerSecond();
+            moduleAngles[i] = module.getHeadingDegrees();
+            moduleMeters[i] = module.getDriveMeters();
+        }
+        double now = driverStation.getTimestamp();
+        double dt = Double.isNaN(lastTractionTimestamp) ? 0 : now - lastTractionTimestamp;
+        lastTractionTimestamp = now;
+
+        // The gyro measures clockwise as positive
+        tractionMonitor.update(moduleSpeeds, moduleAngles, moduleMeters,
+            -Math.toRadians(gyroInputs.yawRateDegreesPerSecond),
+            gyroInputs.accelForwardG, gyroInputs.accelLeftG, gyroInputs.connected, dt);
+
+        for (int i = 0; i < 4; i++)
+            getSwerveModule(i).setOutputScale(tractionMonitor.getOutputScale(i));
+    }
+
+    @Override
+    public void updateEstimates() {
+        updateTraction();
         updateOdometry();
+        if (headingResetPending) {
+            // Whatever the gyro reads now is forward, and odometry carries on from the same pose
+            headingResetPending = false;
+            headingOffsetDegrees = gyroInputs.angleDegrees;
+            odometry.resetPosition(getHeadingRotation2d(), getOdometryPositions(), getPoseMeters());
+        }
+        if (arm != null)
+            tipLimiter.update(arm.getRotationPos(), arm.getTelescopePos(), arm.getSliderPos());
+    }
+
+    @Override
+    public void writeOutputs() {
+        for (int i = 0; i < 4; i++)
+            getSwerveModule(i).writeOutput();
+    }
+
+    @Override
+    public String[] getLogFields() { return LOG_FIELDS; }
+
+    @Override
+    public void toLog(double[] frame, int offset) {
+        Pose2d pose = getPoseMeters();
+        frame[offset] = getHeadingDegrees();
+        frame[offset + 1] = pose.getX();
+        frame[offset + 2] = pose.getY();
+        frame[offset + 3] = pose.getRotation().getDegrees();
+        frame[offset + 4] = isFieldCentric ? 1 : 0;
+        frame[offset + 5] = commandX;
+        frame[offset + 6] = commandY;
+        frame[offset + 7] = commandRot;
+        frame[offset + 8] = tipLimiter.getForwardMeters();
+        frame[offset + 9] = tipLimiter.getHeightMeters();
+        frame[offset + 10] = tipLimiter.getMinAcceleration();
+        frame[offset + 11] = tractionMonitor.getSlippingCount();
+        frame[offset + 12] = tractionMonitor.getVelocityX();
+        frame[offset + 13] = tractionMonitor.getVelocityY();
     }
 }
@@ -0,0 +1,13 @@
+package frc.robot.subsystems;
+
+/** A subsystem whose sensor reads and motor writes happen in the phases of the main loop instead of in
+ *  periodic(). Every subsystem reads its inputs, then every subsystem updates its estimates, then commands run,
+ *  then every subsystem writes its outputs, so nothing acts on a value left over from the last loop */
+public interface PhasedSubsystem {
+    /** Reads every sensor. Nothing may be sent to a motor */
+    default void readInputs() {}
+    /** Updates anything estimated from this loop's inputs, like odometry */
+    default void updateEstimates() {}
+    /** Sends what was decided this loop to the motors */
+    default void writeOutputs() {}
+}
@@ -0,0 +1,176 @@
+package frc.robot.subsystems;
+
+// Imports
+import edu.wpi.first.math.filter.LinearFilter;
+import edu.wpi.first.wpilibj2.command.SubsystemBase;
+import frc.robot.logging.DriverStationInputs;
+import frc.robot.logging.Loggable;
+import java.util.function.DoubleSupplier;
+
+import static frc.robot.Constants.PowerConstants.*;
+
+/** Shares a total current budget between every motor on the robot. The budget shrinks as the battery sags,
+ *  and is handed out by priority: every motor gets its minimum, then each group in turn gets what it is
+ *  drawing right now, then whatever is left goes to each group in turn up to its maximum.
+ *  New limits are only sent to the Spark Maxes when they change enough, since each one is a slow CAN call */
+public class PowerManager extends SubsystemBase implements PhasedSubsystem, Loggable {
+    /** Motors that always share the same current limit */
+    private static final class Group {
+        final int motors;
+        final double min;
+        final double max;
+        /** The current drawn by the group's hungriest motor */
+        final DoubleSupplier measuredAmps;
+        double target;
+        int applied = -1;
+        double lastRaiseTimestamp = Double.NEGATIVE_INFINITY;
+
+        Group(int motors, double[] limits, DoubleSupplier measuredAmps) {
+            this.motors = motors;
+            this.min = limits[0];
+            this.max = limits[1];
+            this.measuredAmps = measuredAmps;
+        }
+
+        /** @return Whether the target is far enough from the applied limit to be worth sending */
+        boolean needsUpdate(double timestamp) {
+            int limit = (int) Math.round(target);
+            if (applied < 0)
+                return true;
+            if (Math.abs(limit - applied) < LIMIT_STEP_AMPS)
+                return false;
+            // Lowering protects the battery, so it never waits
+            return limit < applied || timestamp - lastRaiseTimestamp >= LIMIT_RAISE_PERIOD;
+        }
+
+        /** @return The new limit, which is now the applied one */
+        int apply(double timestamp) {
+            int limit = (int) Math.round(target);
+            if (limit > applied)
+                lastRaiseTimestamp = timestamp;
+            applied = limit;
+            return limit;
+        }
+    }
+
+    /** The battery voltage and loop time, read once each loop */
+    private final DriverStationInputs driverStation;
+    private final Drivetrain drivetrain;
+    private final Arm arm;
+    private final CompressorScheduler compressor;
+
+    private final Group turn;
+    private final Group drive;
+    private final Group rotation;
+    private final Group telescope;
+    private final Group slider;
+    /** Every group from highest to lowest priority */
+    private final Group[] groups;
+
+    /** Smooths out noise in the voltage without hiding a real sag for long */
+    private final LinearFilter voltageFilter = LinearFilter.singlePoleIIR(.1, .02);
+    private double batteryVolts;
+    private double budgetAmps;
+    private int limitUpdates = 0;
+
+    private static final String[] LOG_FIELDS = {
+        "Battery Volts", "Budget Amps", "Turn Limit", "Drive Limit",
+        "Rotation Limit", "Telescope Limit", "Slider Limit", "Limit Updates"
+    };
+
+    /**
+     * Constructs a PowerManager
+     *
+     * @param driverStation The battery voltage and loop time, read once each loop
+     * @param drivetrain The drivetrain
+     * @param arm The arm
+     * @param compressor The compressor, whose draw comes out of the budget first
+     */
+    public PowerManager(DriverStationInputs driverStation, Drivetrain drivetrain, Arm arm,
+        CompressorScheduler compressor) {
+        this.driverStation = driverStation;
+        this.drivetrain = drivetrain;
+        this.arm = arm;
+        this.compressor = compressor;
+
+        turn = new Group(4, TURN_LIMITS, drivetrain::getMaxTurnCurrent);
+        drive = new Group(4, DRIVE_LIMITS, drivetrain::getMaxDriveCurrent);
+        rotation = new Group(2, ROTATION_LIMITS, () -> arm.getInputs().rotationAmps);
+        telescope = new Group(2, TELESCOPE_LIMITS, () -> arm.getInputs().telescopeAmps);
+        slider = new Group(1, SLIDER_LIMITS, () -> arm.getInputs().sliderAmps);
+        groups = new Group[] { turn, drive, rotation, telescope, slider };
+    }
+
+    /** @return The total current the motors may currently draw */
+    public double getBudgetAmps() { return budgetAmps; }
+
+    @Override // Called every 20ms
+    public void periodic() {
+        batteryVolts = voltageFilter.calculate(driverStation.getBatteryVolts());
+
+        // Shrink the budget linearly as the battery sags toward a brownout
+        double health = (batteryVolts - BROWNOUT_VOLTS) / (NOMINAL_VOLTS - BROWNOUT_VOLTS);
+        health = Math.max(0, Math.min(1, health));
+        budgetAmps = MIN_BUDGET_AMPS + health * (MAX_BUDGET_AMPS - MIN_BUDGET_AMPS);
+
+        // Every motor gets its minimum, even if that is over budget
+        double available = budgetAmps - compressor.getInputs().amps;
+        for (Group group : groups) {
+            group.target = group.min;
+            available -= group.min * group.motors;
+        }
+
+        // Then each group in turn gets what it is drawing now, then everything left up to its max
+        for (Group group : groups) {
+            double demand = Math.min(group.max, group.measuredAmps.getAsDouble() + DEMAND_MARGIN_AMPS);
+            available = give(group, demand, available);
+        }
+        for (Group group : groups)
+            available = give(group, group.max, available);
+    }
+
+    @Override
+    public void writeOutputs() {
+        // Motors that share a config call are updated together
+        double timestamp = driverStation.getTimestamp();
+        if (turn.needsUpdate(timestamp) || drive.needsUpdate(timestamp)) {
+            drivetrain.setCurrentLimits(drive.apply(timestamp), turn.apply(timestamp));
+            limitUpdates++;
+        }
+        if (rotation.needsUpdate(timestamp) || telescope.needsUpdate(timestamp) || slider.needsUpdate(timestamp)) {
+            arm.setCurrentLimits(rotation.apply(timestamp), telescope.apply(timestamp), slider.apply(timestamp));
+            limitUpdates++;
+        }
+    }
+
+    /**
+     * Raises a group's target toward a limit as far as the available current allows
+     *
+     * @param group The group to give current to
+     * @param limit The most each motor in the group should get
+     * @param available The current left in the budget
+     * @return The current left after this group is given its share
+     */
+    private static double give(Group group, double limit, double available) {
+        double perMotor = Math.min(limit - group.target, available / group.motors);
+        if (perMotor <= 0)
+            return available;
+        group.target += perMotor;
+        return available - perMotor * group.motors;
+    }
+
+    @Override
+    public String[] getLogFields() { return LOG_FIELDS; }
+
+    @Override
+    public void toLog(double[] frame, int offset) {
+        frame[offset] = batteryVolts;
+        frame[offset + 1] = budgetAmps;
+        frame[offset + 2] = turn.applied;
+        frame[offset + 3] = drive.applied;
+        frame[offset + 4] = rotation.applied;
+        frame[offset + 5] = telescope.applied;
+        frame[offset + 6] = slider.applied;
+        frame[offset + 7] = limitUpdates;
+    }
+}
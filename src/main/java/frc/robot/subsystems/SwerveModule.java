@@ -1,135 +1,117 @@
 package frc.robot.subsystems;
 
 // WPI imports
-import edu.wpi.first.wpilibj.RobotController;
 import edu.wpi.first.wpilibj2.command.SubsystemBase;
 
-// Motor related imports
-import com.revrobotics.CANSparkMax;
-import com.revrobotics.CANSparkMaxLowLevel;
-import com.revrobotics.CANSparkMaxLowLevel.MotorType;
-import com.revrobotics.SparkMaxPIDController;
-import com.revrobotics.RelativeEncoder;
-import com.ctre.phoenix.sensors.CANCoder;
+// Hardware imports
+import frc.robot.io.SwerveModuleIO;
+import frc.robot.logging.ControlSamples;
+import frc.robot.logging.DriverStationInputs;
 
 // Math imports
+import frc.robot.logging.Loggable;
 import frc.robot.utils.*;
 import edu.wpi.first.math.geometry.Pose2d;
 import edu.wpi.first.math.geometry.Rotation2d;
 import edu.wpi.first.math.kinematics.SwerveModuleState;
 import edu.wpi.first.math.kinematics.SwerveModulePosition;
 import edu.wpi.first.math.controller.PIDController;
+import edu.wpi.first.math.controller.SimpleMotorFeedforward;
 
 // Import constants
-import static frc.robot.Constants.SwerveConstants.ModuleConstants.*;
 import static frc.robot.Constants.SwerveConstants.MAX_TRANSLATION_SPEED;
+import static frc.robot.Constants.SwerveConstants.SETPOINT_PERIOD;
+import static frc.robot.Constants.SwerveConstants.ModuleConstants.*;
+import static frc.robot.Constants.SchedulerConstants.CONTROL_PERIOD;
 
 /** This class represents a single swerve module */
-public class SwerveModule extends SubsystemBase {
-    private final int VEL_SLOT = 1;
+public class SwerveModule extends SubsystemBase implements Loggable {
     private int moduleNumber;
-    private CANSparkMax turnMotor;
-    private CANSparkMax driveMotor;
+    private final SwerveModuleIO io;
+    private final SwerveModuleIO.Inputs inputs = new SwerveModuleIO.Inputs();
+    /** The sensor values read by the steering, which runs between loops and so keeps its own */
+    private final SwerveModuleIO.Inputs controlInputs = new SwerveModuleIO.Inputs();
+    /** Each heading the steering read, logged so a replay steers from the same headings */
+    private final ControlSamples steeringSamples = new ControlSamples("Angle");
+    /** The heading in degrees the steering last read */
+    private double controlHeadingDegrees;
+    /** The battery voltage the steering uses until the next loop has sent its outputs */
+    private double controlBatteryVolts;
+    /** The battery voltage, read once each loop */
+    private final DriverStationInputs driverStation;
     private SwerveModuleState state;
-    private SparkMaxPIDController driveController;
-    private RelativeEncoder driveEncoder;
-    private RelativeEncoder turnEncoder;
     private PIDController turnController;
-    private CANCoder angleEncoder;
-    private double angleOffset;
-    private double m_lastAngle;
+    /** Finds the volts the driving motor needs for a speed and acceleration, measured for this module */
+    private final SimpleMotorFeedforward driveFeedforward;
     private Pose2d pose;
+    /** The angle the turning motor was last told to point at */
+    private double targetAngle;
+    /** The %power last sent to the driving motor, NaN when using velocity PID */
+    private double driveOutput;
+    /** The feedforward volts sent with the last velocity setpoint */
+    private double driveFeedforwardVolts;
+    /** The voltage last sent to the turning motor */
+    private double turnVolts;
+    /** Whether a new state was set this loop that has not been sent to the driving motor yet */
+    private boolean driveOutputPending = false;
+    /** The part of its output the driving motor may use, less than 1 while the wheel slips */
+    private double outputScale = 1;
+
+    private static final String[] LOG_FIELDS = {
+        "Desired MPS", "Desired Angle", "Drive Output", "Drive Feedforward Volts", "Turn Volts", "Output Scale"
+    };
 
     /**
      * Constructs a SwerveModule.
      *
-     * @param position The position of the module being constructed. (see enum)
-     * @param driveMotor The ID of the driving motor.
-     * @param turnMotor The ID of the turning motor.
-     * @param absoluteEncoder The ID of the absolute encoder.
-     * @param driveMotorInverted Whether the driving motor is inverted.
-     * @param turningMotorInverted Whether the turning motor is inverted.
-     * @param turningEncoderOffset The encoder's reading when pointing forward.
+     * @param moduleNumber The number of the module being constructed. (see enum)
+     * @param io The hardware used by the module
+     * @param driverStation The battery voltage, read once each loop
      */
-    public SwerveModule(
-        int moduleNumber,
-        int driveMotorID,
-        int turnMotorID,
-        int absoluteEncoderID,
-        boolean driveMotorInverted,
-        boolean turningMotorInverted,
-        double turningEncoderOffset) {
-
-        // Initialize internal variables with values passed through paramsu
+    public SwerveModule(int moduleNumber, SwerveModuleIO io, DriverStationInputs driverStation) {
+        // Initialize internal variables with values passed through params
         this.moduleNumber = moduleNumber;
-        angleOffset = turningEncoderOffset;
-
-        // Construct and configure the driving motor
-        driveMotor = new CANSparkMax(driveMotorID, MotorType.kBrushless);
-        driveMotor.restoreFactoryDefaults();
-        driveMotor.setSmartCurrentLimit(45);
-        driveMotor.getPIDController().setFF(0.0);
-        driveMotor.getPIDController().setP(0.2);
-        driveMotor.getPIDController().setI(0.0);
-        driveMotor.setInverted(driveMotorInverted);
-        driveMotor.setPeriodicFramePeriod(CANSparkMaxLowLevel.PeriodicFrame.kStatus0, 100);
-        driveMotor.setPeriodicFramePeriod(CANSparkMaxLowLevel.PeriodicFrame.kStatus1, 20);
-        driveMotor.setPeriodicFramePeriod(CANSparkMaxLowLevel.PeriodicFrame.kStatus2, 20);
-        driveMotor.enableVoltageCompensation(12.6);
-        driveMotor.setIdleMode(CANSparkMax.IdleMode.kBrake);
-
-        // Initialize the driving motor's encoder
-        driveEncoder = driveMotor.getEncoder();
-        driveEncoder.setPositionConversionFactor(DRIVE_REVS_TO_M);
-        driveEncoder.setVelocityConversionFactor(DRIVE_RPM_TO_MPS);
-
-        // Initialize the driving motor's PID controller
-        driveController = driveMotor.getPIDController();
-
-        // Construct and configure the turning motor
-        turnMotor = new CANSparkMax(turnMotorID, MotorType.kBrushless);
-        turnMotor.restoreFactoryDefaults();
-        turnMotor.setSmartCurrentLimit(20);
-        turnMotor.getPIDController().setFF(0.0);
-        turnMotor.getPIDController().setP(0.2);
-        turnMotor.getPIDController().setI(0.0);
-        turnMotor.setInverted(turningMotorInverted);
-        turnMotor.setPeriodicFramePeriod(CANSparkMaxLowLevel.PeriodicFrame.kStatus0, 100);
-        turnMotor.setPeriodicFramePeriod(CANSparkMaxLowLevel.PeriodicFrame.kStatus1, 20);
-        turnMotor.setPeriodicFramePeriod(CANSparkMaxLowLevel.PeriodicFrame.kStatus2, 20);
-        turnMotor.enableVoltageCompensation(12.6);
-        turnMotor.setIdleMode(CANSparkMax.IdleMode.kBrake);
-
-        // Initialize the driving motor's encoder
-        turnEncoder = turnMotor.getEncoder();
-        turnEncoder.setPositionConversionFactor(TURNING_REVS_TO_DEG);
-        turnEncoder.setVelocityConversionFactor(TURNING_REVS_TO_DEG / 60);
-
-        // Construct a PID controller to help turn the module to a direction
-        turnController = new PIDController(.007, .00175, .0000625);
-
-        // Construct and initialize the absolute encoder
-        angleEncoder = new CANCoder(absoluteEncoderID);
-        angleEncoder.configFactoryDefault();
-        angleEncoder.configAllSettings(CtreUtils.generateCanCoderConfig());
+        this.io = io;
+        this.driverStation = driverStation;
+
+        // Construct a PID controller to help turn the module to a direction. It runs faster than the main loop
+        turnController = new PIDController(.007, .00175, .0000625, CONTROL_PERIOD);
+        driveFeedforward = new SimpleMotorFeedforward(
+            DRIVE_KS[moduleNumber], DRIVE_KV[moduleNumber], DRIVE_KA[moduleNumber]);
 
         // Point the module forward
+        updateInputs();
+        controlHeadingDegrees = inputs.angleDegrees;
+        controlBatteryVolts = driverStation.getBatteryVolts();
         resetAngleToAbsolute();
     }
 
+    /** Reads the newest values from the module's sensors, and keeps the headings the steering read since the
+     *  last loop for this loop's log. Should be called once every loop */
+    public void updateInputs() {
+        io.updateInputs(inputs);
+        steeringSamples.latch();
+    }
+    /** @return The sensor values read this loop, so they can be logged and replayed */
+    public SwerveModuleIO.Inputs getInputs() { return inputs; }
+    /** @return The headings the steering read before this loop, so they can be logged and replayed */
+    public ControlSamples getSteeringSamples() { return steeringSamples; }
+
     /** Useful for iterating over modules like an array
      *  @return the number of this module */
     public int getModuleNumber() { return moduleNumber; }
     /** @return the direction this module is facing in degrees */
-    public double getHeadingDegrees() { return turnEncoder.getPosition(); }
+    public double getHeadingDegrees() { return inputs.angleDegrees; }
     /** @return the direction this module is facing as a {@link Rotation2d} object */
     public Rotation2d getHeadingRotation2d() { return Rotation2d.fromDegrees(getHeadingDegrees()); }
     /** @return How far this module has driven total in meters */
-    public double getDriveMeters() { return driveEncoder.getPosition(); }
+    public double getDriveMeters() { return inputs.driveMeters; }
     /** @return The current speed of this module in m/sec */
-    public double getDriveMetersPerSecond() { return driveEncoder.getVelocity(); }
+    public double getDriveMetersPerSecond() { return inputs.driveMetersPerSecond; }
     /** @return The current {@link SwerveModuleState state} of this module */
     public SwerveModuleState getState() { return new SwerveModuleState(getDriveMetersPerSecond(), getHeadingRotation2d()); }
+    /** @return The {@link SwerveModuleState state} this module was last told to reach */
+    public SwerveModuleState getDesiredState() { return state != null ? state : new SwerveModuleState(); }
     /** @return The {@link SwerveModulePosition position} of this module 
      *  expressed as the total distance driven and current heading */
     public SwerveModulePosition getPosition() { return new SwerveModulePosition(getDriveMeters(), getHeadingRotation2d()); }
@@ -141,18 +123,17 @@ public class SwerveModule extends SubsystemBase {
 
     /** Set the turning motor's encoder to absolute zero */
     public void resetAngleToAbsolute() {
-        double angle = angleEncoder.getAbsolutePosition() - angleOffset;
-        turnEncoder.setPosition(angle);
+        io.setAngleDegrees(inputs.absoluteAngleDegrees);
     }
 
       /**Resets this modules drive encoder*/
       public void resetDriveEncoder(){
-        driveEncoder.setPosition(0);
+        io.setDriveMeters(0);
     }
 
     /**Resets this modules turn encoder */
     public void resetTurnEncoder(){
-        turnEncoder.setPosition(0);
+        io.setAngleDegrees(0);
     }
 
     /**Resets both turn and drive encoders for this module */
@@ -161,6 +142,11 @@ public class SwerveModule extends SubsystemBase {
         resetDriveEncoder();
     }
 
+    /** Changes the most current each motor may draw. Slow, so only call when the limits change
+     *  @param driveAmps The limit of the driving motor
+     *  @param turnAmps The limit of the turning motor */
+    public void setCurrentLimits(int driveAmps, int turnAmps) { io.setCurrentLimits(driveAmps, turnAmps); }
+
     /** Set the entire module to a desired {@link SwerveModuleState state}, controlling
      *  both the direction and speed at the same time
      * 
@@ -169,46 +155,107 @@ public class SwerveModule extends SubsystemBase {
      *                    False to control the driving motor via velocity-based PID.
      */
     public void setDesiredState(SwerveModuleState desiredState, boolean isOpenLoop) {
+        setDesiredState(desiredState, isOpenLoop, false);
+    }
+
+    /** Set the entire module to a desired {@link SwerveModuleState state}, controlling
+     *  both the direction and speed at the same time
+     * 
+     *  @param desiredState The {@link SwerveModuleState state} to set the module to
+     *  @param isOpenLoop True to control the driving motor via %power.
+     *                    False to control the driving motor via velocity-based PID.
+     *  @param steerWhenStopped True to turn the module to the state's angle even if its speed is about 0,
+     *                          like when locking the wheels. False to keep the last angle when stopped
+     */
+    public void setDesiredState(SwerveModuleState desiredState, boolean isOpenLoop, boolean steerWhenStopped) {
+        SwerveModuleState previousState = state;
         state = RevUtils.optimize(desiredState, getHeadingRotation2d());
 
-        if (isOpenLoop) {
-            // Calculate the %power for the driving motor
-            double percentOutput = state.speedMetersPerSecond / MAX_TRANSLATION_SPEED;
-            // Send instruction to the motor
-            driveMotor.set(percentOutput);
-        } 
-        else {
-            // Set the driving motor's PID controller to the desired speed
-            int DRIVE_PID_SLOT = VEL_SLOT;
-            driveController.setReference(
-                state.speedMetersPerSecond,
-                CANSparkMax.ControlType.kVelocity,
-                DRIVE_PID_SLOT
-            );
+        // Calculate the %power for the driving motor, or use the motor's velocity PID with a feedforward
+        // so the speed does not depend on the battery. It is sent to the motor by writeOutput()
+        driveOutput = isOpenLoop ? state.speedMetersPerSecond / MAX_TRANSLATION_SPEED : Double.NaN;
+        if (!isOpenLoop) {
+            // How fast the setpoint is speeding up along the way the module now points
+            double previousSpeed = previousState == null ? 0 : previousState.speedMetersPerSecond
+                * Math.cos(Math.toRadians(state.angle.getDegrees() - previousState.angle.getDegrees()));
+            double acceleration = (state.speedMetersPerSecond - previousSpeed) / SETPOINT_PERIOD;
+            driveFeedforwardVolts = driveFeedforward.calculate(state.speedMetersPerSecond, acceleration);
         }
+        driveOutputPending = true;
 
-        // Get the angle to turn the module to
-        double angle =
-            (Math.abs(state.speedMetersPerSecond) <= (MAX_TRANSLATION_SPEED * 0.01))
-                ? m_lastAngle
-                : state.angle.getDegrees(); // Prevent rotating module if speed is less than 1%. Prevents Jittering.
-    
-        // Point turning motor at the target angle
-        turnTo(angle);
+        // Keep pointing the way the module was last told to if speed is less than 1%. Prevents jittering.
+        // The turning motor is pointed at the target angle by updateSteering()
+        if (steerWhenStopped || Math.abs(state.speedMetersPerSecond) > MAX_TRANSLATION_SPEED * 0.01)
+            targetAngle = state.angle.getDegrees();
+    }
+
+    /** Points the module forward and drives it at a voltage, with no feedback. Used to characterize the drive
+     *  @param volts The voltage to send to the driving motor, positive driving forward */
+    public void setDriveVoltage(double volts) {
+        // Never flip the module around, so every module drives forward for the same voltage
+        targetAngle = Math.round(getHeadingDegrees() / 360) * 360.0;
+        state = new SwerveModuleState(0, Rotation2d.fromDegrees(targetAngle));
+        driveOutput = volts / 12;
+        driveOutputPending = false;
+        io.setDriveVoltage(volts);
+    }
+
+    /** Eases off the driving motor while the wheel slips, see {@link frc.robot.utils.TractionMonitor}
+     *  @param outputScale The part of its output the driving motor may use, from 0 to 1 */
+    public void setOutputScale(double outputScale) { this.outputScale = outputScale; }
+
+    /** Sends the driving instruction set this loop to the driving motor. Called in the output phase of the main loop.
+     *  The desired state is left as it was, so the next setpoint still starts from what was asked for */
+    public void writeOutput() {
+        // The steering runs until the next loop on this loop's battery voltage, as it does when replayed
+        controlBatteryVolts = driverStation.getBatteryVolts();
+
+        if (!driveOutputPending)
+            return;
+        driveOutputPending = false;
+
+        if (Double.isNaN(driveOutput))
+            io.setDriveVelocity(state.speedMetersPerSecond * outputScale, driveFeedforwardVolts * outputScale);
+        else
+            io.setDriveOutput(driveOutput * outputScale);
+    }
+
+    /** Reads the newest heading and turns the module toward the angle it was last told to point at.
+     *  Runs faster than the main loop, see {@link frc.robot.misc_subclasses.LoopScheduler} */
+    public void updateSteering() {
+        io.updateInputs(controlInputs);
+        controlHeadingDegrees = steeringSamples.sample(controlInputs.angleDegrees);
+        if (state != null)
+            turnTo(targetAngle);
     }
 
-    /** Turn the module to point in some direction
+    /** Turn the module to point in some direction, from the heading the steering last read
      * 
      *  @param angle the target angle in degrees
      */
     public void turnTo(double angle) {
-        double turnAngleError = Math.abs(angle - turnEncoder.getPosition());
+        targetAngle = angle;
+        double turnAngleError = Math.abs(angle - controlHeadingDegrees);
 
-        double pidOut = turnController.calculate(turnEncoder.getPosition(), angle);
+        double pidOut = turnController.calculate(controlHeadingDegrees, angle);
         // if robot is not moving, stop the turn motor oscillating
         if (turnAngleError < .5 && Math.abs(state.speedMetersPerSecond) <= 0.03)
             pidOut = 0;
 
-        turnMotor.setVoltage(pidOut * RobotController.getBatteryVoltage());
+        turnVolts = pidOut * controlBatteryVolts;
+        io.setTurnVoltage(turnVolts);
+    }
+
+    @Override
+    public String[] getLogFields() { return LOG_FIELDS; }
+
+    @Override
+    public void toLog(double[] frame, int offset) {
+        frame[offset] = state != null ? state.speedMetersPerSecond : 0;
+        frame[offset + 1] = targetAngle;
+        frame[offset + 2] = driveOutput;
+        frame[offset + 3] = driveFeedforwardVolts;
+        frame[offset + 4] = turnVolts;
+        frame[offset + 5] = outputScale;
     }
-}
\ No newline at end of file
+}
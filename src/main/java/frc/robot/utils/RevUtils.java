@@ -53,7 +53,7 @@ public final class RevUtils {
    * @param newAngle Target Angle
    * @return Closest angle within scope
    */
-  private static double placeInAppropriate0To360Scope(double scopeReference, double newAngle) {
+  public static double placeInAppropriate0To360Scope(double scopeReference, double newAngle) {
     double lowerBound;
     double upperBound;
     double lowerOffset = scopeReference % 360;
@@ -0,0 +1,157 @@
+package frc.robot.utils;
+
+// Imports
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Translation2d;
+import edu.wpi.first.math.kinematics.ChassisSpeeds;
+import edu.wpi.first.math.kinematics.SwerveModuleState;
+
+/** Turns the {@link ChassisSpeeds} the robot is asked for into module states the modules can actually reach
+ *  by the next loop. Each loop it moves as far from the last setpoint toward the asked for one as it can
+ *  without any module steering faster than it can turn or changing speed faster than its wheel can grip,
+ *  so a module is never told to flip around instantly while its wheel keeps driving */
+public class SwerveSetpointGenerator {
+    /** Modules slower than this in m/sec count as stopped, and may point anywhere without scrubbing */
+    private static final double STOPPED_SPEED = .05;
+    /** The number of halvings used to find how far each module can go */
+    private static final int SEARCH_STEPS = 8;
+
+    private final Translation2d[] modulePositions;
+    private final double maxSpeed;
+    private double maxAcceleration;
+    private final double maxSteeringSpeed;
+
+    // Reused every call so generating a setpoint does not allocate. Velocities are in m/sec, angles in degrees
+    private final double[] previousX, previousY, previousSpeed, previousAngle;
+    private final double[] desiredX, desiredY;
+
+    /**
+     * Constructs a SwerveSetpointGenerator
+     *
+     * @param modulePositions The position of each module relative to the center of the robot, in module number order
+     * @param maxSpeed The fastest any module may drive in m/sec
+     * @param maxAcceleration The most any module's speed may change in m/sec per second
+     * @param maxSteeringSpeed The fastest any module may turn in degrees/sec
+     */
+    public SwerveSetpointGenerator(Translation2d[] modulePositions, double maxSpeed, double maxAcceleration,
+        double maxSteeringSpeed) {
+        this.modulePositions = modulePositions;
+        this.maxSpeed = maxSpeed;
+        this.maxAcceleration = maxAcceleration;
+        this.maxSteeringSpeed = maxSteeringSpeed;
+
+        int modules = modulePositions.length;
+        previousX = new double[modules];
+        previousY = new double[modules];
+        previousSpeed = new double[modules];
+        previousAngle = new double[modules];
+        desiredX = new double[modules];
+        desiredY = new double[modules];
+    }
+
+    /** @param maxAcceleration The most any module's speed may change in m/sec per second from now on */
+    public void setMaxAcceleration(double maxAcceleration) { this.maxAcceleration = maxAcceleration; }
+
+    /**
+     * Finds the closest setpoint to the asked for speeds that every module can reach from the last setpoint
+     *
+     * @param desired How the robot should move, relative to the robot
+     * @param previous The state each module was last told to reach, in module number order
+     * @param dt The seconds until the next setpoint
+     * @return The state each module should reach next, in module number order
+     */
+    public SwerveModuleState[] generate(ChassisSpeeds desired, SwerveModuleState[] previous, double dt) {
+        int modules = modulePositions.length;
+
+        double fastest = 0;
+        for (int i = 0; i < modules; i++) {
+            // A module told to drive backwards is the same as one pointed the other way driving forwards
+            double speed = previous[i].speedMetersPerSecond;
+            double angle = previous[i].angle.getDegrees();
+            previousSpeed[i] = Math.abs(speed);
+            previousAngle[i] = speed < 0 ? angle + 180 : angle;
+            previousX[i] = previousSpeed[i] * Math.cos(Math.toRadians(previousAngle[i]));
+            previousY[i] = previousSpeed[i] * Math.sin(Math.toRadians(previousAngle[i]));
+
+            // Each module moves with the robot plus its share of the robot's rotation
+            Translation2d position = modulePositions[i];
+            desiredX[i] = desired.vxMetersPerSecond - desired.omegaRadiansPerSecond * position.getY();
+            desiredY[i] = desired.vyMetersPerSecond + desired.omegaRadiansPerSecond * position.getX();
+            fastest = Math.max(fastest, Math.hypot(desiredX[i], desiredY[i]));
+        }
+
+        // Slow every module down together if any would go faster than possible
+        if (fastest > maxSpeed) {
+            double scale = maxSpeed / fastest;
+            for (int i = 0; i < modules; i++) {
+                desiredX[i] *= scale;
+                desiredY[i] *= scale;
+            }
+        }
+
+        // Every module moves the same fraction of the way, so the robot as a whole still moves as one
+        double fraction = 1;
+        for (int i = 0; i < modules; i++)
+            fraction = reachableFraction(i, fraction, dt);
+
+        SwerveModuleState[] states = new SwerveModuleState[modules];
+        for (int i = 0; i < modules; i++) {
+            double x = previousX[i] + fraction * (desiredX[i] - previousX[i]);
+            double y = previousY[i] + fraction * (desiredY[i] - previousY[i]);
+            double speed = Math.hypot(x, y);
+            // A stopped module keeps pointing the way it was
+            states[i] = speed < 1e-6
+                ? new SwerveModuleState(0, Rotation2d.fromDegrees(previousAngle[i]))
+                : new SwerveModuleState(speed, new Rotation2d(x, y));
+        }
+        return states;
+    }
+
+    /**
+     * Finds how far a module can move toward its desired velocity this loop
+     *
+     * @param module The module number
+     * @param most The furthest it needs to go, as a fraction of the way from the last setpoint to the desired one
+     * @param dt The seconds until the next setpoint
+     * @return The furthest fraction of the way it can go, no more than most
+     */
+    private double reachableFraction(int module, double most, double dt) {
+        if (canReach(module, most, dt))
+            return most;
+
+        // Going nowhere is always possible, so halve the gap between what is and is not possible
+        double low = 0;
+        double high = most;
+        for (int step = 0; step < SEARCH_STEPS; step++) {
+            double middle = (low + high) / 2;
+            if (canReach(module, middle, dt))
+                low = middle;
+            else
+                high = middle;
+        }
+        return low;
+    }
+
+    /** @return Whether a module can go some fraction of the way from its last setpoint to its desired one this loop */
+    private boolean canReach(int module, double fraction, double dt) {
+        double x = previousX[module] + fraction * (desiredX[module] - previousX[module]);
+        double y = previousY[module] + fraction * (desiredY[module] - previousY[module]);
+        double speed = Math.hypot(x, y);
+
+        // The module turns the short way, driving backwards if that is closer
+        double signedSpeed = speed;
+        double turn = 0;
+        if (speed > 1e-6) {
+            turn = Math.IEEEremainder(Math.toDegrees(Math.atan2(y, x)) - previousAngle[module], 360);
+            if (Math.abs(turn) > 90) {
+                turn = Math.IEEEremainder(turn + 180, 360);
+                signedSpeed = -speed;
+            }
+        }
+
+        if (Math.abs(signedSpeed - previousSpeed[module]) > maxAcceleration * dt + 1e-9)
+            return false;
+        // A stopped module can turn in place without dragging its wheel
+        return previousSpeed[module] < STOPPED_SPEED || Math.abs(turn) <= maxSteeringSpeed * dt + 1e-9;
+    }
+}
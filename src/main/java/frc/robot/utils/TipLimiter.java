@@ -0,0 +1,87 @@
+package frc.robot.utils;
+
+// Imports
+import edu.wpi.first.math.util.Units;
+
+import static frc.robot.Constants.ArmConstants.ROTATION_HORIZONTAL_DEGREES;
+import static frc.robot.Constants.SwerveConstants.TRACK_WIDTH;
+import static frc.robot.Constants.SwerveConstants.WHEEL_BASE;
+import static frc.robot.Constants.TippingConstants.*;
+
+/** Finds how fast the robot may accelerate in each direction before it tips, from where the arm puts the
+ *  robot's center of gravity. Accelerating pushes the robot's weight toward the wheels behind the acceleration,
+ *  and it tips once that weight would land past them. So a high center of gravity, or one already close to
+ *  those wheels, leaves less room to accelerate. */
+public class TipLimiter {
+    /** The robot's center of gravity in meters, forward of the center of the wheels and above the floor */
+    private double forwardMeters;
+    private double heightMeters;
+
+    /** Constructs a TipLimiter, with the arm stowed */
+    public TipLimiter() { update(0, 0, 0); }
+
+    /**
+     * Moves the center of gravity to where the arm now puts it
+     *
+     * @param rotationDegrees The angle of the arm
+     * @param telescopeInches How far the telescope is extended
+     * @param sliderInches How far the slider is extended
+     */
+    public void update(double rotationDegrees, double telescopeInches, double sliderInches) {
+        // The arm's own center moves out as the telescope extends, and the slider carries the whole arm forward
+        double pivotForward = ARM_PIVOT_FORWARD + Units.inchesToMeters(sliderInches);
+        double armReach = ARM_COG_DISTANCE + Units.inchesToMeters(telescopeInches) * TELESCOPE_MASS_FRACTION;
+        double fromHorizontal = Math.toRadians(rotationDegrees - ROTATION_HORIZONTAL_DEGREES);
+        double armForward = pivotForward + armReach * Math.cos(fromHorizontal);
+        double armHeight = ARM_PIVOT_HEIGHT + armReach * Math.sin(fromHorizontal);
+
+        // The chassis' own center is between the wheels, so only the arm moves it forward or back
+        double totalMass = CHASSIS_MASS + ARM_MASS;
+        forwardMeters = ARM_MASS * armForward / totalMass;
+        heightMeters = (CHASSIS_MASS * CHASSIS_COG_HEIGHT + ARM_MASS * armHeight) / totalMass;
+    }
+
+    /**
+     * Finds the most the robot may accelerate in a direction without tipping
+     *
+     * @param x The forward part of the direction, relative to the robot
+     * @param y The left part of the direction, relative to the robot
+     * @return The acceleration limit in m/sec^2
+     */
+    public double getMaxAcceleration(double x, double y) {
+        double length = Math.hypot(x, y);
+        if (length < 1e-9)
+            return getMinAcceleration();
+        x /= length;
+        y /= length;
+
+        // The distance from the center of gravity back to the edge of the wheels, against the acceleration
+        double edge = Double.POSITIVE_INFINITY;
+        if (x > 1e-9)
+            edge = Math.min(edge, (WHEEL_BASE / 2 + forwardMeters) / x);
+        else if (x < -1e-9)
+            edge = Math.min(edge, (WHEEL_BASE / 2 - forwardMeters) / -x);
+        if (Math.abs(y) > 1e-9)
+            edge = Math.min(edge, TRACK_WIDTH / 2 / Math.abs(y));
+
+        return limit(edge);
+    }
+
+    /** @return The most the robot may accelerate in its weakest direction in m/sec^2 */
+    public double getMinAcceleration() {
+        double edge = Math.min(TRACK_WIDTH / 2, WHEEL_BASE / 2 - Math.abs(forwardMeters));
+        return limit(edge);
+    }
+
+    /** @return How far forward of the center of the wheels the center of gravity is in meters */
+    public double getForwardMeters() { return forwardMeters; }
+    /** @return How high above the floor the center of gravity is in meters */
+    public double getHeightMeters() { return heightMeters; }
+
+    /** @return The acceleration that would tip the robot over an edge some distance from the center of gravity,
+     *  less a margin, and no more than the wheels can use */
+    private double limit(double edgeMeters) {
+        double tipping = GRAVITY * Math.max(0, edgeMeters) / heightMeters;
+        return Math.min(tipping * TIP_SAFETY, MAX_ACCELERATION);
+    }
+}
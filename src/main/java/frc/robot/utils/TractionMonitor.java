@@ -0,0 +1,155 @@
+package frc.robot.utils;
+
+// Imports
+import edu.wpi.first.math.geometry.Translation2d;
+import java.util.Arrays;
+
+import static frc.robot.Constants.TippingConstants.GRAVITY;
+import static frc.robot.Constants.TractionConstants.*;
+
+/** Finds which swerve modules are slipping. The gyro gives how fast the robot turns and the accelerometer how
+ *  fast it speeds up, so together with the modules that still grip they say how each module should be moving.
+ *  A module whose wheel disagrees is spinning or sliding on the carpet, so its output is cut back until it
+ *  grips again, and odometry uses the motion it should have had instead of what its wheel measured */
+public class TractionMonitor {
+    private final Translation2d[] modulePositions;
+    private final int moduleCount;
+
+    /** The robot's velocity in m/sec, forward and left relative to the robot */
+    private double vx, vy;
+    /** How far each module's wheel would have driven without slipping, in meters */
+    private final double[] correctedMeters;
+    /** Each module's measured distance last loop, NaN before the first update */
+    private final double[] lastMeters;
+    /** How badly each module is slipping, from 0 gripping to 1 not at all */
+    private final double[] slip;
+    /** The part of its output each module may use */
+    private final double[] outputScale;
+    /** The motion each module's wheel would have without slipping, robot relative, reused each loop */
+    private final double[] expectedX, expectedY;
+    /** The robot velocity each module's wheel implies, reused each loop */
+    private final double[] impliedX, impliedY;
+    /** Space to sort values in, so finding the median does not make garbage each loop */
+    private final double[] sorted;
+
+    /**
+     * Constructs a TractionMonitor
+     *
+     * @param modulePositions Where each module is relative to the center of the robot
+     */
+    public TractionMonitor(Translation2d[] modulePositions) {
+        this.modulePositions = modulePositions;
+        moduleCount = modulePositions.length;
+        correctedMeters = new double[moduleCount];
+        lastMeters = new double[moduleCount];
+        slip = new double[moduleCount];
+        outputScale = new double[moduleCount];
+        expectedX = new double[moduleCount];
+        expectedY = new double[moduleCount];
+        impliedX = new double[moduleCount];
+        impliedY = new double[moduleCount];
+        sorted = new double[moduleCount];
+        Arrays.fill(lastMeters, Double.NaN);
+        Arrays.fill(outputScale, 1);
+    }
+
+    /**
+     * Checks each module against the rest of the robot. Should be called once every loop
+     *
+     * @param speeds How fast each module's wheel is driving in m/sec
+     * @param anglesDegrees The direction each module is pointing in degrees, counterclockwise positive
+     * @param driveMeters How far each module's wheel has driven total in meters
+     * @param omega How fast the gyro says the robot is turning in rad/sec, counterclockwise positive
+     * @param accelForwardG How fast the accelerometer says the robot is speeding up forward in g
+     * @param accelLeftG How fast the accelerometer says the robot is speeding up to the left in g
+     * @param hasGyro Whether the gyro is connected, otherwise only the wheels are used
+     * @param dt The seconds since the last update
+     */
+    public void update(double[] speeds, double[] anglesDegrees, double[] driveMeters,
+        double omega, double accelForwardG, double accelLeftG, boolean hasGyro, double dt) {
+        // The velocity of the center of the robot each wheel says, once the robot's turning is taken out
+        for (int i = 0; i < moduleCount; i++) {
+            double angle = Math.toRadians(anglesDegrees[i]);
+            impliedX[i] = speeds[i] * Math.cos(angle) + omega * modulePositions[i].getY();
+            impliedY[i] = speeds[i] * Math.sin(angle) - omega * modulePositions[i].getX();
+        }
+        // The middle of what the wheels say ignores any one of them slipping
+        double wheelsX = median(impliedX);
+        double wheelsY = median(impliedY);
+
+        if (hasGyro && dt > 0) {
+            // Carry the last velocity forward by the accelerometer. It measures relative to the robot,
+            // which turns under the velocity, so the turning is taken back out. Then nudge it toward the
+            // wheels, which catches the drift of integrating the accelerometer without following every
+            // wheel that spins at once, like on a hard launch
+            double accelX = accelForwardG * GRAVITY + omega * vy;
+            double accelY = accelLeftG * GRAVITY - omega * vx;
+            vx += accelX * dt;
+            vy += accelY * dt;
+            vx += (wheelsX - vx) * WHEEL_TRUST;
+            vy += (wheelsY - vy) * WHEEL_TRUST;
+        } else {
+            vx = wheelsX;
+            vy = wheelsY;
+        }
+
+        for (int i = 0; i < moduleCount; i++) {
+            // How the module should be moving if the whole robot moves together
+            expectedX[i] = vx - omega * modulePositions[i].getY();
+            expectedY[i] = vy + omega * modulePositions[i].getX();
+            double expectedSpeed = Math.hypot(expectedX[i], expectedY[i]);
+
+            double angle = Math.toRadians(anglesDegrees[i]);
+            double error = Math.hypot(
+                speeds[i] * Math.cos(angle) - expectedX[i],
+                speeds[i] * Math.sin(angle) - expectedY[i]);
+            double threshold = SLIP_THRESHOLD + SLIP_FRACTION * expectedSpeed;
+            slip[i] = Math.max(0, Math.min(1, (error - threshold) / threshold));
+
+            // Cut a slipping module's output right away, but give it back slowly once it grips
+            double target = 1 - slip[i] * (1 - SLIP_OUTPUT_SCALE);
+            outputScale[i] = Math.min(target, outputScale[i] + OUTPUT_RECOVERY_RATE * dt);
+
+            // Odometry trusts the wheel less the more it slips, using the motion it should have had instead
+            if (Double.isNaN(lastMeters[i])) {
+                correctedMeters[i] = driveMeters[i];
+            } else {
+                double measured = driveMeters[i] - lastMeters[i];
+                double expected = (expectedX[i] * Math.cos(angle) + expectedY[i] * Math.sin(angle)) * dt;
+                correctedMeters[i] += (1 - slip[i]) * measured + slip[i] * expected;
+            }
+            lastMeters[i] = driveMeters[i];
+        }
+    }
+
+    /** @param moduleNumber The index of the module
+     *  @return How far the module's wheel would have driven without slipping, for odometry */
+    public double getCorrectedMeters(int moduleNumber) { return correctedMeters[moduleNumber]; }
+    /** @param moduleNumber The index of the module
+     *  @return How badly the module is slipping, from 0 gripping to 1 not at all */
+    public double getSlip(int moduleNumber) { return slip[moduleNumber]; }
+    /** @param moduleNumber The index of the module
+     *  @return The part of its output the module may use */
+    public double getOutputScale(int moduleNumber) { return outputScale[moduleNumber]; }
+    /** @return How many modules are slipping at all */
+    public int getSlippingCount() {
+        int count = 0;
+        for (double moduleSlip : slip)
+            if (moduleSlip > 0)
+                count++;
+        return count;
+    }
+    /** @return How fast the robot is moving forward in m/sec, from the accelerometer and the gripping wheels */
+    public double getVelocityX() { return vx; }
+    /** @return How fast the robot is moving left in m/sec, from the accelerometer and the gripping wheels */
+    public double getVelocityY() { return vy; }
+
+    /** @return The middle of some values, the mean of the middle two if there are an even number.
+     *  Sorts a copy so the values stay in module order */
+    private double median(double[] values) {
+        System.arraycopy(values, 0, sorted, 0, moduleCount);
+        Arrays.sort(sorted);
+        int middle = sorted.length / 2;
+        return sorted.length % 2 == 1 ? sorted[middle] : (sorted[middle - 1] + sorted[middle]) / 2;
+    }
+}
@@ -0,0 +1,64 @@
+package frc.robot.wrappers;
+
+// Imports
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.XboxController;
+
+/** An Xbox controller read once per loop. Every binding reads the same copy, so they all agree
+ *  within a loop, and each value only goes through the {@link DriverStation} once */
+public class ControllerSnapshot {
+    private static final int AXES = 6;
+
+    private final int port;
+    private final double[] axes = new double[AXES];
+    private int buttons = 0;
+    private int lastButtons = 0;
+    private int pov = -1;
+
+    /**
+     * Constructs a ControllerSnapshot
+     *
+     * @param port The port the controller is plugged into on the driver station
+     */
+    public ControllerSnapshot(int port) { this.port = port; }
+
+    /** Copies the controller's newest values. Should be called once every loop, before anything reads them */
+    public void update() {
+        for (int axis = 0; axis < AXES; axis++)
+            axes[axis] = DriverStation.getStickAxis(port, axis);
+        lastButtons = buttons;
+        buttons = DriverStation.getStickButtons(port);
+        pov = DriverStation.getStickPOV(port, 0);
+    }
+
+    /** @param axis The number of the axis
+     *  @return The axis's value this loop */
+    public double getRawAxis(int axis) { return axes[axis]; }
+    /** @param button The number of the button, starting at 1
+     *  @return Whether the button is held this loop */
+    public boolean getRawButton(int button) { return (buttons & (1 << (button - 1))) != 0; }
+    /** @param button The number of the button, starting at 1
+     *  @return Whether the button was pressed since last loop */
+    public boolean getRawButtonPressed(int button) {
+        int mask = 1 << (button - 1);
+        return (buttons & mask) != 0 && (lastButtons & mask) == 0;
+    }
+    /** @return The angle of the dpad in degrees, -1 if it is not pressed */
+    public int getPOV() { return pov; }
+
+    public double getLeftX() { return axes[XboxController.Axis.kLeftX.value]; }
+    public double getLeftY() { return axes[XboxController.Axis.kLeftY.value]; }
+    public double getRightX() { return axes[XboxController.Axis.kRightX.value]; }
+    public double getLeftTriggerAxis() { return axes[XboxController.Axis.kLeftTrigger.value]; }
+    public double getRightTriggerAxis() { return axes[XboxController.Axis.kRightTrigger.value]; }
+
+    public boolean getAButton() { return getRawButton(XboxController.Button.kA.value); }
+    public boolean getXButton() { return getRawButton(XboxController.Button.kX.value); }
+    public boolean getYButton() { return getRawButton(XboxController.Button.kY.value); }
+    public boolean getBButton() { return getRawButton(XboxController.Button.kB.value); }
+    public boolean getRightBumper() { return getRawButton(XboxController.Button.kRightBumper.value); }
+    public boolean getRightBumperPressed() { return getRawButtonPressed(XboxController.Button.kRightBumper.value); }
+    public boolean getLeftStickButton() { return getRawButton(XboxController.Button.kLeftStick.value); }
+    public boolean getStartButtonPressed() { return getRawButtonPressed(XboxController.Button.kStart.value); }
+    public boolean getBackButtonPressed() { return getRawButtonPressed(XboxController.Button.kBack.value); }
+}
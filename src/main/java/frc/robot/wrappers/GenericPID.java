@@ -123,11 +123,14 @@ public class GenericPID {
     public void setOutputRange(double min, double max) { controller.setOutputRange(min, max); }
     
     /** Sets the setpoint, and forces it within user-set bounds [min,max] */
-    public void setSetpoint(double set) {
+    public void setSetpoint(double set) { this.setpoint = scaleAndClamp(set, ratio, min, max); }
+
+    /** @return The setpoint converted by the ratio and forced within [min,max] */
+    public static double scaleAndClamp(double set, double ratio, double min, double max) {
         set *= ratio;
 
-        this.setpoint = set < min ? min : 
-                      ( set > max ? max : set );
+        return set < min ? min : 
+             ( set > max ? max : set );
     }
 
     /** Set the PID gains to match the object settings */
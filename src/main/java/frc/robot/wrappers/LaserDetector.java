@@ -1,10 +1,22 @@
 package frc.robot.wrappers;
 
+import edu.wpi.first.wpilibj.AsynchronousInterrupt;
+import edu.wpi.first.wpilibj.DigitalGlitchFilter;
 import edu.wpi.first.wpilibj.DigitalInput;
 
-/** Wraps {@link DigitalInput} to represent a laser detector */
+/** Wraps {@link DigitalInput} to represent a laser detector.
+ *  Can also watch the laser with a hardware interrupt so something blocking it is seen right away
+ *  instead of on the next loop, with noise shorter than a debounce period filtered out by the FPGA */
 public class LaserDetector {
     private DigitalInput laser;
+    private DigitalGlitchFilter filter;
+    private AsynchronousInterrupt interrupt;
+
+    // Set by the interrupt thread
+    private volatile double lastBlockedTimestamp = 0;
+    private volatile double lastClearedTimestamp = 0;
+    /** Run on the interrupt thread each time the laser is blocked */
+    private volatile Runnable onBlocked;
 
     /** 
      * Constructs LaserDetector object 
@@ -20,4 +32,51 @@ public class LaserDetector {
 
     /** @return True if nothing is blocking the laser */
     public boolean isOpen() { return laser.get(); }
+
+    /** @return The FPGA time in seconds the laser was last blocked, 0 if never. Only updated with interrupts enabled */
+    public double getLastBlockedTimestamp() { return lastBlockedTimestamp; }
+    /** @return The FPGA time in seconds the laser was last cleared, 0 if never. Only updated with interrupts enabled */
+    public double getLastClearedTimestamp() { return lastClearedTimestamp; }
+
+    /** @param onBlocked Run on the interrupt thread each time the laser is blocked, null for nothing.
+     *                   Must be quick and thread safe */
+    public void setOnBlocked(Runnable onBlocked) { this.onBlocked = onBlocked; }
+
+    /**
+     * Starts watching the laser with a hardware interrupt. Does nothing if already started
+     *
+     * @param debounceSeconds The signal must hold a new value for this long before it counts.
+     *                        0 to use the raw signal
+     */
+    public void enableInterrupts(double debounceSeconds) {
+        if (interrupt != null)
+            return;
+
+        // The filter runs on the FPGA, so both isBlocked() and the interrupt see the debounced signal
+        if (debounceSeconds > 0) {
+            filter = new DigitalGlitchFilter();
+            filter.add(laser);
+            filter.setPeriodNanoSeconds((long) (debounceSeconds * 1e9));
+        }
+
+        // Blocking the laser pulls the signal low
+        interrupt = new AsynchronousInterrupt(laser, this::onEdge);
+        interrupt.setInterruptEdges(true, true);
+        interrupt.enable();
+    }
+
+    /** Called on the interrupt thread for each edge of the signal */
+    private void onEdge(boolean rising, boolean falling) {
+        if (rising)
+            lastClearedTimestamp = interrupt.getRisingTimestamp();
+
+        if (falling) {
+            lastBlockedTimestamp = interrupt.getFallingTimestamp();
+
+            // Skip an edge that has already reversed by the time it is handled
+            Runnable callback = onBlocked;
+            if (callback != null && isBlocked())
+                callback.run();
+        }
+    }
 }
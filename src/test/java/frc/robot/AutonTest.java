@@ -0,0 +1,137 @@
+package frc.robot;
+
+// Robot imports
+import frc.robot.commands.AutonContainer.Routine;
+
+// Simulation imports
+import edu.wpi.first.wpilibj2.command.Command;
+import edu.wpi.first.wpilibj2.command.CommandScheduler;
+
+// Test imports
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+// Misc imports
+import edu.wpi.first.math.geometry.Pose2d;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Arrays;
+
+import static frc.robot.SimRobot.LOOP_PERIOD;
+
+/** Runs every auton in simulation as fast as the CPU allows, writes how each one went to a CSV file,
+ *  and fails if any of them does not finish within auton */
+public class AutonTest {
+    /** An auton that takes longer than this many simulated seconds did not finish */
+    private static final double AUTON_LENGTH = 15;
+    /** Where the results are written, relative to the project */
+    private static final String OUTPUT_PATH = "build/auton-benchmark.csv";
+
+    private static SimRobot robot;
+    private static RobotContainer robotContainer;
+
+    /** The results of running one auton */
+    private static final class Result {
+        String name;
+        boolean finished;
+        double completionSeconds;
+        double poseErrorMeters = Double.NaN;
+        double headingErrorDegrees = Double.NaN;
+        double meanLoopMs;
+        double p99LoopMs;
+        double maxLoopMs;
+
+        @Override
+        public String toString() {
+            return String.format("%s %s after %.2fs, pose error %.3fm / %.1fdeg, loop mean %.3fms p99 %.3fms max %.3fms",
+                name, finished ? "finished" : "timed out", completionSeconds, poseErrorMeters, headingErrorDegrees,
+                meanLoopMs, p99LoopMs, maxLoopMs);
+        }
+    }
+
+    @BeforeClass
+    public static void startRobot() {
+        robot = new SimRobot();
+        robotContainer = robot.getRobotContainer();
+    }
+
+    @AfterClass
+    public static void stopRobot() {
+        robot.close();
+    }
+
+    @Test
+    public void everyAutonFinishes() {
+        StringBuilder csv = new StringBuilder(
+            "auton,finished,completion_s,pose_error_m,heading_error_deg,mean_loop_ms,p99_loop_ms,max_loop_ms\n");
+        StringBuilder timedOut = new StringBuilder();
+
+        for (Routine routine : robotContainer.getAutonContainer().getRoutines()) {
+            Result result = runRoutine(routine);
+            if (!result.finished)
+                timedOut.append("\n  ").append(result);
+
+            csv.append(String.format("%s,%b,%.3f,%.4f,%.2f,%.4f,%.4f,%.4f%n",
+                result.name, result.finished, result.completionSeconds,
+                result.poseErrorMeters, result.headingErrorDegrees,
+                result.meanLoopMs, result.p99LoopMs, result.maxLoopMs));
+        }
+
+        try (PrintWriter writer = new PrintWriter(OUTPUT_PATH)) {
+            writer.print(csv);
+        } catch (IOException e) {
+            fail("Could not write auton benchmark results to " + OUTPUT_PATH + ": " + e.getMessage());
+        }
+
+        assertEquals("Autons did not finish within " + AUTON_LENGTH + "s:" + timedOut, 0, timedOut.length());
+    }
+
+    /** Enables the robot in auton, runs the routine, and steps until it ends */
+    private Result runRoutine(Routine routine) {
+        Result result = new Result();
+        result.name = routine.name;
+
+        // Run this routine rather than whatever autonomousInit() took from the dashboard
+        robot.disable();
+        robot.enable(true);
+        CommandScheduler.getInstance().cancelAll();
+        Command command = routine.command.get();
+        command.schedule();
+
+        int maxLoops = (int) (AUTON_LENGTH / LOOP_PERIOD);
+        double[] loopMs = new double[maxLoops];
+        int loops = 0;
+        while (loops < maxLoops) {
+            long start = System.nanoTime();
+            robot.step();
+            loopMs[loops++] = (System.nanoTime() - start) / 1e6;
+            if (!command.isScheduled()) {
+                result.finished = true;
+                break;
+            }
+        }
+        result.completionSeconds = loops * LOOP_PERIOD;
+        // Some autons are meant to run until auton ends
+        if (routine.holdsUntilEnd)
+            result.finished = true;
+        command.cancel();
+
+        // Compare where the robot ended to where it should have ended
+        if (routine.expectedEndPose != null) {
+            Pose2d pose = robotContainer.getDrivetrain().getPoseMeters();
+            Pose2d expected = routine.expectedEndPose.get();
+            result.poseErrorMeters = pose.getTranslation().getDistance(expected.getTranslation());
+            result.headingErrorDegrees =
+                Math.abs(pose.getRotation().minus(expected.getRotation()).getDegrees());
+        }
+
+        double[] sorted = Arrays.copyOf(loopMs, loops);
+        Arrays.sort(sorted);
+        result.meanLoopMs = Arrays.stream(sorted).average().orElse(0);
+        result.p99LoopMs = sorted[Math.min(loops - 1, (int) (loops * .99))];
+        result.maxLoopMs = sorted[loops - 1];
+        return result;
+    }
+}
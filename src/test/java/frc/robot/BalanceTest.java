@@ -0,0 +1,146 @@
+package frc.robot;
+
+// Robot imports
+import frc.robot.commands.AutoBalance;
+import frc.robot.subsystems.Drivetrain;
+import frc.robot.subsystems.SwerveModule;
+
+// Test imports
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import static frc.robot.Constants.BalanceConstants.LEVEL_DEGREES;
+import static frc.robot.Constants.SwerveConstants.MODULE_TRANSLATIONS;
+import static frc.robot.SimRobot.LOOP_PERIOD;
+
+/** Balances a simulated charge station from several starts, and fails if the wheels do not lock in an X on a
+ *  level station in time or the station does not stay level after. The robot starts on one end of the board
+ *  with that end down, facing along the board, backward or across it */
+public class BalanceTest {
+    /** How long each run lasts in simulated seconds */
+    private static final double RUN_SECONDS = 10;
+    /** A run fails if the wheels have not locked on a level station by this many simulated seconds */
+    private static final double MAX_BALANCE_SECONDS = 5;
+    /** How far in degrees a locked module may point from the X, either way along its wheel */
+    private static final double LOCK_TOLERANCE_DEGREES = 3;
+
+    /** The direction along the board relative to the robot, and how far past the hinge the robot starts */
+    private static final double[][] STARTS = {
+        { 0, -.5 }, { 0, .5 }, { 180, -.5 }, { 90, -.5 }, { 45, -.4 }, { 0, -.25 }
+    };
+
+    private static SimRobot robot;
+    private static RobotContainer robotContainer;
+    private static ChargeStationSim station;
+
+    /** How one run went */
+    private static final class Result {
+        /** When the wheels locked for the last time, or NaN if they never did */
+        double balancedSeconds = Double.NaN;
+        /** The most the board tilted once the wheels locked for the last time */
+        double settledTiltDegrees;
+        double finalTiltDegrees;
+        /** The furthest any module was told to point, or pointed, from the X at the end, NaN if never locked */
+        double lockErrorDegrees = Double.NaN;
+
+        @Override
+        public String toString() {
+            return String.format("locked at %.2fs, settled tilt %.2fdeg, final tilt %.2fdeg, lock error %.1fdeg",
+                balancedSeconds, settledTiltDegrees, finalTiltDegrees, lockErrorDegrees);
+        }
+    }
+
+    @BeforeClass
+    public static void startRobot() {
+        // The sticks stay centered, so the default drive command holds still until balancing takes over
+        robot = new SimRobot();
+        robotContainer = robot.getRobotContainer();
+        station = new ChargeStationSim(robotContainer.getGyroSim());
+        // Tip the station under where the robot is before each loop, so the robot reads the tilt the station
+        // had at the start of the loop
+        robot.setWorld(() -> station.update(robotContainer.getDrivetrain().getPoseMeters(), LOOP_PERIOD));
+    }
+
+    @AfterClass
+    public static void stopRobot() {
+        robot.close();
+    }
+
+    @Test
+    public void balancesFromEveryStart() {
+        StringBuilder failures = new StringBuilder();
+
+        for (double[] start : STARTS) {
+            Result result = runOnce(start[0], start[1]);
+            boolean passed = result.balancedSeconds <= MAX_BALANCE_SECONDS
+                && result.settledTiltDegrees < LEVEL_DEGREES
+                && result.lockErrorDegrees <= LOCK_TOLERANCE_DEGREES;
+            if (!passed)
+                failures.append(String.format("\n  axis %.0fdeg, start %.2fm: %s", start[0], start[1], result));
+        }
+
+        assertEquals(String.format("Did not lock within %.0fs, stay within %.1fdeg of level and point within %.0fdeg"
+            + " of the X from:%s", MAX_BALANCE_SECONDS, LEVEL_DEGREES, LOCK_TOLERANCE_DEGREES, failures),
+            0, failures.length());
+    }
+
+    /** Places the robot on the low end of the board and balances until the run ends */
+    private Result runOnce(double axisDegrees, double startMeters) {
+        Drivetrain drivetrain = robotContainer.getDrivetrain();
+
+        // Come to a stop, then put the robot at the origin with the hinge ahead of or behind it along the board
+        robot.disable();
+        drivetrain.resetHeading();
+        drivetrain.resetOdometry();
+        double axis = Math.toRadians(axisDegrees);
+        station.reset(-startMeters * Math.cos(axis), -startMeters * Math.sin(axis), axisDegrees,
+            startMeters < 0 ? ChargeStationSim.MAX_TILT_DEGREES : -ChargeStationSim.MAX_TILT_DEGREES);
+        station.update(drivetrain.getPoseMeters(), 0);
+
+        robot.enable(false);
+        AutoBalance balance = new AutoBalance(drivetrain);
+        balance.schedule();
+
+        Result result = new Result();
+        boolean wasBalanced = false;
+        int loops = (int) (RUN_SECONDS / LOOP_PERIOD);
+        for (int loop = 1; loop <= loops; loop++) {
+            robot.step();
+            boolean isBalanced = balance.isBalanced();
+            if (isBalanced && !wasBalanced) {
+                result.balancedSeconds = loop * LOOP_PERIOD;
+                result.settledTiltDegrees = 0;
+            }
+            if (!isBalanced)
+                result.balancedSeconds = Double.NaN;
+            wasBalanced = isBalanced;
+            result.settledTiltDegrees = Math.max(result.settledTiltDegrees, Math.abs(station.getTiltDegrees()));
+        }
+        result.finalTiltDegrees = station.getTiltDegrees();
+        if (Double.isNaN(result.balancedSeconds))
+            result.settledTiltDegrees = Double.NaN;
+
+        // The wheels have to form the X, not just the command think they are locked
+        if (balance.isBalanced()) {
+            result.lockErrorDegrees = 0;
+            for (int i = 0; i < 4; i++) {
+                SwerveModule module = drivetrain.getSwerveModule(i);
+                double lockDegrees = MODULE_TRANSLATIONS[i].getAngle().getDegrees();
+                result.lockErrorDegrees = Math.max(result.lockErrorDegrees, Math.max(
+                    lockError(module.getDesiredState().angle.getDegrees(), lockDegrees),
+                    lockError(module.getHeadingDegrees(), lockDegrees)));
+            }
+        }
+
+        balance.cancel();
+        robot.disable();
+        return result;
+    }
+
+    /** @return How far in degrees a module points from its locked angle, either way along its wheel */
+    private static double lockError(double degrees, double lockDegrees) {
+        return Math.abs(Math.IEEEremainder(degrees - lockDegrees, 180));
+    }
+}
@@ -0,0 +1,113 @@
+package frc.robot;
+
+// Imports
+import edu.wpi.first.math.geometry.Pose2d;
+import frc.robot.io.GyroIOSim;
+
+import static frc.robot.Constants.TippingConstants.*;
+
+/** A simulated charge station. It is a see-saw, a board on a hinge across its middle that the robot's weight
+ *  tips toward whichever side the robot is on. The hinge has friction, so the board holds still while the
+ *  robot is close enough to the middle, and it stops against the floor at its steepest */
+public class ChargeStationSim {
+    /** How far the board reaches from the hinge along its length, and from its middle across it, in meters */
+    private static final double HALF_LENGTH = .61, HALF_WIDTH = 1.22;
+    /** The steepest the board can tilt before an end hits the floor */
+    public static final double MAX_TILT_DEGREES = 15;
+    private static final double MAX_TILT = Math.toRadians(MAX_TILT_DEGREES);
+    /** The board's own moment of inertia about the hinge in kg*m^2 */
+    private static final double BOARD_INERTIA = 15;
+    /** The torque the hinge resists with per rad/sec it turns, in N*m*sec */
+    private static final double HINGE_DAMPING = 60;
+    /** The torque the hinge's friction holds against in N*m */
+    private static final double HINGE_FRICTION = 60;
+    /** Each update is split into this many steps, since the board tips quickly */
+    private static final int SUBSTEPS = 20;
+
+    private final GyroIOSim gyro;
+    /** Where the hinge's middle is on the field, and the direction along the board that tilts up for positive tilt */
+    private double hingeX, hingeY, axisRadians;
+    /** The board's tilt in rad, its +axis end up positive, and how fast it tilts in rad/sec */
+    private double tilt, tiltRate;
+
+    /**
+     * Constructs a ChargeStationSim
+     *
+     * @param gyro The simulated gyro, which is tilted as the robot drives over the board
+     */
+    public ChargeStationSim(GyroIOSim gyro) {
+        this.gyro = gyro;
+    }
+
+    /**
+     * Places the board, at rest against the floor
+     *
+     * @param hingeX Where the middle of the hinge is on the field in meters
+     * @param hingeY Where the middle of the hinge is on the field in meters
+     * @param axisDegrees The field direction along the board's length
+     * @param tiltDegrees The board's starting tilt, its end along the axis up positive
+     */
+    public void reset(double hingeX, double hingeY, double axisDegrees, double tiltDegrees) {
+        this.hingeX = hingeX;
+        this.hingeY = hingeY;
+        axisRadians = Math.toRadians(axisDegrees);
+        tilt = Math.max(-MAX_TILT, Math.min(MAX_TILT, Math.toRadians(tiltDegrees)));
+        tiltRate = 0;
+        gyro.setTilt(0, 0, 0, 0);
+    }
+
+    /**
+     * Tips the board under the robot's weight, then tilts the simulated gyro to match
+     *
+     * @param robotPose Where the robot is on the field
+     * @param dt The seconds since the last update
+     */
+    public void update(Pose2d robotPose, double dt) {
+        // How far the robot is along the board past the hinge, and across it
+        double dx = robotPose.getX() - hingeX;
+        double dy = robotPose.getY() - hingeY;
+        double along = dx * Math.cos(axisRadians) + dy * Math.sin(axisRadians);
+        double across = -dx * Math.sin(axisRadians) + dy * Math.cos(axisRadians);
+        boolean isOnBoard = Math.abs(along) <= HALF_LENGTH && Math.abs(across) <= HALF_WIDTH;
+        double robotMass = isOnBoard ? CHASSIS_MASS + ARM_MASS : 0;
+
+        double h = dt / SUBSTEPS;
+        for (int i = 0; i < SUBSTEPS; i++) {
+            // The robot's weight pushes its side of the board down
+            double torque = -robotMass * GRAVITY * along * Math.cos(tilt) - HINGE_DAMPING * tiltRate;
+            if (tiltRate == 0 && Math.abs(torque) <= HINGE_FRICTION)
+                continue;
+            torque -= HINGE_FRICTION * Math.signum(tiltRate != 0 ? tiltRate : torque);
+
+            double inertia = BOARD_INERTIA + robotMass * along * along;
+            double previousRate = tiltRate;
+            tiltRate += torque / inertia * h;
+            // Friction stops the board rather than turning it back the other way
+            if (previousRate != 0 && Math.signum(tiltRate) != Math.signum(previousRate))
+                tiltRate = 0;
+            tilt += tiltRate * h;
+
+            // The ends stop against the floor
+            if (Math.abs(tilt) >= MAX_TILT) {
+                tilt = Math.copySign(MAX_TILT, tilt);
+                tiltRate = 0;
+            }
+        }
+
+        // The robot feels the tilt along its own length as pitch and across it as roll
+        if (isOnBoard) {
+            double relative = axisRadians - robotPose.getRotation().getRadians();
+            double cos = Math.cos(relative);
+            double sin = Math.sin(relative);
+            gyro.setTilt(Math.toDegrees(tilt) * cos, Math.toDegrees(tilt) * sin,
+                Math.toDegrees(tiltRate) * cos, Math.toDegrees(tiltRate) * sin);
+        } else {
+            gyro.setTilt(0, 0, 0, 0);
+        }
+    }
+
+    /** @return The board's tilt in degrees, its end along the axis up positive */
+    public double getTiltDegrees() { return Math.toDegrees(tilt); }
+    /** @return How fast the board is tilting in degrees/sec */
+    public double getTiltRate() { return Math.toDegrees(tiltRate); }
+}
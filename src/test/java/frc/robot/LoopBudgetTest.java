@@ -0,0 +1,153 @@
+package frc.robot;
+
+// Robot imports
+import frc.robot.commands.AutonContainer.Routine;
+
+// Simulation imports
+import edu.wpi.first.wpilibj.simulation.DriverStationSim;
+import edu.wpi.first.wpilibj2.command.CommandScheduler;
+
+// Test imports
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+// Misc imports
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.List;
+
+import static frc.robot.Constants.ControllerPorts.*;
+import static frc.robot.SimRobot.*;
+
+/** Drives the robot through teleop and auton scenarios in simulation and fails if a loop costs too much.
+ *  Each loop's CPU time and the bytes it allocates are measured on the main thread, and checked against
+ *  a budget once the code has warmed up */
+public class LoopBudgetTest {
+    /** How long each scenario runs in simulated seconds */
+    private static final double SCENARIO_SECONDS = 10;
+    /** Loops in the first seconds of a scenario are not checked, while the JIT and caches warm up */
+    private static final double WARMUP_SECONDS = 2;
+
+    /** The 99th percentile CPU time of a loop may not go over this. A desktop runs several times
+     *  faster than the roboRIO, so this leaves room for CameraServer and NetworkTables there */
+    private static final double CPU_BUDGET_MS = 2;
+    /** The average bytes allocated by a loop may not go over this once warmed up */
+    private static final double ALLOCATION_BUDGET_BYTES = 16 * 1024;
+
+    /** The operator's arm preset buttons, pressed one after another */
+    private static final int[] ARM_PRESET_BUTTONS = { 5, 7, 3, 1, 4, 2, 6 };
+
+    /** Sets the controllers for a moment in a scenario */
+    private interface Driver {
+        /** @param seconds How long the scenario has been running */
+        void drive(double seconds);
+    }
+
+    private static SimRobot robot;
+    private static RobotContainer robotContainer;
+    private static final com.sun.management.ThreadMXBean threads =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    @BeforeClass
+    public static void startRobot() {
+        robot = new SimRobot();
+        robotContainer = robot.getRobotContainer();
+    }
+
+    @AfterClass
+    public static void stopRobot() {
+        robot.close();
+    }
+
+    /** Sweeps the sticks through every direction at once */
+    @Test
+    public void teleopDrive() {
+        runScenario("Teleop Drive", false, seconds -> {
+            setAxis(DRIVER_PORT, LEFT_X, Math.sin(seconds));
+            setAxis(DRIVER_PORT, LEFT_Y, Math.cos(.7 * seconds));
+            setAxis(DRIVER_PORT, RIGHT_X, .5 * Math.sin(1.3 * seconds));
+        });
+    }
+
+    /** Moves the arm to a new preset every second, and works the claw, while driving slowly */
+    @Test
+    public void teleopArm() {
+        runScenario("Teleop Arm", false, seconds -> {
+            setAxis(DRIVER_PORT, LEFT_Y, .3 * Math.sin(seconds));
+            int preset = (int) seconds % ARM_PRESET_BUTTONS.length;
+            for (int i = 0; i < ARM_PRESET_BUTTONS.length; i++)
+                DriverStationSim.setJoystickButton(OPERATOR_PORT, ARM_PRESET_BUTTONS[i], i == preset);
+            DriverStationSim.setJoystickButton(DRIVER_PORT, RIGHT_BUMPER, (int) (seconds * 2) % 3 == 0);
+        });
+    }
+
+    /** Holds B to generate and follow a path to the selected node */
+    @Test
+    public void teleopDriveToNode() {
+        runScenario("Teleop Drive To Node", false,
+            seconds -> DriverStationSim.setJoystickButton(DRIVER_PORT, B_BUTTON, true));
+    }
+
+    /** Runs the longest auton */
+    @Test
+    public void auton() {
+        runScenario("Auton", true, seconds -> {});
+    }
+
+    /** Runs one scenario and fails if it went over budget */
+    private void runScenario(String name, boolean autonomous, Driver driver) {
+        // Let go of everything and start the scenario from disabled
+        robot.releaseControls();
+        robot.disable();
+        robot.enable(autonomous);
+        // Run the longest auton rather than whatever autonomousInit() took from the dashboard
+        if (autonomous) {
+            CommandScheduler.getInstance().cancelAll();
+            List<Routine> routines = robotContainer.getAutonContainer().getRoutines();
+            routines.get(routines.size() - 1).command.get().schedule();
+        }
+
+        int loops = (int) (SCENARIO_SECONDS / LOOP_PERIOD);
+        int warmupLoops = (int) (WARMUP_SECONDS / LOOP_PERIOD);
+        double[] cpuMs = new double[loops - warmupLoops];
+        long allocatedBytes = 0;
+
+        for (int loop = 0; loop < loops; loop++) {
+            driver.drive(loop * LOOP_PERIOD);
+            DriverStationSim.notifyNewData();
+
+            long threadId = Thread.currentThread().getId();
+            long startBytes = threads.getThreadAllocatedBytes(threadId);
+            long startCpu = threads.getCurrentThreadCpuTime();
+            robot.step();
+            long cpu = threads.getCurrentThreadCpuTime() - startCpu;
+            long bytes = threads.getThreadAllocatedBytes(threadId) - startBytes;
+
+            if (loop >= warmupLoops) {
+                cpuMs[loop - warmupLoops] = cpu / 1e6;
+                allocatedBytes += bytes;
+            }
+        }
+        CommandScheduler.getInstance().cancelAll();
+
+        Arrays.sort(cpuMs);
+        double meanMs = Arrays.stream(cpuMs).average().orElse(0);
+        double p99Ms = cpuMs[Math.min(cpuMs.length - 1, (int) (cpuMs.length * .99))];
+        double maxMs = cpuMs[cpuMs.length - 1];
+        double bytesPerLoop = (double) allocatedBytes / cpuMs.length;
+        String costs = String.format(" (CPU mean %.3fms p99 %.3fms max %.3fms, %.0f bytes/loop)",
+            meanMs, p99Ms, maxMs, bytesPerLoop);
+
+        assertTrue(name + " p99 loop CPU time is over " + CPU_BUDGET_MS + "ms" + costs,
+            p99Ms <= CPU_BUDGET_MS);
+        assertTrue(name + " allocates over " + ALLOCATION_BUDGET_BYTES + " bytes per loop" + costs,
+            bytesPerLoop <= ALLOCATION_BUDGET_BYTES);
+    }
+
+    /** Sets an axis of a simulated controller */
+    private static void setAxis(int port, int axis, double value) {
+        DriverStationSim.setJoystickAxis(port, axis, value);
+    }
+}
@@ -0,0 +1,100 @@
+package frc.robot;
+
+// Simulation imports
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.wpilibj.simulation.DriverStationSim;
+import edu.wpi.first.wpilibj.simulation.SimHooks;
+
+// Test imports
+import static org.junit.Assert.*;
+
+import static frc.robot.Constants.ControllerPorts.*;
+
+/** The whole robot running in simulation for a test. Simulated time only moves forward when the test steps it,
+ *  and the driver station is attached with both controllers plugged in. Only one can exist per JVM, so each
+ *  test class makes one before its tests and closes it after */
+public class SimRobot implements AutoCloseable {
+    /** The length of one loop in simulated seconds */
+    public static final double LOOP_PERIOD = .02;
+    /** Loops run while disabled so the robot comes to a stop */
+    public static final int DISABLED_LOOPS = 10;
+
+    // Xbox controller layout
+    public static final int LEFT_X = 0, LEFT_Y = 1, RIGHT_X = 4;
+    public static final int B_BUTTON = 2, RIGHT_BUMPER = 6;
+    private static final int AXES = 6, BUTTONS = 10;
+
+    private final Robot robot;
+    private final RobotContainer robotContainer;
+    /** Run before each loop, to move anything simulated outside the robot */
+    private Runnable world = () -> {};
+
+    /** Starts the HAL and the robot, disabled in teleop with every control let go */
+    public SimRobot() {
+        assertTrue(HAL.initialize(500, 0));
+        SimHooks.pauseTiming();
+        DriverStationSim.setDsAttached(true);
+        DriverStationSim.setAutonomous(false);
+        for (int port : new int[] { DRIVER_PORT, OPERATOR_PORT }) {
+            DriverStationSim.setJoystickAxisCount(port, AXES);
+            DriverStationSim.setJoystickButtonCount(port, BUTTONS);
+            DriverStationSim.setJoystickPOVCount(port, 1);
+        }
+        releaseControls();
+
+        robot = new Robot();
+        robot.robotInit();
+        robotContainer = robot.getRobotContainer();
+    }
+
+    public RobotContainer getRobotContainer() { return robotContainer; }
+
+    /** @param world Run before each loop, to move anything simulated outside the robot so it reads the new state */
+    public void setWorld(Runnable world) { this.world = world; }
+
+    /** Moves simulated time forward one loop and runs the robot's loop once */
+    public void step() {
+        world.run();
+        robot.runLoopOnce(LOOP_PERIOD);
+    }
+
+    /** Runs some loops
+     *  @param loops How many loops to run */
+    public void step(int loops) {
+        for (int i = 0; i < loops; i++)
+            step();
+    }
+
+    /** Disables the robot and runs loops until it has stopped */
+    public void disable() {
+        DriverStationSim.setEnabled(false);
+        DriverStationSim.notifyNewData();
+        step(DISABLED_LOOPS);
+    }
+
+    /** Enables the robot and runs one loop, so the mode's init has run
+     *  @param autonomous True to enable in auton, false in teleop */
+    public void enable(boolean autonomous) {
+        DriverStationSim.setAutonomous(autonomous);
+        DriverStationSim.setEnabled(true);
+        DriverStationSim.notifyNewData();
+        step();
+    }
+
+    /** Centers every stick and lets go of every button on both controllers */
+    public void releaseControls() {
+        for (int port : new int[] { DRIVER_PORT, OPERATOR_PORT }) {
+            DriverStationSim.setJoystickButtons(port, 0);
+            for (int axis = 0; axis < AXES; axis++)
+                DriverStationSim.setJoystickAxis(port, axis, 0);
+        }
+        DriverStationSim.notifyNewData();
+    }
+
+    /** Stops the robot, saving its log, and lets time run on its own again */
+    @Override
+    public void close() {
+        robot.close();
+        SimHooks.resumeTiming();
+    }
+}
@@ -0,0 +1,105 @@
+package frc.robot;
+
+// Robot imports
+import frc.robot.subsystems.Drivetrain;
+
+// Simulation imports
+import edu.wpi.first.wpilibj.simulation.DriverStationSim;
+
+// Test imports
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+// Misc imports
+import edu.wpi.first.math.geometry.Pose2d;
+
+import static frc.robot.Constants.ControllerPorts.*;
+import static frc.robot.SimRobot.*;
+
+/** Drives the robot in a straight line while it spins in simulation, once with drive instructions corrected
+ *  for the robot turning during each loop and once without, and fails if the correction drifts off the line
+ *  as much as going without it */
+public class SpinDriveTest {
+    /** How long the robot drives while spinning in simulated seconds */
+    private static final double DRIVE_SECONDS = 3;
+
+    /** How far each spin speed pushes the sticks */
+    private static final double DRIVE_STICK = -1;
+    private static final double[] SPIN_STICKS = { .4, .7, 1 };
+
+    private static SimRobot robot;
+    private static RobotContainer robotContainer;
+
+    /** How one run drifted off the line */
+    private static final class Result {
+        double maxDriftMeters;
+        double finalDriftMeters;
+        double travelMeters;
+
+        @Override
+        public String toString() {
+            return String.format("drifted up to %.3fm (%.3fm at the end) over %.2fm",
+                maxDriftMeters, finalDriftMeters, travelMeters);
+        }
+    }
+
+    @BeforeClass
+    public static void startRobot() {
+        robot = new SimRobot();
+        robotContainer = robot.getRobotContainer();
+    }
+
+    @AfterClass
+    public static void stopRobot() {
+        robotContainer.getDrivetrain().setDiscretized(true);
+        robot.close();
+    }
+
+    @Test
+    public void correctionDriftsLess() {
+        StringBuilder failures = new StringBuilder();
+
+        for (double spin : SPIN_STICKS) {
+            Result without = runOnce(spin, false);
+            Result with = runOnce(spin, true);
+            if (with.maxDriftMeters >= without.maxDriftMeters)
+                failures.append(String.format("\n  spin %.1f: corrected %s, uncorrected %s", spin, with, without));
+        }
+
+        assertEquals("The correction did not drift less:" + failures, 0, failures.length());
+    }
+
+    /** Drives forward while spinning from a fresh start and measures how far the robot drifts sideways */
+    private Result runOnce(double spin, boolean discretized) {
+        Drivetrain drivetrain = robotContainer.getDrivetrain();
+        drivetrain.setDiscretized(discretized);
+
+        // Let go of the sticks and come to a stop before starting over from the origin
+        robot.releaseControls();
+        robot.disable();
+        drivetrain.resetHeading();
+        drivetrain.resetOdometry();
+
+        DriverStationSim.setJoystickAxis(DRIVER_PORT, LEFT_Y, DRIVE_STICK);
+        DriverStationSim.setJoystickAxis(DRIVER_PORT, RIGHT_X, spin);
+        robot.enable(false);
+
+        // Field centric forward is along X, so any Y is drift
+        Result result = new Result();
+        int loops = (int) (DRIVE_SECONDS / LOOP_PERIOD);
+        for (int loop = 0; loop < loops; loop++) {
+            robot.step();
+            result.maxDriftMeters = Math.max(result.maxDriftMeters, Math.abs(drivetrain.getPoseMeters().getY()));
+        }
+
+        Pose2d pose = drivetrain.getPoseMeters();
+        result.finalDriftMeters = Math.abs(pose.getY());
+        result.travelMeters = Math.abs(pose.getX());
+
+        robot.releaseControls();
+        robot.disable();
+        return result;
+    }
+}